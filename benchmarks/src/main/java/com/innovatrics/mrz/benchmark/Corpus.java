@@ -0,0 +1,37 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.types.MrzFormat;
+
+/**
+ * Benchmark inputs, generated with a fixed seed so runs are comparable.
+ */
+final class Corpus {
+
+	/**
+	 * Number of inputs cycled through by each benchmark, a power of two.
+	 */
+	static final int SIZE = 1024;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private Corpus() {
+		// Do nothing
+	}
+
+	/**
+	 * @param format the only format to generate
+	 * @param valid true for valid check digits, false to corrupt one check digit of every record
+	 * @return the MRZs
+	 */
+	static String[] create(final MrzFormat format, final boolean valid) {
+		final MrzGenerator generator = new MrzGenerator(format.ordinal());
+		for (MrzFormat f : MrzFormat.values()) {
+			generator.setFormatWeight(f, f == format ? 1 : 0);
+		}
+		generator.setInvalidCheckDigitRate(valid ? 0 : 1);
+		return generator.stream(SIZE).toArray(String[]::new);
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.MrzWriter;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing records back to a MRZ. Invalid inputs are records parsed from MRZs with a corrupted check digit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class EncodeBenchmark {
+
+	/**
+	 * All formats.
+	 */
+	@Param
+	public MrzFormat format;
+
+	@Param({"true", "false"})
+	public boolean valid;
+
+	private MrzRecord[] records;
+
+	private final MrzWriter writer = new MrzWriter();
+
+	private int index;
+
+	/**
+	 * Generate the inputs.
+	 *
+	 * @throws Exception could not parse the generated inputs
+	 */
+	@Setup
+	public void setup() throws Exception {
+		final String[] inputs = Corpus.create(format, valid);
+		records = new MrzRecord[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			records[i] = MrzParser.parse(inputs[i]);
+		}
+	}
+
+	/**
+	 * @return the MRZ
+	 */
+	@Benchmark
+	public String toMrz() {
+		return next().toMrz();
+	}
+
+	/**
+	 * @return the writer holding the MRZ
+	 */
+	@Benchmark
+	public MrzWriter write() {
+		return writer.write(next());
+	}
+
+	/**
+	 * @return the name field
+	 */
+	@Benchmark
+	public String nameToMrz() {
+		final MrzRecord record = next();
+		return MrzParser.nameToMrz(record.getSurname().isEmpty() ? "X" : record.getSurname(), record.getGivenNames().isEmpty() ? "X" : record.getGivenNames(), 39);
+	}
+
+	private MrzRecord next() {
+		index = (index + 1) & (Corpus.SIZE - 1);
+		return records[index];
+	}
+
+}
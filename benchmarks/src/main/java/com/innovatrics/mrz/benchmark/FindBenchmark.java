@@ -0,0 +1,74 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Locating a MRZ in OCR output. Valid inputs contain a MRZ surrounded by other text, invalid inputs have the MRZ rows cut short so no MRZ is
+ * found.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class FindBenchmark {
+
+	private static final String HEADER = "REPUBLIC OF UTOPIA\nPASSPORT\n\nSurname / Nom\n";
+	private static final String FOOTER = "\n\nPage 2\n";
+
+	/**
+	 * All formats.
+	 */
+	@Param
+	public MrzFormat format;
+
+	@Param({"true", "false"})
+	public boolean valid;
+
+	private String[] inputs;
+
+	private int index;
+
+	/**
+	 * Generate the inputs.
+	 */
+	@Setup
+	public void setup() {
+		inputs = Corpus.create(format, true);
+		for (int i = 0; i < inputs.length; i++) {
+			final String mrz = valid ? inputs[i] : inputs[i].replaceAll("(?m)^(.{20}).*$", "$1");
+			inputs[i] = HEADER + mrz + FOOTER;
+		}
+	}
+
+	/**
+	 * @return the MRZ, or null if not found
+	 * @throws MrzParseException MRZ found but invalid
+	 */
+	@Benchmark
+	public String findMrz() throws MrzParseException {
+		index = (index + 1) & (Corpus.SIZE - 1);
+		try {
+			return MrzFinderUtil.findMrz(inputs[index]);
+		} catch (MrzNotFoundException ex) {
+			return null;
+		}
+	}
+
+}
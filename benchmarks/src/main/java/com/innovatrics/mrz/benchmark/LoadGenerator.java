@@ -0,0 +1,409 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Macro load generator, driving {@link MrzFinderUtil#findMrz(String)} and {@link MrzParser#parse(String)} with the texts of a corpus.
+ * <p>
+ * In open loop mode (<code>-rate</code>) operations are scheduled at a fixed arrival rate and latency is measured from the scheduled start, so
+ * a stalled worker does not hide the delay of the operations queued behind it. In closed loop mode each thread starts the next operation as
+ * soon as the previous one completed, and the latency histograms are corrected for coordinated omission with the expected interval (by default
+ * the mean latency measured during the second half of the warm-up, once the code is compiled). Latencies are recorded per {@link MrzFormat}.
+ * </p>
+ * <p>
+ * The throughput is computed over the elapsed time from the first measured start to the last completion. Operations started within the
+ * measured duration are completed however late, so under overload the elapsed time exceeds the duration and the throughput falls below the
+ * open loop rate.
+ * </p>
+ * <p>
+ * The corpus is a text file of blocks separated by blank lines, as written by {@link MrzGenerator#write(java.nio.file.Path, long)}. Each block
+ * is passed to the finder as is, so blocks may also contain the OCR text surrounding the MRZ.
+ * </p>
+ * <pre>
+ * java -cp target/benchmarks.jar com.innovatrics.mrz.benchmark.LoadGenerator [options]
+ *   -corpus FILE      the corpus, or generate one with -generate
+ *   -generate COUNT   number of MRZs to generate if no corpus is given (default 10000)
+ *   -seed SEED        seed of the generated corpus (default 1)
+ *   -threads COUNT    number of worker threads (default the number of processors)
+ *   -rate OPS         open loop arrival rate in operations per second, 0 for closed loop (default 0)
+ *   -interval MICROS  closed loop expected interval for coordinated omission correction (default the steady-state warm-up mean)
+ *   -warmup SECONDS   warm-up duration, not measured (default 10)
+ *   -duration SECONDS measured duration (default 30)
+ * </pre>
+ */
+public final class LoadGenerator {
+
+	private static final int FORMATS = MrzFormat.values().length;
+
+	private final String[] corpus;
+	private final int threads;
+	private final double rate;
+	private final long intervalNanos;
+	private final long warmupNanos;
+	private final long durationNanos;
+
+	private final AtomicLong next = new AtomicLong();
+	private long startTime;
+
+	/**
+	 * @param corpus the texts to find and parse
+	 * @param threads the number of worker threads
+	 * @param rate the open loop arrival rate in operations per second, 0 for closed loop
+	 * @param intervalNanos the closed loop expected interval, 0 for the mean of the second half of the warm-up
+	 * @param warmupNanos the warm-up duration
+	 * @param durationNanos the measured duration
+	 */
+	public LoadGenerator(final String[] corpus, final int threads, final double rate, final long intervalNanos, final long warmupNanos,
+			final long durationNanos) {
+		if (corpus.length == 0) {
+			throw new IllegalArgumentException("Parameter corpus: invalid value: empty");
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Parameter threads: invalid value " + threads + ": not positive");
+		}
+		if (rate < 0) {
+			throw new IllegalArgumentException("Parameter rate: invalid value " + rate + ": negative");
+		}
+		this.corpus = corpus;
+		this.threads = threads;
+		this.rate = rate;
+		this.intervalNanos = intervalNanos;
+		this.warmupNanos = warmupNanos;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Runs the load generator.
+	 *
+	 * @param args the options, see the class documentation
+	 * @throws Exception could not read the corpus or the workers were interrupted
+	 */
+	public static void main(final String[] args) throws Exception {
+		String corpusFile = null;
+		int generate = 10000;
+		long seed = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		double rate = 0;
+		long interval = 0;
+		long warmup = 10;
+		long duration = 30;
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value of option " + args[i]);
+			}
+			final String value = args[i + 1];
+			switch (args[i]) {
+				case "-corpus":
+					corpusFile = value;
+					break;
+				case "-generate":
+					generate = Integer.parseInt(value);
+					break;
+				case "-seed":
+					seed = Long.parseLong(value);
+					break;
+				case "-threads":
+					threads = Integer.parseInt(value);
+					break;
+				case "-rate":
+					rate = Double.parseDouble(value);
+					break;
+				case "-interval":
+					interval = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(value));
+					break;
+				case "-warmup":
+					warmup = Long.parseLong(value);
+					break;
+				case "-duration":
+					duration = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		final String[] corpus = corpusFile == null
+				? new MrzGenerator(seed).stream(generate).toArray(String[]::new)
+				: readCorpus(corpusFile);
+		final LoadGenerator generator = new LoadGenerator(corpus, threads, rate, interval, TimeUnit.SECONDS.toNanos(warmup),
+				TimeUnit.SECONDS.toNanos(duration));
+		generator.run().print(System.out);
+	}
+
+	/**
+	 * @param file the corpus file
+	 * @return the blocks of the file
+	 * @throws IOException could not read the file
+	 */
+	static String[] readCorpus(final String file) throws IOException {
+		final String text = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+		final List<String> blocks = new ArrayList<>();
+		for (String block : text.split("\r?\n\\s*\r?\n")) {
+			final String trimmed = block.trim();
+			if (!trimmed.isEmpty()) {
+				blocks.add(trimmed);
+			}
+		}
+		return blocks.toArray(new String[blocks.size()]);
+	}
+
+	/**
+	 * Runs the workers for the warm-up and measured durations.
+	 *
+	 * @return the merged results of all workers
+	 * @throws InterruptedException interrupted while waiting for the workers
+	 */
+	public Result run() throws InterruptedException {
+		final Worker[] workers = new Worker[threads];
+		final Thread[] workerThreads = new Thread[threads];
+		startTime = System.nanoTime();
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker();
+			workerThreads[i] = new Thread(workers[i], "mrz-load-" + i);
+			workerThreads[i].start();
+		}
+		final Result result = new Result(rate, threads, durationNanos);
+		for (int i = 0; i < threads; i++) {
+			workerThreads[i].join();
+			result.add(workers[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds and parses the MRZ in the text.
+	 *
+	 * @param text the text
+	 * @return the format, or null if not found or invalid
+	 */
+	private static MrzFormat execute(final String text) {
+		try {
+			return MrzParser.parse(MrzFinderUtil.findMrz(text)).getFormat();
+		} catch (MrzNotFoundException | MrzParseException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	private static long allocatedBytes() {
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Runs operations on one thread and records their latencies.
+	 */
+	private final class Worker implements Runnable {
+
+		/**
+		 * Latencies by format ordinal, the last one for failed operations.
+		 */
+		private final Histogram[] histograms = new Histogram[FORMATS + 1];
+		private long allocated;
+		private long operations;
+		private long firstStart = Long.MAX_VALUE;
+		private long lastEnd = Long.MIN_VALUE;
+
+		private Worker() {
+			for (int i = 0; i < histograms.length; i++) {
+				histograms[i] = new Histogram(3);
+			}
+		}
+
+		@Override
+		public void run() {
+			final long measureStart = startTime + warmupNanos;
+			final long end = measureStart + durationNanos;
+			if (rate > 0) {
+				openLoop(measureStart, end);
+			} else {
+				long expectedInterval = intervalNanos;
+				if (expectedInterval > 0) {
+					closedLoop(measureStart, false, 0);
+				} else {
+					// The first half runs interpreted and C1 compiled code, only the second half is steady
+					closedLoop(startTime + warmupNanos / 2, false, 0);
+					final long steadyStart = System.nanoTime();
+					final long steadyOperations = Math.max(closedLoop(measureStart, false, 0), 1);
+					expectedInterval = Math.max((System.nanoTime() - steadyStart) / steadyOperations, 1);
+				}
+				final long before = allocatedBytes();
+				operations = closedLoop(end, true, expectedInterval);
+				allocated = before < 0 ? -1 : allocatedBytes() - before;
+			}
+		}
+
+		private void openLoop(final long measureStart, final long end) {
+			final double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+			long before = 0;
+			boolean measure = false;
+			while (true) {
+				final long index = next.getAndIncrement();
+				final long intended = startTime + (long) (index * interval);
+				if (intended >= end) {
+					break;
+				}
+				if (!measure && intended >= measureStart) {
+					measure = true;
+					before = allocatedBytes();
+				}
+				long now = System.nanoTime();
+				while (now < intended) {
+					LockSupport.parkNanos(intended - now);
+					now = System.nanoTime();
+				}
+				final MrzFormat format = execute(corpus[(int) (index % corpus.length)]);
+				if (measure) {
+					final long done = System.nanoTime();
+					histogram(format).recordValue(done - intended);
+					firstStart = Math.min(firstStart, now);
+					lastEnd = done;
+					operations++;
+				}
+			}
+			allocated = before < 0 ? -1 : allocatedBytes() - before;
+		}
+
+		private long closedLoop(final long until, final boolean measure, final long expectedInterval) {
+			long count = 0;
+			long now = System.nanoTime();
+			while (now < until) {
+				final long index = next.getAndIncrement();
+				final MrzFormat format = execute(corpus[(int) (index % corpus.length)]);
+				final long done = System.nanoTime();
+				if (measure) {
+					histogram(format).recordValueWithExpectedInterval(done - now, expectedInterval);
+					firstStart = Math.min(firstStart, now);
+					lastEnd = done;
+				}
+				now = done;
+				count++;
+			}
+			return count;
+		}
+
+		private Histogram histogram(final MrzFormat format) {
+			return histograms[format == null ? FORMATS : format.ordinal()];
+		}
+
+	}
+
+	/**
+	 * The merged latencies, throughput and allocation of all workers.
+	 */
+	public static final class Result {
+
+		private final double rate;
+		private final int threads;
+		private final long durationNanos;
+		private final Histogram[] histograms = new Histogram[FORMATS + 1];
+		private final Histogram total = new Histogram(3);
+		private long operations;
+		private long allocated;
+		private long firstStart = Long.MAX_VALUE;
+		private long lastEnd = Long.MIN_VALUE;
+
+		private Result(final double rate, final int threads, final long durationNanos) {
+			this.rate = rate;
+			this.threads = threads;
+			this.durationNanos = durationNanos;
+			for (int i = 0; i < histograms.length; i++) {
+				histograms[i] = new Histogram(3);
+			}
+		}
+
+		private void add(final Worker worker) {
+			for (int i = 0; i < histograms.length; i++) {
+				histograms[i].add(worker.histograms[i]);
+				total.add(worker.histograms[i]);
+			}
+			operations += worker.operations;
+			firstStart = Math.min(firstStart, worker.firstStart);
+			lastEnd = Math.max(lastEnd, worker.lastEnd);
+			allocated = allocated < 0 || worker.allocated < 0 ? -1 : allocated + worker.allocated;
+		}
+
+		/**
+		 * @return the time from the start of the first measured operation to the completion of the last one, 0 if none was measured
+		 */
+		public long getElapsedNanos() {
+			return operations == 0 ? 0 : lastEnd - firstStart;
+		}
+
+		/**
+		 * @return the completed operations per second of elapsed time
+		 */
+		public double getThroughput() {
+			final long elapsed = getElapsedNanos();
+			return elapsed == 0 ? 0 : operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+		}
+
+		/**
+		 * @param format the format, or null for operations that did not find or could not parse a MRZ
+		 * @return the latencies in nanoseconds
+		 */
+		public Histogram getHistogram(final MrzFormat format) {
+			return histograms[format == null ? FORMATS : format.ordinal()];
+		}
+
+		/**
+		 * @return the latencies of all operations in nanoseconds
+		 */
+		public Histogram getTotalHistogram() {
+			return total;
+		}
+
+		/**
+		 * Prints the report.
+		 *
+		 * @param out the stream to print to
+		 */
+		public void print(final PrintStream out) {
+			out.println(rate > 0
+					? String.format(Locale.ROOT, "Open loop, %.0f ops/s, %d threads", rate, threads)
+					: String.format(Locale.ROOT, "Closed loop, %d threads (coordinated omission corrected)", threads));
+			final double seconds = getElapsedNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+			out.println(String.format(Locale.ROOT, "Throughput: %.0f ops/s over %.2f s elapsed (duration %.2f s)", getThroughput(), seconds,
+					durationNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+			if (allocated >= 0 && operations > 0) {
+				out.println(String.format(Locale.ROOT, "Allocation: %.1f MB/s, %d B/op", allocated / seconds / (1 << 20), allocated / operations));
+			}
+			out.println(String.format(Locale.ROOT, "%-14s %10s %10s %10s %10s %10s", "Format", "Count", "p50 us", "p99 us", "p99.9 us", "max us"));
+			for (MrzFormat format : MrzFormat.values()) {
+				print(out, format.name(), getHistogram(format));
+			}
+			print(out, "FAILED", getHistogram(null));
+			print(out, "ALL", total);
+		}
+
+		private static void print(final PrintStream out, final String name, final Histogram histogram) {
+			if (histogram.getTotalCount() == 0) {
+				return;
+			}
+			out.println(String.format(Locale.ROOT, "%-14s %10d %10.1f %10.1f %10.1f %10.1f", name, histogram.getTotalCount(),
+					histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+					histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0));
+		}
+
+	}
+
+}
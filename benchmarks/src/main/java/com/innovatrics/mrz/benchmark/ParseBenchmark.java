@@ -0,0 +1,75 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Format detection and full parse of each format. Invalid inputs have one corrupted check digit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+	/**
+	 * All formats.
+	 */
+	@Param
+	public MrzFormat format;
+
+	@Param({"true", "false"})
+	public boolean valid;
+
+	private String[] inputs;
+
+	private int index;
+
+	/**
+	 * Generate the inputs.
+	 */
+	@Setup
+	public void setup() {
+		inputs = Corpus.create(format, valid);
+	}
+
+	/**
+	 * @return the detected format
+	 * @throws MrzParseException could not detect the format
+	 */
+	@Benchmark
+	public MrzFormat detect() throws MrzParseException {
+		return MrzFormat.get(next());
+	}
+
+	/**
+	 * @return the parsed record
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	@Benchmark
+	public MrzRecord parse() throws MrzParseException {
+		return MrzParser.parse(next());
+	}
+
+	private String next() {
+		index = (index + 1) & (Corpus.SIZE - 1);
+		return inputs[index];
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.innovatrics.mrz.benchmark;
+
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRange;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Check digit computation and verification. Invalid inputs have one corrupted check digit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class ValidateBenchmark {
+
+	/**
+	 * All formats.
+	 */
+	@Param
+	public MrzFormat format;
+
+	@Param({"true", "false"})
+	public boolean valid;
+
+	private MrzParser[] parsers;
+
+	private String[] rows;
+
+	private int index;
+
+	/**
+	 * Generate the inputs.
+	 *
+	 * @throws Exception could not parse the generated inputs
+	 */
+	@Setup
+	public void setup() throws Exception {
+		final String[] inputs = Corpus.create(format, valid);
+		parsers = new MrzParser[inputs.length];
+		rows = new String[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			parsers[i] = new MrzParser(inputs[i]);
+			rows[i] = parsers[i].getRows()[parsers[i].getRows().length - 1];
+		}
+	}
+
+	/**
+	 * @return the check digit of the last row, minus its final character
+	 */
+	@Benchmark
+	public int computeCheckDigit() {
+		final String row = rows[next()];
+		return MrzParser.computeCheckDigit(row.substring(0, row.length() - 1));
+	}
+
+	/**
+	 * Verifies the date of birth check digit, which is at the same position for all formats except TD1 and the French ID.
+	 *
+	 * @return true if valid
+	 */
+	@Benchmark
+	public boolean checkDigit() {
+		final int i = next();
+		switch (format) {
+			case MRTD_TD1:
+				return parsers[i].checkDigit(6, 1, new MrzRange(0, 6, 1), "date of birth");
+			case FRENCH_ID:
+				return parsers[i].checkDigit(33, 1, new MrzRange(27, 33, 1), "date of birth");
+			default:
+				return parsers[i].checkDigit(19, 1, new MrzRange(13, 19, 1), "date of birth");
+		}
+	}
+
+	private int next() {
+		index = (index + 1) & (Corpus.SIZE - 1);
+		return index;
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH Benchmarks.
+ */
+package com.innovatrics.mrz.benchmark;
@@ -16,8 +16,12 @@
  * License along with this library; if not, write to the Free Software
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
  */
-package com.innovatrics.mrz;
+package com.innovatrics.mrz.demo;
 
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRange;
+import com.innovatrics.mrz.MrzRecord;
 import java.awt.BorderLayout;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -0,0 +1,7 @@
+/**
+ * MRZ Parser Swing demo, kept out of the library so that it does not depend on <code>java.desktop</code>.
+ */
+module com.innovatrics.mrz.demo {
+	requires com.innovatrics.mrz;
+	requires java.desktop;
+}
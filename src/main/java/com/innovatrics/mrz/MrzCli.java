@@ -0,0 +1,94 @@
+package com.innovatrics.mrz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command line parser of MRZ records, also the entry point of the native executable built with the <code>native</code> profile.
+ * <p>
+ * Parses every argument as an MRZ, with the rows separated by line feeds or <code>\n</code>. Without arguments it reads MRZs from the standard
+ * input, separated by blank lines. Prints one parsed record per line and the errors to the standard error. The exit code is 0 if every MRZ was
+ * parsed, 1 if any failed and 2 on an I/O error.
+ * </p>
+ * <pre>
+ * mrz 'I&lt;UTOSTEVENSON&lt;&lt;PETER&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;\nD231458907UTO3407127M9507122&lt;&lt;&lt;&lt;&lt;&lt;&lt;2'
+ * mrz &lt; scans.txt
+ * </pre>
+ */
+public final class MrzCli {
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzCli() {
+		// Do nothing
+	}
+
+	/**
+	 * Parses the MRZs and exits with the exit code.
+	 *
+	 * @param args the MRZs, none to read them from the standard input
+	 */
+	public static void main(final String[] args) {
+		final BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		System.exit(run(args, in, System.out, System.err));
+	}
+
+	/**
+	 * @param args the MRZs, none to read them from the input
+	 * @param in the input, read only without arguments
+	 * @param out receives the parsed records
+	 * @param err receives the errors
+	 * @return the exit code
+	 */
+	static int run(final String[] args, final BufferedReader in, final PrintStream out, final PrintStream err) {
+		int failed = 0;
+		if (args.length > 0) {
+			for (String arg : args) {
+				failed += parse(arg.replace("\\n", "\n"), out, err);
+			}
+			return failed == 0 ? 0 : 1;
+		}
+		try {
+			final StringBuilder mrz = new StringBuilder();
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					if (mrz.length() > 0) {
+						failed += parse(mrz.toString(), out, err);
+						mrz.setLength(0);
+					}
+				} else {
+					if (mrz.length() > 0) {
+						mrz.append('\n');
+					}
+					mrz.append(line.trim());
+				}
+			}
+			if (mrz.length() > 0) {
+				failed += parse(mrz.toString(), out, err);
+			}
+		} catch (IOException ex) {
+			err.println("Could not read input: " + ex.getMessage());
+			return 2;
+		}
+		return failed == 0 ? 0 : 1;
+	}
+
+	/**
+	 * @return 0 if the MRZ was parsed, 1 otherwise
+	 */
+	private static int parse(final String mrz, final PrintStream out, final PrintStream err) {
+		try {
+			out.println(MrzParser.parse(mrz));
+			return 0;
+		} catch (MrzParseException ex) {
+			err.println("Parse failed: " + ex.getMessage());
+			return 1;
+		}
+	}
+
+}
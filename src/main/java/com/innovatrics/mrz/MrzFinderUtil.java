@@ -1,6 +1,11 @@
 package com.innovatrics.mrz;
 
-import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.jfr.FindEvent;
+import com.innovatrics.mrz.jfr.MrzEvents;
+import com.innovatrics.mrz.metrics.MrzMetrics;
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.types.MrzFormatRegistry;
+import com.innovatrics.mrz.types.MrzLayout;
 import java.util.regex.Pattern;
 
 /**
@@ -29,6 +34,46 @@ public final class MrzFinderUtil {
 	 * @throws MrzParseException MRZ found but invalid
 	 */
 	public static String findMrz(final String input) throws MrzNotFoundException, MrzParseException {
+		final MrzMetrics metrics = MrzMetricsRegistry.getMetrics();
+		if (!metrics.isEnabled()) {
+			return find(input);
+		}
+		boolean found = false;
+		try {
+			final String mrz = find(input);
+			found = true;
+			return mrz;
+		} finally {
+			metrics.finderResult(found);
+		}
+	}
+
+	private static String find(final String input) throws MrzNotFoundException, MrzParseException {
+		if (!MrzEvents.AVAILABLE) {
+			final String mrz = extract(input);
+			// Check MRZ is a valid format
+			MrzFormatRegistry.get(mrz);
+			return mrz;
+		}
+		final FindEvent event = new FindEvent();
+		event.begin();
+		MrzLayout format = null;
+		String outcome = MrzEvents.ERROR;
+		try {
+			final String mrz = extract(input);
+			// Check MRZ is a valid format
+			format = MrzFormatRegistry.get(mrz);
+			outcome = MrzEvents.VALID;
+			return mrz;
+		} catch (MrzNotFoundException ex) {
+			outcome = MrzEvents.NOT_FOUND;
+			throw ex;
+		} finally {
+			event.complete(format, input == null ? 0 : input.length(), outcome);
+		}
+	}
+
+	private static String extract(final String input) throws MrzNotFoundException {
 		// Check input provided
 		if (input == null) {
 			throw new MrzNotFoundException();
@@ -38,8 +83,6 @@ public final class MrzFinderUtil {
 		if (mrz.isEmpty()) {
 			throw new MrzNotFoundException();
 		}
-		// Check MRZ is a valid format
-		MrzFormat.get(mrz);
 		return mrz;
 	}
 
@@ -0,0 +1,124 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.types.MrzDate;
+
+/**
+ * Stable 64-bit fingerprint of the identity fields of a record: document code, issuing country, document number, date of birth and expiration
+ * date.
+ * <p>
+ * Each field is hashed on its own with 64-bit FNV-1a: text fields over their MRZ characters without trailing fillers (the blanks and commas of
+ * parsed values hash as fillers, so a parsed value hashes as the raw MRZ), dates over <code>year * 10000 + month * 100 + day</code> with unknown
+ * parts as -1. The field hashes are combined in the order above and finished with the MurmurHash3 64-bit mix. The algorithm is fixed, so the
+ * fingerprint is the same on every JVM and release and can be used as a partition key. Names and optional data are not part of the fingerprint.
+ * </p>
+ * <p>
+ * Records recompute the hash of a field in its setter, from the decoded value, so {@link MrzRecord#getFingerprint()} only combines the field
+ * hashes. The methods of this class compute the same value from the field values.
+ * </p>
+ * <pre>
+ * final long fingerprint = MrzParser.parse(mrz).getFingerprint();
+ * </pre>
+ */
+public final class MrzFingerprint {
+
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long PRIME = 0x100000001b3L;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzFingerprint() {
+		// Do nothing
+	}
+
+	/**
+	 * @param record the record
+	 * @return the fingerprint of the identity fields of the record
+	 */
+	public static long of(final MrzRecord record) {
+		return of(record.getCode1(), record.getCode2(), record.getIssuingCountry(), record.getDocumentNumber(), record.getDateOfBirth(),
+				record.getExpirationDate());
+	}
+
+	/**
+	 * @param code1 the document code
+	 * @param code2 the document type
+	 * @param issuingCountry the issuing country, may be null
+	 * @param documentNumber the document number, may be null
+	 * @param dateOfBirth the date of birth, may be null
+	 * @param expirationDate the expiration date, may be null
+	 * @return the fingerprint of the fields
+	 */
+	public static long of(final char code1, final char code2, final String issuingCountry, final String documentNumber, final MrzDate dateOfBirth,
+			final MrzDate expirationDate) {
+		return combine(hashDocumentCode(code1, code2), hash(issuingCountry), hash(documentNumber), hashDate(dateOfBirth), hashDate(expirationDate));
+	}
+
+	/**
+	 * Combines the field hashes into the fingerprint.
+	 *
+	 * @param code the hash of the document code
+	 * @param issuingCountry the hash of the issuing country
+	 * @param documentNumber the hash of the document number
+	 * @param dateOfBirth the hash of the date of birth
+	 * @param expirationDate the hash of the expiration date
+	 * @return the fingerprint
+	 */
+	static long combine(final long code, final long issuingCountry, final long documentNumber, final long dateOfBirth, final long expirationDate) {
+		long hash = OFFSET_BASIS;
+		hash = (hash ^ code) * PRIME;
+		hash = (hash ^ issuingCountry) * PRIME;
+		hash = (hash ^ documentNumber) * PRIME;
+		hash = (hash ^ dateOfBirth) * PRIME;
+		hash = (hash ^ expirationDate) * PRIME;
+		hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+		hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	/**
+	 * @param code1 the document code
+	 * @param code2 the document type
+	 * @return the hash of the document code
+	 */
+	static long hashDocumentCode(final char code1, final char code2) {
+		return (((OFFSET_BASIS ^ code1) * PRIME) ^ code2) * PRIME;
+	}
+
+	/**
+	 * @param value the value of a text field, parsed or with MRZ fillers, may be null
+	 * @return the hash of the field
+	 */
+	static long hash(final String value) {
+		if (value == null) {
+			return OFFSET_BASIS;
+		}
+		int end = value.length();
+		while (end > 0 && isFiller(value.charAt(end - 1))) {
+			end--;
+		}
+		long hash = OFFSET_BASIS;
+		for (int i = 0; i < end; i++) {
+			final char c = value.charAt(i);
+			hash = (hash ^ (isFiller(c) ? MrzParser.FILLER : c)) * PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * @param date the date, may be null
+	 * @return the hash of the date
+	 */
+	static long hashDate(final MrzDate date) {
+		return date == null ? hashDate(-1, -1, -1) : hashDate(date.getYear(), date.getMonth(), date.getDay());
+	}
+
+	private static long hashDate(final int year, final int month, final int day) {
+		return (OFFSET_BASIS ^ (year * 10000 + month * 100 + day)) * PRIME;
+	}
+
+	private static boolean isFiller(final char c) {
+		return c == MrzParser.FILLER || c == ' ' || c == ',';
+	}
+
+}
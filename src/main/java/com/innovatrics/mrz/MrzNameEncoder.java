@@ -0,0 +1,202 @@
+package com.innovatrics.mrz;
+
+/**
+ * Converts a surname and given names to the MRZ name field, shortening them as per Doc 9303 Part 3 Vol 1 Section 6.7 when necessary.
+ * <p>
+ * The names are split, transliterated and truncated in a single linear pass over internal buffers that are reused between calls, so encoding
+ * into a caller supplied buffer does not allocate once the buffers have grown to the longest name seen. Instances are not thread safe.
+ * </p>
+ */
+public class MrzNameEncoder {
+
+	private static final int INITIAL_SIZE = 64;
+
+	/**
+	 * The transliterated name parts, one after the other.
+	 */
+	private char[] chars = new char[INITIAL_SIZE * MrzTransliterator.MAX_EXPANSION];
+	/**
+	 * Start offset of each name part in {@link #chars}.
+	 */
+	private int[] starts = new int[INITIAL_SIZE];
+	/**
+	 * Length of each name part, after truncation.
+	 */
+	private int[] lengths = new int[INITIAL_SIZE];
+	/**
+	 * Number of name parts.
+	 */
+	private int parts;
+
+	/**
+	 * Converts the names to a MRZ string.
+	 *
+	 * @param surname the surname, not blank.
+	 * @param givenNames given names, not blank.
+	 * @param length required length of the string.
+	 * @return name, properly converted to MRZ format of SURNAME&lt;&lt;GIVENNAMES&lt;..., with the exact length of given length.
+	 * @see MrzParser#nameToMrz(String, String, int)
+	 */
+	public String encode(final String surname, final String givenNames, final int length) {
+		final char[] buffer = new char[Math.max(length, 0)];
+		encode(surname, givenNames, length, buffer, 0);
+		return new String(buffer);
+	}
+
+	/**
+	 * Converts the names to a MRZ string and writes it to a buffer.
+	 *
+	 * @param surname the surname, not blank.
+	 * @param givenNames given names, not blank.
+	 * @param length required length of the string. If the names are longer they are shortened, if shorter '&lt;' characters are appended.
+	 * @param buffer the buffer to write to
+	 * @param offset the offset of the first character to write
+	 * @return the offset after the last written character
+	 */
+	public int encode(final String surname, final String givenNames, final int length, final char[] buffer, final int offset) {
+		if (isBlank(surname)) {
+			throw new IllegalArgumentException("Parameter surname: invalid value " + surname + ": blank");
+		}
+		if (isBlank(givenNames)) {
+			throw new IllegalArgumentException("Parameter givenNames: invalid value " + givenNames + ": blank");
+		}
+		if (length <= 0) {
+			throw new IllegalArgumentException("Parameter length: invalid value " + length + ": not positive");
+		}
+		ensureChars((surname.length() + givenNames.length()) * MrzTransliterator.MAX_EXPANSION);
+		parts = 0;
+		final int end = extractNames(surname, 0);
+		final int surnames = parts;
+		extractNames(givenNames, end);
+		truncateNames(surnames, length, surname, givenNames);
+		return write(surnames, buffer, offset, length);
+	}
+
+	/**
+	 * Splits the name on whitespace (and ", ") and appends the transliterated parts.
+	 *
+	 * @param name the name
+	 * @param offset the offset in {@link #chars} to append to
+	 * @return the offset after the last appended character
+	 */
+	private int extractNames(final String name, final int offset) {
+		int from = 0;
+		int to = name.length();
+		while (from < to && isTrim(name, from)) {
+			from++;
+		}
+		while (to > from && isTrim(name, to - 1)) {
+			to--;
+		}
+		int pos = offset;
+		if (from == to) {
+			addPart(pos, 0);
+			return pos;
+		}
+		int i = from;
+		while (i < to) {
+			final int tokenStart = i;
+			while (i < to && !isSeparator(name, i)) {
+				i++;
+			}
+			final int tokenEnd = MrzTransliterator.transliterateRange(name, tokenStart, i, chars, pos);
+			addPart(pos, tokenEnd - pos);
+			pos = tokenEnd;
+			while (i < to && isSeparator(name, i)) {
+				i++;
+			}
+		}
+		return pos;
+	}
+
+	private void truncateNames(final int surnames, final int length, final String surname, final String givenNames) {
+		int nameSize = parts;
+		for (int i = 0; i < parts; i++) {
+			nameSize += lengths[i];
+		}
+		int current = parts - 1;
+		while (nameSize > length) {
+			final int size = lengths[current];
+			if (nameSize - size + 1 <= length) {
+				lengths[current] = size - (nameSize - length);
+				nameSize = length;
+			} else {
+				final int truncated = Math.min(size, 1);
+				lengths[current] = truncated;
+				nameSize -= size - truncated;
+				current--;
+				if (current < 0) {
+					final char[] name = new char[nameSize];
+					write(surnames, name, 0, nameSize);
+					throw new IllegalArgumentException("Cannot truncate name " + surname + " " + givenNames + ": length too small: " + length + "; truncated to " + new String(name));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes SURNAMES&lt;&lt;GIVENNAMES padded to the given length.
+	 */
+	private int write(final int surnames, final char[] buffer, final int offset, final int length) {
+		final int end = offset + length;
+		int pos = offset;
+		for (int i = 0; i < parts && pos < end; i++) {
+			if (i > 0 && i < surnames) {
+				buffer[pos++] = MrzParser.FILLER;
+			} else if (i == surnames) {
+				buffer[pos++] = MrzParser.FILLER;
+				if (pos < end) {
+					buffer[pos++] = MrzParser.FILLER;
+				}
+			} else if (i > surnames) {
+				buffer[pos++] = MrzParser.FILLER;
+			}
+			final int count = Math.min(lengths[i], end - pos);
+			System.arraycopy(chars, starts[i], buffer, pos, count);
+			pos += count;
+		}
+		while (pos < end) {
+			buffer[pos++] = MrzParser.FILLER;
+		}
+		return pos;
+	}
+
+	private void addPart(final int start, final int length) {
+		if (parts == starts.length) {
+			final int size = parts * 2;
+			final int[] newStarts = new int[size];
+			final int[] newLengths = new int[size];
+			System.arraycopy(starts, 0, newStarts, 0, parts);
+			System.arraycopy(lengths, 0, newLengths, 0, parts);
+			starts = newStarts;
+			lengths = newLengths;
+		}
+		starts[parts] = start;
+		lengths[parts] = length;
+		parts++;
+	}
+
+	private void ensureChars(final int size) {
+		if (chars.length < size) {
+			chars = new char[Math.max(size, chars.length * 2)];
+		}
+	}
+
+	private static boolean isSeparator(final String name, final int index) {
+		final char c = name.charAt(index);
+		return c == ' ' || c == '\n' || c == '\t' || c == '\f' || c == '\r' || isCommaSpace(name, index);
+	}
+
+	private static boolean isTrim(final String name, final int index) {
+		return name.charAt(index) <= ' ' || isCommaSpace(name, index);
+	}
+
+	private static boolean isCommaSpace(final String name, final int index) {
+		return name.charAt(index) == ',' && index + 1 < name.length() && name.charAt(index + 1) == ' ';
+	}
+
+	private static boolean isBlank(final String str) {
+		return str == null || str.trim().length() == 0;
+	}
+
+}
@@ -0,0 +1,251 @@
+package com.innovatrics.mrz;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed records, in front of {@link MrzParser#parse(String)}.
+ * <p>
+ * Records are keyed by the normalized MRZ: surrounding whitespace is removed from every row, blank rows are dropped and rows are joined with
+ * <code>\n</code>, so the same document scanned twice hits the cache even if the OCR output differs in whitespace. Cached records are
+ * {@link MrzRecord#freeze() frozen} and shared by all callers. MRZs that cannot be parsed are not cached.
+ * </p>
+ * <p>
+ * The cache is split into segments, each with its own lock and least recently used eviction, and is bounded by the number of entries and by the
+ * estimated size of the entries in bytes. Safe for concurrent use.
+ * </p>
+ * <pre>
+ * final MrzParseCache cache = new MrzParseCache(10000);
+ * final MrzRecord record = cache.parse(mrz);
+ * </pre>
+ */
+public class MrzParseCache {
+
+	/**
+	 * Estimated size of a parsed record, excluding the MRZ itself.
+	 */
+	static final int RECORD_BYTES = 512;
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+	private final int maximumEntries;
+	private final long maximumBytes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Construct a cache bounded by the number of entries.
+	 *
+	 * @param maximumEntries the maximum number of cached records
+	 */
+	public MrzParseCache(final int maximumEntries) {
+		this(maximumEntries, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Construct a cache bounded by the number of entries and their estimated size.
+	 *
+	 * @param maximumEntries the maximum number of cached records
+	 * @param maximumBytes the maximum estimated size of the cached records and their keys
+	 */
+	public MrzParseCache(final int maximumEntries, final long maximumBytes) {
+		if (maximumEntries <= 0) {
+			throw new IllegalArgumentException("Parameter maximumEntries: invalid value " + maximumEntries + ": not positive");
+		}
+		if (maximumBytes <= 0) {
+			throw new IllegalArgumentException("Parameter maximumBytes: invalid value " + maximumBytes + ": not positive");
+		}
+		this.maximumEntries = maximumEntries;
+		this.maximumBytes = maximumBytes;
+		final int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumEntries));
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			// Spread the remainder so the segment limits add up to the cache limits
+			final int entries = maximumEntries / count + (i < maximumEntries % count ? 1 : 0);
+			segments[i] = new Segment(entries, maximumBytes == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(maximumBytes / count, 1));
+		}
+	}
+
+	/**
+	 * Returns the cached record of the MRZ, parsing and caching it if not cached yet.
+	 *
+	 * @param mrz the MRZ to parse
+	 * @return the frozen record, shared with other callers
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	public MrzRecord parse(final String mrz) throws MrzParseException {
+		final String key = normalize(mrz);
+		final Segment segment = segments[(spread(key.hashCode())) & (segments.length - 1)];
+		final MrzRecord cached = segment.get(key);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+		misses.increment();
+		final MrzRecord record = MrzParser.parse(key).freeze();
+		return segment.put(key, record);
+	}
+
+	/**
+	 * @return the number of cached records
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all cached records. The statistics are not reset.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * @return the maximum number of cached records
+	 */
+	public int getMaximumEntries() {
+		return maximumEntries;
+	}
+
+	/**
+	 * @return the maximum estimated size of the cached records in bytes
+	 */
+	public long getMaximumBytes() {
+		return maximumBytes;
+	}
+
+	/**
+	 * @return the number of calls that returned a cached record
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of calls that parsed the MRZ, including the ones that failed
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of records evicted to stay within the limits
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the ratio of hits to all calls, 0 if there were no calls
+	 */
+	public double getHitRate() {
+		final long hitCount = getHitCount();
+		final long total = hitCount + getMissCount();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Normalizes a MRZ: trims every row, removes blank rows and joins the rows with <code>\n</code>.
+	 *
+	 * @param mrz the MRZ
+	 * @return the normalized MRZ
+	 */
+	static String normalize(final String mrz) {
+		final StringBuilder sb = new StringBuilder(mrz.length());
+		int from = 0;
+		while (from <= mrz.length()) {
+			int to = mrz.indexOf('\n', from);
+			if (to < 0) {
+				to = mrz.length();
+			}
+			int start = from;
+			int end = to;
+			while (start < end && mrz.charAt(start) <= ' ') {
+				start++;
+			}
+			while (end > start && mrz.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			if (start < end) {
+				if (sb.length() > 0) {
+					sb.append('\n');
+				}
+				sb.append(mrz, start, end);
+			}
+			from = to + 1;
+		}
+		return sb.length() == mrz.length() ? mrz : sb.toString();
+	}
+
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static long weight(final String key) {
+		return RECORD_BYTES + 2L * key.length();
+	}
+
+	/**
+	 * A least recently used map guarded by its own lock.
+	 */
+	private final class Segment {
+
+		private final LinkedHashMap<String, MrzRecord> map = new LinkedHashMap<>(16, 0.75f, true);
+		private final int maximumEntries;
+		private final long maximumBytes;
+		private long bytes;
+
+		private Segment(final int maximumEntries, final long maximumBytes) {
+			this.maximumEntries = maximumEntries;
+			this.maximumBytes = maximumBytes;
+		}
+
+		private synchronized MrzRecord get(final String key) {
+			return map.get(key);
+		}
+
+		/**
+		 * Caches the record unless another thread cached the same MRZ first.
+		 *
+		 * @return the cached record
+		 */
+		private synchronized MrzRecord put(final String key, final MrzRecord record) {
+			final MrzRecord existing = map.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			map.put(key, record);
+			bytes += weight(key);
+			final Iterator<Map.Entry<String, MrzRecord>> eldest = map.entrySet().iterator();
+			while ((map.size() > maximumEntries || bytes > maximumBytes) && map.size() > 1) {
+				final String evicted = eldest.next().getKey();
+				eldest.remove();
+				bytes -= weight(evicted);
+				evictions.increment();
+			}
+			return record;
+		}
+
+		private synchronized int size() {
+			return map.size();
+		}
+
+		private synchronized void clear() {
+			map.clear();
+			bytes = 0;
+		}
+
+	}
+
+}
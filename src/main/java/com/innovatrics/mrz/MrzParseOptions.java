@@ -0,0 +1,58 @@
+package com.innovatrics.mrz;
+
+/**
+ * Options of a single parse, passed to {@link MrzParser#parse(String, MrzParseOptions)}.
+ * <p>
+ * {@link #STRICT} is the default behavior of the parser: every character of a decoded field is checked to be an MRZ character and every check
+ * digit is recomputed. {@link #TRUSTED} is meant for MRZs that were already validated, e.g. stored records read again: it skips both, decodes
+ * the fields exactly as the strict mode does and reports every check digit as valid. Dates are still checked, so the date validity flags
+ * reflect impossible dates. Passing an MRZ that is not valid in trusted mode does not fail but returns unspecified field values and validity.
+ * </p>
+ * <p>
+ * The options are carried to the record decoders by the {@link MrzParser} of the parse, see {@link MrzRecord#fromMrz(MrzParser)}. Instances are
+ * immutable.
+ * </p>
+ * <pre>
+ * final MrzRecord record = MrzParser.parse(storedMrz, MrzParseOptions.TRUSTED);
+ * </pre>
+ */
+public final class MrzParseOptions {
+
+	/**
+	 * Validates the characters of the fields and the check digits.
+	 */
+	public static final MrzParseOptions STRICT = new MrzParseOptions(true, true);
+
+	/**
+	 * Trusts the input, skipping the character and check digit validation.
+	 */
+	public static final MrzParseOptions TRUSTED = new MrzParseOptions(false, false);
+
+	private final boolean validateCharacters;
+	private final boolean verifyCheckDigits;
+
+	private MrzParseOptions(final boolean validateCharacters, final boolean verifyCheckDigits) {
+		this.validateCharacters = validateCharacters;
+		this.verifyCheckDigits = verifyCheckDigits;
+	}
+
+	/**
+	 * @return true if the characters of the decoded fields are checked to be MRZ characters
+	 */
+	public boolean isValidateCharacters() {
+		return validateCharacters;
+	}
+
+	/**
+	 * @return true if the check digits are recomputed, false if they are reported as valid
+	 */
+	public boolean isVerifyCheckDigits() {
+		return verifyCheckDigits;
+	}
+
+	@Override
+	public String toString() {
+		return this == STRICT ? "STRICT" : "TRUSTED";
+	}
+
+}
@@ -0,0 +1,302 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzLayout;
+import java.util.Objects;
+
+/**
+ * Nanosecond timings of the stages of a single parse, filled in by {@link MrzParser#parse(String, MrzParseProfile)}.
+ * <p>
+ * Every stage is recorded in the order it ran: splitting the rows, detecting the format, instantiating the record and then, while the record
+ * decodes its fields, each field, name and check digit. Stages called from within another stage (e.g. the fields of a name) are part of the
+ * outer stage and not recorded separately. The time not spent in any stage is the overhead of the record itself, see {@link #getOtherNanos()}.
+ * </p>
+ * <p>
+ * A profile is cleared at the start of every parse, so one instance can be reused for the parses of a run. To aggregate the timings over the run,
+ * {@link #add(MrzParseProfile) add} the profile of every parse to an aggregate profile, e.g. one per format: the stages of the same type and
+ * field or check digit are summed into one. Instances are not thread safe.
+ * </p>
+ * <pre>
+ * final MrzParseProfile profile = new MrzParseProfile();
+ * final MrzParseProfile total = new MrzParseProfile();
+ * for (String mrz : mrzs) {
+ *   final MrzRecord record = MrzParser.parse(mrz, profile);
+ *   total.add(profile);
+ * }
+ * long checkDigitNanos = total.getNanos(MrzParseProfile.Stage.CHECK_DIGIT);
+ * </pre>
+ */
+public final class MrzParseProfile {
+
+	/**
+	 * The stages of a parse.
+	 */
+	public enum Stage {
+		/**
+		 * Splitting the MRZ into rows.
+		 */
+		SPLIT_ROWS,
+		/**
+		 * Detecting the MRZ format.
+		 */
+		DETECT_FORMAT,
+		/**
+		 * Instantiating the record.
+		 */
+		NEW_RECORD,
+		/**
+		 * Decoding a string, date or sex field.
+		 */
+		FIELD,
+		/**
+		 * Decoding the surname and given names.
+		 */
+		NAME,
+		/**
+		 * Verifying a check digit.
+		 */
+		CHECK_DIGIT
+	}
+
+	private static final int INITIAL_SIZE = 32;
+
+	private Stage[] stages = new Stage[INITIAL_SIZE];
+	private Object[] details = new Object[INITIAL_SIZE];
+	private long[] nanos = new long[INITIAL_SIZE];
+	private int size;
+	private int depth;
+	private long start;
+	private long totalNanos;
+	private int parseCount;
+	private MrzLayout layout;
+
+	/**
+	 * @return the format of the parsed MRZ, or null if the format could not be detected, the MRZ has a custom layout or the aggregated parses
+	 * have different layouts
+	 */
+	public MrzFormat getFormat() {
+		return layout instanceof MrzFormat ? (MrzFormat) layout : null;
+	}
+
+	/**
+	 * @return the layout of the parsed MRZ, a format or a custom layout, or null if the layout could not be detected or the aggregated parses
+	 * have different layouts
+	 */
+	public MrzLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return the number of parses in the profile: 1 for the profile of a parse, the number of added parses for an aggregate
+	 */
+	public int getParseCount() {
+		return parseCount;
+	}
+
+	/**
+	 * Adds the timings of another profile to this one. A stage of the same type and name as a stage of this profile is added to it, other stages
+	 * are appended.
+	 *
+	 * @param profile the profile of a parse or another aggregate
+	 * @return this profile
+	 */
+	public MrzParseProfile add(final MrzParseProfile profile) {
+		if (profile == this) {
+			throw new IllegalArgumentException("Parameter profile: invalid value " + profile + ": can not add a profile to itself");
+		}
+		for (int i = 0; i < profile.size; i++) {
+			final int index = indexOf(profile.stages[i], profile.getStageName(i));
+			if (index < 0) {
+				add(profile.stages[i], profile.details[i], profile.nanos[i]);
+			} else {
+				nanos[index] += profile.nanos[i];
+			}
+		}
+		if (parseCount == 0) {
+			layout = profile.layout;
+		} else if (layout != profile.layout) {
+			layout = null;
+		}
+		parseCount += profile.parseCount;
+		totalNanos += profile.totalNanos;
+		return this;
+	}
+
+	/**
+	 * @return the duration of the whole parse, summed over the parses of an aggregate
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return the duration of the parse not spent in any stage
+	 */
+	public long getOtherNanos() {
+		long other = totalNanos;
+		for (int i = 0; i < size; i++) {
+			other -= nanos[i];
+		}
+		return other;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the sum of the durations of all the recorded stages of the given type
+	 */
+	public long getNanos(final Stage stage) {
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			if (stages[i] == stage) {
+				sum += nanos[i];
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the number of recorded stages
+	 */
+	public int getStageCount() {
+		return size;
+	}
+
+	/**
+	 * @param index the index of the stage, in the order the stages ran
+	 * @return the type of the stage
+	 */
+	public Stage getStage(final int index) {
+		checkIndex(index);
+		return stages[index];
+	}
+
+	/**
+	 * @param index the index of the stage, in the order the stages ran
+	 * @return the field name of a check digit, the range of a field or name, or null for the other stages
+	 */
+	public String getStageName(final int index) {
+		checkIndex(index);
+		return details[index] == null ? null : details[index].toString();
+	}
+
+	/**
+	 * @param index the index of the stage, in the order the stages ran
+	 * @return the duration of the stage, summed over the parses of an aggregate
+	 */
+	public long getStageNanos(final int index) {
+		checkIndex(index);
+		return nanos[index];
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(layout == null ? null : layout.name()).append(": ").append(totalNanos).append("ns");
+		for (int i = 0; i < size; i++) {
+			sb.append("\n  ").append(stages[i]);
+			if (details[i] != null) {
+				sb.append(' ').append(details[i]);
+			}
+			sb.append(": ").append(nanos[i]).append("ns");
+		}
+		sb.append("\n  other: ").append(getOtherNanos()).append("ns");
+		return sb.toString();
+	}
+
+	/**
+	 * Clears the profile and starts timing the parse.
+	 */
+	void begin() {
+		size = 0;
+		depth = 0;
+		layout = null;
+		totalNanos = 0;
+		parseCount = 1;
+		start = System.nanoTime();
+	}
+
+	/**
+	 * Completes the profile.
+	 *
+	 * @param layout the detected layout, may be null
+	 */
+	void end(final MrzLayout layout) {
+		totalNanos = System.nanoTime() - start;
+		this.layout = layout;
+	}
+
+	/**
+	 * Starts a stage that may call other stages.
+	 *
+	 * @return the start time
+	 */
+	long enter() {
+		depth++;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Ends a stage started with {@link #enter()}. The stage is only recorded if it was not called from within another stage.
+	 *
+	 * @param stage the stage
+	 * @param detail the field name or range, may be null
+	 * @param from the start time
+	 */
+	void exit(final Stage stage, final Object detail, final long from) {
+		final long end = System.nanoTime();
+		depth--;
+		if (depth == 0) {
+			add(stage, detail, end - from);
+		}
+	}
+
+	/**
+	 * Records a top level stage.
+	 *
+	 * @param stage the stage
+	 * @param from the start time
+	 * @return the end time, to use as the start time of the next stage
+	 */
+	long record(final Stage stage, final long from) {
+		final long end = System.nanoTime();
+		if (depth == 0) {
+			add(stage, null, end - from);
+		}
+		return end;
+	}
+
+	private void add(final Stage stage, final Object detail, final long duration) {
+		if (size == stages.length) {
+			final int newSize = size * 2;
+			final Stage[] newStages = new Stage[newSize];
+			final Object[] newDetails = new Object[newSize];
+			final long[] newNanos = new long[newSize];
+			System.arraycopy(stages, 0, newStages, 0, size);
+			System.arraycopy(details, 0, newDetails, 0, size);
+			System.arraycopy(nanos, 0, newNanos, 0, size);
+			stages = newStages;
+			details = newDetails;
+			nanos = newNanos;
+		}
+		stages[size] = stage;
+		details[size] = detail;
+		nanos[size] = duration;
+		size++;
+	}
+
+	private int indexOf(final Stage stage, final String name) {
+		for (int i = 0; i < size; i++) {
+			if (stages[i] == stage && Objects.equals(getStageName(i), name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IllegalArgumentException("Parameter index: invalid value " + index + ": not in 0.." + (size - 1));
+		}
+	}
+
+}
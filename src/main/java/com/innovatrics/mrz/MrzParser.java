@@ -18,12 +18,19 @@
  */
 package com.innovatrics.mrz;
 
+import com.innovatrics.mrz.MrzParseProfile.Stage;
+import com.innovatrics.mrz.jfr.CheckDigitEvent;
+import com.innovatrics.mrz.jfr.MrzEvents;
+import com.innovatrics.mrz.jfr.ParseEvent;
+import com.innovatrics.mrz.metrics.CheckDigitField;
+import com.innovatrics.mrz.metrics.MrzMetrics;
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.types.MrzCountryCode;
 import com.innovatrics.mrz.types.MrzDate;
 import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzFormatRegistry;
+import com.innovatrics.mrz.types.MrzLayout;
 import com.innovatrics.mrz.types.MrzSex;
-import java.text.Normalizer;
-import java.util.HashMap;
-import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,30 +44,11 @@ public class MrzParser {
 	private static final Logger LOG = LoggerFactory.getLogger(MrzParser.class);
 
 	private static final int[] MRZ_WEIGHTS = new int[]{7, 3, 1};
-	private static final Map<String, String> EXPAND_CHARACTERS = new HashMap<String, String>();
 	/**
 	 * The filler character, '&lt;'.
 	 */
 	public static final char FILLER = '<';
 
-	static {
-		EXPAND_CHARACTERS.put("\u00C4", "AE"); // Ä
-		EXPAND_CHARACTERS.put("\u00E4", "AE"); // ä
-		EXPAND_CHARACTERS.put("\u00C5", "AA"); // Å
-		EXPAND_CHARACTERS.put("\u00E5", "AA"); // å
-		EXPAND_CHARACTERS.put("\u00C6", "AE"); // Æ
-		EXPAND_CHARACTERS.put("\u00E6", "AE"); // æ
-		EXPAND_CHARACTERS.put("\u0132", "IJ"); // Ĳ
-		EXPAND_CHARACTERS.put("\u0133", "IJ"); // ĳ
-		EXPAND_CHARACTERS.put("\u00D6", "OE"); // Ö
-		EXPAND_CHARACTERS.put("\u00F6", "OE"); // ö
-		EXPAND_CHARACTERS.put("\u00D8", "OE"); // Ø
-		EXPAND_CHARACTERS.put("\u00F8", "OE"); // ø
-		EXPAND_CHARACTERS.put("\u00DC", "UE"); // Ü
-		EXPAND_CHARACTERS.put("\u00FC", "UE"); // ü
-		EXPAND_CHARACTERS.put("\u00DF", "SS"); // ß
-	}
-
 	/**
 	 * The MRZ record, not null.
 	 */
@@ -70,9 +58,17 @@ public class MrzParser {
 	 */
 	private final String[] rows;
 	/**
-	 * MRZ record format.
+	 * MRZ record layout.
 	 */
-	private final MrzFormat format;
+	private final MrzLayout layout;
+	/**
+	 * The profile being filled in, or null.
+	 */
+	private final MrzParseProfile profile;
+	/**
+	 * The options of the parse, {@link MrzParseOptions#STRICT} by default.
+	 */
+	private final MrzParseOptions options;
 
 	/**
 	 * Creates new parser which parses given MRZ record.
@@ -82,9 +78,24 @@ public class MrzParser {
 	 * @throws MrzParseException could not parse MRZ
 	 */
 	public MrzParser(final String mrz) throws MrzParseException {
+		this(mrz, mrz.split("\n"), MrzFormatRegistry.get(mrz), MrzParseOptions.STRICT, null);
+	}
+
+	/**
+	 * Creates a parser of an MRZ split and detected before.
+	 *
+	 * @param mrz the MRZ record, not null.
+	 * @param rows the MRZ record separated into rows.
+	 * @param layout the detected layout.
+	 * @param options the options of the parse.
+	 * @param profile the profile to fill in, or null.
+	 */
+	MrzParser(final String mrz, final String[] rows, final MrzLayout layout, final MrzParseOptions options, final MrzParseProfile profile) {
 		this.mrz = mrz;
-		this.rows = mrz.split("\n");
-		this.format = MrzFormat.get(mrz);
+		this.rows = rows;
+		this.layout = layout;
+		this.options = options;
+		this.profile = profile;
 	}
 
 	/**
@@ -102,10 +113,17 @@ public class MrzParser {
 	}
 
 	/**
-	 * @return the MRZ format
+	 * @return the MRZ format, null for a custom layout
 	 */
 	public MrzFormat getFormat() {
-		return format;
+		return layout instanceof MrzFormat ? (MrzFormat) layout : null;
+	}
+
+	/**
+	 * @return the MRZ layout, the format for the built-in formats
+	 */
+	public MrzLayout getLayout() {
+		return layout;
 	}
 
 	/**
@@ -117,7 +135,21 @@ public class MrzParser {
 	 * @throws MrzParseException could not parse range
 	 */
 	public String[] parseName(final MrzRange range) throws MrzParseException {
-		checkValidCharacters(range);
+		if (profile == null) {
+			return decodeName(range);
+		}
+		final long start = profile.enter();
+		try {
+			return decodeName(range);
+		} finally {
+			profile.exit(Stage.NAME, range, start);
+		}
+	}
+
+	private String[] decodeName(final MrzRange range) throws MrzParseException {
+		if (options.isValidateCharacters()) {
+			checkValidCharacters(range);
+		}
 		String str = rawValue(range);
 		while (str.endsWith("<")) {
 			str = str.substring(0, str.length() - 1);
@@ -173,7 +205,21 @@ public class MrzParser {
 	 * @throws MrzParseException could not parse range
 	 */
 	public String parseString(final MrzRange range) throws MrzParseException {
-		checkValidCharacters(range);
+		if (profile == null) {
+			return decodeString(range);
+		}
+		final long start = profile.enter();
+		try {
+			return decodeString(range);
+		} finally {
+			profile.exit(Stage.FIELD, range, start);
+		}
+	}
+
+	private String decodeString(final MrzRange range) throws MrzParseException {
+		if (options.isValidateCharacters()) {
+			checkValidCharacters(range);
+		}
 		String str = rawValue(range);
 		while (str.endsWith("<")) {
 			str = str.substring(0, str.length() - 1);
@@ -181,6 +227,36 @@ public class MrzParser {
 		return str.replace("" + FILLER + FILLER, ", ").replace(FILLER, ' ');
 	}
 
+	/**
+	 * Parses a country code in given range. Known codes are returned as the canonical instance from {@link MrzCountryCode} without allocating,
+	 * other codes are parsed with {@link #parseString(MrzRange)}.
+	 *
+	 * @param range the range, usually 3 characters long
+	 * @return parsed country code.
+	 * @throws MrzParseException could not parse range
+	 */
+	public String parseCountry(final MrzRange range) throws MrzParseException {
+		if (profile == null) {
+			return decodeCountry(range);
+		}
+		final long start = profile.enter();
+		try {
+			return decodeCountry(range);
+		} finally {
+			profile.exit(Stage.FIELD, range, start);
+		}
+	}
+
+	private String decodeCountry(final MrzRange range) throws MrzParseException {
+		if (range.length() == 3) {
+			final String code = MrzCountryCode.lookup(getRows()[range.getRow()], range.getColumn());
+			if (code != null) {
+				return code;
+			}
+		}
+		return parseString(range);
+	}
+
 	/**
 	 * Verifies the check digit.
 	 *
@@ -188,10 +264,21 @@ public class MrzParser {
 	 * @param row the 0-based column of the check digit.
 	 * @param strRange the range for which the check digit is computed.
 	 * @param fieldName (optional) field name. Used only when validity check fails.
-	 * @return true if check digit is valid, false if not
+	 * @return true if check digit is valid or not verified, see {@link MrzParseOptions#isVerifyCheckDigits()}, false if not
 	 */
 	public boolean checkDigit(final int col, final int row, final MrzRange strRange, final String fieldName) {
-		return checkDigit(col, row, rawValue(strRange), fieldName);
+		if (!options.isVerifyCheckDigits()) {
+			return true;
+		}
+		if (profile == null) {
+			return checkDigit(col, row, rawValue(strRange), fieldName);
+		}
+		final long start = profile.enter();
+		try {
+			return checkDigit(col, row, rawValue(strRange), fieldName);
+		} finally {
+			profile.exit(Stage.CHECK_DIGIT, fieldName, start);
+		}
 	}
 
 	/**
@@ -201,9 +288,35 @@ public class MrzParser {
 	 * @param row the 0-based column of the check digit.
 	 * @param str the raw MRZ substring.
 	 * @param fieldName (optional) field name. Used only when validity check fails.
-	 * @return true if check digit is valid, false if not
+	 * @return true if check digit is valid or not verified, see {@link MrzParseOptions#isVerifyCheckDigits()}, false if not
 	 */
 	public boolean checkDigit(final int col, final int row, final String str, final String fieldName) {
+		if (!options.isVerifyCheckDigits()) {
+			return true;
+		}
+		if (profile == null) {
+			return recordCheckDigit(col, row, str, fieldName);
+		}
+		final long start = profile.enter();
+		try {
+			return recordCheckDigit(col, row, str, fieldName);
+		} finally {
+			profile.exit(Stage.CHECK_DIGIT, fieldName, start);
+		}
+	}
+
+	private boolean recordCheckDigit(final int col, final int row, final String str, final String fieldName) {
+		if (!MrzEvents.AVAILABLE) {
+			return verifyCheckDigit(col, row, str, fieldName);
+		}
+		final CheckDigitEvent event = new CheckDigitEvent();
+		event.begin();
+		final boolean valid = verifyCheckDigit(col, row, str, fieldName);
+		event.complete(getLayout(), fieldName, str.length(), valid);
+		return valid;
+	}
+
+	private boolean verifyCheckDigit(final int col, final int row, final String str, final String fieldName) {
 
 		// If the check digit validation fails, this will contain the location.
 		MrzRange invalidCheckdigit = null;
@@ -216,10 +329,38 @@ public class MrzParser {
 		if (digit != checkDigit) {
 			invalidCheckdigit = new MrzRange(col, col + 1, row);
 			LOG.info("Check digit verification failed for " + fieldName + ": expected " + digit + " but got " + checkDigit);
+			final MrzMetrics metrics = MrzMetricsRegistry.getMetrics();
+			if (metrics.isEnabled()) {
+				metrics.checkDigitFailed(getLayout(), getCheckDigitField(fieldName));
+			}
 		}
 		return invalidCheckdigit == null;
 	}
 
+	/**
+	 * @param fieldName the field name passed to {@link #checkDigit(int, int, String, String)}
+	 * @return the field reported to the metrics
+	 */
+	private static CheckDigitField getCheckDigitField(final String fieldName) {
+		if (fieldName == null) {
+			return CheckDigitField.OTHER;
+		}
+		switch (fieldName) {
+			case "document number":
+			case "passport number":
+				return CheckDigitField.DOCUMENT_NUMBER;
+			case "date of birth":
+				return CheckDigitField.DATE_OF_BIRTH;
+			case "expiration date":
+				return CheckDigitField.EXPIRATION_DATE;
+			case "mrz":
+			case "final checksum":
+				return CheckDigitField.COMPOSITE;
+			default:
+				return CheckDigitField.OTHER;
+		}
+	}
+
 	/**
 	 * Parses MRZ date.
 	 *
@@ -231,55 +372,19 @@ public class MrzParser {
 		if (range.length() != 6) {
 			throw new IllegalArgumentException("Parameter range: invalid value " + range + ": must be 6 characters long");
 		}
-		int year = parseYear(range);
-		int month = parseMonth(range);
-		int day = parseDay(range);
-		return new MrzDate(year, month, day, rawValue(range));
-	}
-
-	private int parseYear(final MrzRange range) {
-		int year;
-		MrzRange r = new MrzRange(range.getColumn(), range.getColumn() + 2, range.getRow());
-		try {
-			year = Integer.parseInt(rawValue(r));
-		} catch (NumberFormatException ex) {
-			year = -1;
-			LOG.debug("Failed to parse MRZ date year " + rawValue(range) + ": " + ex, getMrz(), r);
-		}
-		if (year < 0 || year > 99) {
-			LOG.debug("Invalid year value " + year + ": must be 0..99");
+		if (profile == null) {
+			return decodeDate(range);
 		}
-		return year;
-	}
-
-	private int parseMonth(final MrzRange range) {
-		int month;
-		MrzRange r = new MrzRange(range.getColumn() + 2, range.getColumn() + 4, range.getRow());
+		final long start = profile.enter();
 		try {
-			month = Integer.parseInt(rawValue(r));
-		} catch (NumberFormatException ex) {
-			month = -1;
-			LOG.debug("Failed to parse MRZ date month " + rawValue(range) + ": " + ex, getMrz(), r);
+			return decodeDate(range);
+		} finally {
+			profile.exit(Stage.FIELD, range, start);
 		}
-		if (month < 1 || month > 12) {
-			LOG.debug("Invalid month value " + month + ": must be 1..12");
-		}
-		return month;
 	}
 
-	private int parseDay(final MrzRange range) {
-		int day;
-		MrzRange r = new MrzRange(range.getColumn() + 4, range.getColumn() + 6, range.getRow());
-		try {
-			day = Integer.parseInt(rawValue(r));
-		} catch (NumberFormatException ex) {
-			day = -1;
-			LOG.debug("Failed to parse MRZ date day " + rawValue(range) + ": " + ex, getMrz(), r);
-		}
-		if (day < 1 || day > 31) {
-			LOG.debug("Invalid day value " + day + ": must be 1..31");
-		}
-		return day;
+	private MrzDate decodeDate(final MrzRange range) {
+		return MrzDate.parse(getRows()[range.getRow()], range.getColumn());
 	}
 
 	/**
@@ -290,17 +395,15 @@ public class MrzParser {
 	 * @return sex, never null.
 	 */
 	public MrzSex parseSex(final int col, final int row) {
-		return MrzSex.fromMrz(getRows()[row].charAt(col));
-	}
-
-	/**
-	 * Checks if given character is valid in MRZ.
-	 *
-	 * @param c the character.
-	 * @return true if the character is valid, false otherwise.
-	 */
-	private static boolean isValid(final char c) {
-		return (c == FILLER) || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z');
+		if (profile == null) {
+			return MrzSex.fromMrz(getRows()[row].charAt(col));
+		}
+		final long start = profile.enter();
+		try {
+			return MrzSex.fromMrz(getRows()[row].charAt(col));
+		} finally {
+			profile.exit(Stage.FIELD, new MrzRange(col, col + 1, row), start);
+		}
 	}
 
 	private static int getCharacterValue(final char c) {
@@ -352,8 +455,103 @@ public class MrzParser {
 	 * @throws MrzParseException could not parse MRZ
 	 */
 	public static MrzRecord parse(final String mrz) throws MrzParseException {
-		final MrzRecord result = MrzFormat.get(mrz).newRecord();
-		result.fromMrz(mrz);
+		return parse(mrz, MrzParseOptions.STRICT);
+	}
+
+	/**
+	 * Factory method, which parses the MRZ with the given options and returns appropriate record class.
+	 *
+	 * @param mrz MRZ to parse.
+	 * @param options the options of this parse, e.g. {@link MrzParseOptions#TRUSTED} for MRZs validated before.
+	 * @return record class.
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	public static MrzRecord parse(final String mrz, final MrzParseOptions options) throws MrzParseException {
+		final MrzMetrics metrics = MrzMetricsRegistry.getMetrics();
+		if (metrics.isEnabled()) {
+			return parse(mrz, options, metrics);
+		}
+		return decode(mrz, options);
+	}
+
+	private static MrzRecord decode(final String mrz, final MrzParseOptions options) throws MrzParseException {
+		final MrzLayout layout = MrzFormatRegistry.get(mrz);
+		final MrzRecord result = layout.newRecord();
+		decode(result, new MrzParser(mrz, mrz.split("\n"), layout, options, null));
+		return result;
+	}
+
+	private static void decode(final MrzRecord record, final MrzParser parser) throws MrzParseException {
+		if (!MrzEvents.AVAILABLE) {
+			fromMrz(record, parser);
+			return;
+		}
+		final ParseEvent event = new ParseEvent();
+		event.begin();
+		String outcome = MrzEvents.ERROR;
+		try {
+			fromMrz(record, parser);
+			outcome = isValid(record) ? MrzEvents.VALID : MrzEvents.INVALID;
+		} finally {
+			event.complete(record.getLayout(), parser.getMrz().length(), outcome);
+		}
+	}
+
+	/**
+	 * Strict parses go through {@link MrzRecord#fromMrz(String)}, which record types may override. The other parses pass their options and profile
+	 * to {@link MrzRecord#fromMrz(MrzParser)}.
+	 */
+	private static void fromMrz(final MrzRecord record, final MrzParser parser) throws MrzParseException {
+		if (parser.options == MrzParseOptions.STRICT && parser.profile == null) {
+			record.fromMrz(parser.getMrz());
+		} else {
+			record.decode(parser);
+		}
+	}
+
+	private static boolean isValid(final MrzRecord record) {
+		return record.isValidDocumentNumber() && record.isValidDateOfBirth() && record.isValidExpirationDate() && record.isValidComposite();
+	}
+
+	/**
+	 * Parses the MRZ and records the duration of each stage of the parse.
+	 *
+	 * @param mrz MRZ to parse.
+	 * @param profile the profile to fill in, cleared first.
+	 * @return record class.
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	public static MrzRecord parse(final String mrz, final MrzParseProfile profile) throws MrzParseException {
+		profile.begin();
+		MrzLayout layout = null;
+		try {
+			long start = System.nanoTime();
+			final String[] rows = mrz.split("\n");
+			start = profile.record(Stage.SPLIT_ROWS, start);
+			layout = MrzFormatRegistry.get(mrz);
+			start = profile.record(Stage.DETECT_FORMAT, start);
+			final MrzRecord result = layout.newRecord();
+			profile.record(Stage.NEW_RECORD, start);
+			decode(result, new MrzParser(mrz, rows, layout, MrzParseOptions.STRICT, profile));
+			return result;
+		} finally {
+			profile.end(layout);
+		}
+	}
+
+	private static MrzRecord parse(final String mrz, final MrzParseOptions options, final MrzMetrics metrics) throws MrzParseException {
+		final long start = System.nanoTime();
+		MrzLayout layout = null;
+		final MrzRecord result;
+		try {
+			layout = MrzFormatRegistry.get(mrz);
+			result = layout.newRecord();
+			decode(result, new MrzParser(mrz, mrz.split("\n"), layout, options, null));
+		} catch (MrzParseException ex) {
+			metrics.parseFailed(layout, System.nanoTime() - start);
+			throw ex;
+		}
+		metrics.parsed(layout, System.nanoTime() - start);
 		return result;
 	}
 
@@ -376,12 +574,16 @@ public class MrzParser {
 	 * <tr><td>Ü</td><td>UE</td></tr>
 	 * <tr><td>ß</td><td>SS</td></tr>
 	 * </table>
+	 * <p>
+	 * Cyrillic, Greek and Arabic letters are transliterated as recommended by Doc 9303 Part 3, see {@link MrzTransliterator}.
+	 * </p>
 	 * Examples:
 	 * <ul>
 	 * <li><code>toMrz("Sedím na konári", 20)</code> yields <code>"SEDIM&lt;NA&lt;KONARI&lt;&lt;&lt;&lt;&lt;"</code></li>
 	 * <li><code>toMrz("Pat, Mat", 8)</code> yields <code>"PAT&lt;&lt;MAT"</code></li>
 	 * <li><code>toMrz("foo/bar baz", 4)</code> yields <code>"FOO&lt;"</code></li>
 	 * <li><code>toMrz("*$()&amp;/\", 8)</code> yields <code>"&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;"</code></li>
+	 * <li><code>toMrz("Щукин", 8)</code> yields <code>"SHCHUKIN"</code></li>
 	 * </ul>
 	 *
 	 * @param input the string to convert. Passing null is the same as passing in an empty string.
@@ -390,30 +592,12 @@ public class MrzParser {
 	 * @return MRZ-valid string.
 	 */
 	public static String toMrz(final String input, final int length) {
-		String string = input == null ? "" : input;
-		for (final Map.Entry<String, String> e : EXPAND_CHARACTERS.entrySet()) {
-			string = string.replace(e.getKey(), e.getValue());
-		}
-		string = string.replace("’", "");
-		string = string.replace("'", "");
-		string = deaccent(string).toUpperCase();
-		if (length >= 0 && string.length() > length) {
-			string = string.substring(0, length);
-		}
-		final StringBuilder sb = new StringBuilder(string);
-		for (int i = 0; i < sb.length(); i++) {
-			if (!isValid(sb.charAt(i))) {
-				sb.setCharAt(i, FILLER);
-			}
+		if (length >= 0) {
+			final char[] buffer = new char[length];
+			MrzTransliterator.transliterate(input, buffer, 0, length);
+			return new String(buffer);
 		}
-		while (sb.length() < length) {
-			sb.append(FILLER);
-		}
-		return sb.toString();
-	}
-
-	private static boolean isBlank(final String str) {
-		return str == null || str.trim().length() == 0;
+		return MrzTransliterator.transliterate(input, -1, new StringBuilder()).toString();
 	}
 
 	/**
@@ -427,87 +611,7 @@ public class MrzParser {
 	 * @return name, properly converted to MRZ format of SURNAME&lt;&lt;GIVENNAMES&lt;..., with the exact length of given length.
 	 */
 	public static String nameToMrz(final String surname, final String givenNames, final int length) {
-		if (isBlank(surname)) {
-			throw new IllegalArgumentException("Parameter surname: invalid value " + surname + ": blank");
-		}
-		if (isBlank(givenNames)) {
-			throw new IllegalArgumentException("Parameter givenNames: invalid value " + givenNames + ": blank");
-		}
-		if (length <= 0) {
-			throw new IllegalArgumentException("Parameter length: invalid value " + length + ": not positive");
-		}
-		final String[] surnames = extractNames(surname);
-		final String[] given = extractNames(givenNames);
-		// Truncate
-		truncateNames(surnames, given, length, surname, givenNames);
-		return toMrz(toName(surnames, given), length);
-	}
-
-	private static String[] extractNames(final String name) {
-		final String[] names = name.replace(", ", " ").trim().split("[ \n\t\f\r]+");
-		for (int i = 0; i < names.length; i++) {
-			names[i] = toMrz(names[i], -1);
-		}
-		return names;
-	}
-
-	private static void truncateNames(final String[] surnames, final String[] given, final int length, final String surname, final String givenNames) {
-		int nameSize = getNameSize(surnames, given);
-		String[] currentlyTruncating = given;
-		int currentlyTruncatingIndex = given.length - 1;
-		while (nameSize > length) {
-			final String ct = currentlyTruncating[currentlyTruncatingIndex];
-			final int ctsize = ct.length();
-			if (nameSize - ctsize + 1 <= length) {
-				currentlyTruncating[currentlyTruncatingIndex] = ct.substring(0, ctsize - (nameSize - length));
-			} else {
-				currentlyTruncating[currentlyTruncatingIndex] = ct.substring(0, 1);
-				currentlyTruncatingIndex--;
-				if (currentlyTruncatingIndex < 0) {
-					if (currentlyTruncating == surnames) {
-						throw new IllegalArgumentException("Cannot truncate name " + surname + " " + givenNames + ": length too small: " + length + "; truncated to " + toName(surnames, given));
-					}
-					currentlyTruncating = surnames;
-					currentlyTruncatingIndex = currentlyTruncating.length - 1;
-				}
-			}
-			nameSize = getNameSize(surnames, given);
-		}
-	}
-
-	private static String toName(final String[] surnames, final String[] given) {
-		final StringBuilder sb = new StringBuilder();
-		boolean first = true;
-		for (String s : surnames) {
-			if (first) {
-				first = false;
-			} else {
-				sb.append(FILLER);
-			}
-			sb.append(s);
-		}
-		sb.append(FILLER);
-		for (String s : given) {
-			sb.append(FILLER);
-			sb.append(s);
-		}
-		return sb.toString();
-	}
-
-	private static int getNameSize(final String[] surnames, final String[] given) {
-		int result = 0;
-		for (String s : surnames) {
-			result += s.length() + 1;
-		}
-		for (String s : given) {
-			result += s.length() + 1;
-		}
-		return result;
-	}
-
-	private static String deaccent(final String str) {
-		String n = Normalizer.normalize(str, Normalizer.Form.NFD);
-		return n.replaceAll("[^\\p{ASCII}]", "").toLowerCase();
+		return new MrzNameEncoder().encode(surname, givenNames, length);
 	}
 
 }
@@ -18,10 +18,15 @@
  */
 package com.innovatrics.mrz;
 
+import com.innovatrics.mrz.types.MrzCountryCode;
 import com.innovatrics.mrz.types.MrzDate;
 import com.innovatrics.mrz.types.MrzDocumentCode;
 import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzFormatRegistry;
+import com.innovatrics.mrz.types.MrzLayout;
 import com.innovatrics.mrz.types.MrzSex;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -32,15 +37,30 @@ import java.io.Serializable;
 public abstract class MrzRecord implements Serializable {
 
 	/**
-	 * Detected MRZ format.
+	 * The computed serial version of the earlier releases, which did not declare one.
+	 */
+	private static final long serialVersionUID = -4699636207784297595L;
+
+	/**
+	 * Detected MRZ format, null for a custom layout.
 	 */
 	private final MrzFormat format;
 
+	/**
+	 * The custom layout, null for the built-in formats.
+	 */
+	private final MrzLayout layout;
+
 	/**
 	 * Name used for record type.
 	 */
 	private final String recordName;
 
+	/**
+	 * The MRZ the record was decoded from, or null if the record was not decoded or a field was set since.
+	 */
+	private String rawMrz;
+
 	/**
 	 * The document code.
 	 */
@@ -76,6 +96,7 @@ public abstract class MrzRecord implements Serializable {
 	 * <li>XXB: refugee, as per the 1951 Convention Relating to the Status of Refugees</li>
 	 * <li>XXC: refugee, other than defined above</li>
 	 * <li>XXX: unspecified nationality</li></ul>
+	 * The special codes are available as {@link MrzCountryCode} constants, e.g. {@link MrzCountryCode#XXA}.
 	 */
 	private String issuingCountry;
 	/**
@@ -116,22 +137,54 @@ public abstract class MrzRecord implements Serializable {
 	private boolean validExpirationDate = true;
 	private boolean validComposite = true;
 
+	/**
+	 * True if the record can no longer be modified.
+	 */
+	private transient boolean frozen;
+
+	/**
+	 * Hashes of the identity fields, recomputed by the setters from the field values and combined into the fingerprint, see {@link MrzFingerprint}.
+	 */
+	private transient long codeHash = MrzFingerprint.hashDocumentCode('\0', '\0');
+	private transient long issuingCountryHash = MrzFingerprint.hash(null);
+	private transient long documentNumberHash = MrzFingerprint.hash(null);
+	private transient long dateOfBirthHash = MrzFingerprint.hashDate(null);
+	private transient long expirationDateHash = MrzFingerprint.hashDate(null);
+
 	/**
 	 * @param format the record format
 	 * @param recordName the record name
 	 */
 	protected MrzRecord(final MrzFormat format, final String recordName) {
-		this.format = format;
+		this((MrzLayout) format, recordName);
+	}
+
+	/**
+	 * Constructor of the records of custom layouts, see {@link MrzFormatRegistry}.
+	 *
+	 * @param layout the record layout, a built-in format or a custom layout
+	 * @param recordName the record name
+	 */
+	protected MrzRecord(final MrzLayout layout, final String recordName) {
+		this.format = layout instanceof MrzFormat ? (MrzFormat) layout : null;
+		this.layout = layout instanceof MrzFormat ? null : layout;
 		this.recordName = recordName;
 	}
 
 	/**
-	 * @return the format
+	 * @return the format, null for the records of a custom layout
 	 */
 	public final MrzFormat getFormat() {
 		return format;
 	}
 
+	/**
+	 * @return the layout, the format for the built-in formats
+	 */
+	public final MrzLayout getLayout() {
+		return format == null ? layout : format;
+	}
+
 	/**
 	 * @return the record name
 	 */
@@ -140,19 +193,90 @@ public abstract class MrzRecord implements Serializable {
 	}
 
 	/**
-	 * Parses the MRZ record.
+	 * @return the MRZ the record was decoded from, exactly as passed to {@link #fromMrz(String)}, or null if the record was not decoded or a
+	 * field was set since
+	 */
+	public final String getRawMrz() {
+		return rawMrz;
+	}
+
+	/**
+	 * Makes the record read-only, so it can be shared between threads. Setters of a frozen record throw an {@link IllegalStateException}. A
+	 * deserialized copy of a frozen record is not frozen.
+	 *
+	 * @return this record
+	 */
+	public final MrzRecord freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the record can no longer be modified
+	 */
+	public final boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throws an exception if the record is frozen. Subclasses call this from their setters.
+	 *
+	 * @throws IllegalStateException the record is frozen
+	 */
+	protected final void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("Record is frozen: " + getRecordName());
+		}
+	}
+
+	/**
+	 * Forgets the raw MRZ, which no longer matches the fields. Subclasses call this from the setters of their fields, next to
+	 * {@link #checkNotFrozen()}.
+	 */
+	protected final void clearRawMrz() {
+		rawMrz = null;
+	}
+
+	/**
+	 * Parses the MRZ record. {@link MrzParser#parse(String)} decodes records with this method, the default implementation decodes the fields with
+	 * {@link #fromMrz(MrzParser)}.
 	 *
 	 * @param mrz the mrz record, not null, separated by \n
 	 * @throws MrzParseException could not parse MRZ
 	 */
 	public void fromMrz(final String mrz) throws MrzParseException {
-		if (getFormat() != MrzFormat.get(mrz)) {
-			throw new MrzParseException("Invalid format: " + MrzFormat.get(mrz), mrz, new MrzRange(0, 0, 0), getFormat());
+		decode(new MrzParser(mrz));
+	}
+
+	/**
+	 * Decodes the fields of the record and then keeps the MRZ as the raw MRZ.
+	 *
+	 * @param parser the parser of the MRZ record
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	final void decode(final MrzParser parser) throws MrzParseException {
+		fromMrz(parser);
+		rawMrz = parser.getMrz();
+	}
+
+	/**
+	 * Decodes the fields of the record with the parser of the MRZ, which carries the options and the profile of the parse. Record types override
+	 * this method to decode their own fields after calling it. Parses with {@link MrzParseOptions#TRUSTED} or a {@link MrzParseProfile} call this
+	 * method directly, so a record type overriding only {@link #fromMrz(String)} decodes just the fields of its super class there.
+	 *
+	 * @param parser the parser of the MRZ record
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		final String mrz = parser.getMrz();
+		if (getLayout() != parser.getLayout()) {
+			throw new MrzParseException("Invalid format: " + parser.getLayout().name(), mrz, new MrzRange(0, 0, 0), getFormat());
 		}
+		checkNotFrozen();
 		setCode(MrzDocumentCode.parse(mrz));
 		setCode1(mrz.charAt(0));
 		setCode2(mrz.charAt(1));
-		setIssuingCountry(new MrzParser(mrz).parseString(new MrzRange(2, 5, 0)));
+		setIssuingCountry(parser.parseCountry(new MrzRange(2, 5, 0)));
 	}
 
 	/**
@@ -172,6 +296,16 @@ public abstract class MrzRecord implements Serializable {
 	 */
 	public abstract String toMrz();
 
+	/**
+	 * Writes this record to a MRZ writer. The default implementation appends {@link #toMrz()}, record types should override it to encode their
+	 * fields directly.
+	 *
+	 * @param writer the writer to encode to
+	 */
+	public void writeMrz(final MrzWriter writer) {
+		writer.append(toMrz());
+	}
+
 	/**
 	 * @return the document code
 	 */
@@ -183,6 +317,8 @@ public abstract class MrzRecord implements Serializable {
 	 * @param code the document code
 	 */
 	public void setCode(final MrzDocumentCode code) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.code = code;
 	}
 
@@ -197,7 +333,10 @@ public abstract class MrzRecord implements Serializable {
 	 * @param code1 the document code1
 	 */
 	public void setCode1(final char code1) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.code1 = code1;
+		codeHash = MrzFingerprint.hashDocumentCode(code1, code2);
 	}
 
 	/**
@@ -211,7 +350,10 @@ public abstract class MrzRecord implements Serializable {
 	 * @param code2 the document code2
 	 */
 	public void setCode2(final char code2) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.code2 = code2;
+		codeHash = MrzFingerprint.hashDocumentCode(code1, code2);
 	}
 
 	/**
@@ -222,10 +364,20 @@ public abstract class MrzRecord implements Serializable {
 	}
 
 	/**
-	 * @param issuingCountry the issuing country
+	 * @param issuingCountry the issuing country. Known codes are replaced with their canonical instance, see {@link MrzCountryCode}.
 	 */
 	public void setIssuingCountry(final String issuingCountry) {
-		this.issuingCountry = issuingCountry;
+		checkNotFrozen();
+		clearRawMrz();
+		this.issuingCountry = MrzCountryCode.canonical(issuingCountry);
+		issuingCountryHash = MrzFingerprint.hash(issuingCountry);
+	}
+
+	/**
+	 * @return true if the issuing country is a known country code
+	 */
+	public boolean isKnownIssuingCountry() {
+		return MrzCountryCode.isKnown(issuingCountry);
 	}
 
 	/**
@@ -239,7 +391,10 @@ public abstract class MrzRecord implements Serializable {
 	 * @param documentNumber the document number
 	 */
 	public void setDocumentNumber(final String documentNumber) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.documentNumber = documentNumber;
+		documentNumberHash = MrzFingerprint.hash(documentNumber);
 	}
 
 	/**
@@ -253,6 +408,8 @@ public abstract class MrzRecord implements Serializable {
 	 * @param surname the surname
 	 */
 	public void setSurname(final String surname) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.surname = surname;
 	}
 
@@ -267,6 +424,8 @@ public abstract class MrzRecord implements Serializable {
 	 * @param givenNames the given names
 	 */
 	public void setGivenNames(final String givenNames) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.givenNames = givenNames;
 	}
 
@@ -281,7 +440,10 @@ public abstract class MrzRecord implements Serializable {
 	 * @param dateOfBirth the date of birth
 	 */
 	public void setDateOfBirth(final MrzDate dateOfBirth) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.dateOfBirth = dateOfBirth;
+		dateOfBirthHash = MrzFingerprint.hashDate(dateOfBirth);
 	}
 
 	/**
@@ -295,6 +457,8 @@ public abstract class MrzRecord implements Serializable {
 	 * @param sex the sex
 	 */
 	public void setSex(final MrzSex sex) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.sex = sex;
 	}
 
@@ -309,7 +473,10 @@ public abstract class MrzRecord implements Serializable {
 	 * @param expirationDate the expiration date
 	 */
 	public void setExpirationDate(final MrzDate expirationDate) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.expirationDate = expirationDate;
+		expirationDateHash = MrzFingerprint.hashDate(expirationDate);
 	}
 
 	/**
@@ -320,10 +487,27 @@ public abstract class MrzRecord implements Serializable {
 	}
 
 	/**
-	 * @param nationality the nationality
+	 * @param nationality the nationality. Known codes are replaced with their canonical instance, see {@link MrzCountryCode}.
 	 */
 	public void setNationality(final String nationality) {
-		this.nationality = nationality;
+		checkNotFrozen();
+		clearRawMrz();
+		this.nationality = MrzCountryCode.canonical(nationality);
+	}
+
+	/**
+	 * @return true if the nationality is a known country code
+	 */
+	public boolean isKnownNationality() {
+		return MrzCountryCode.isKnown(nationality);
+	}
+
+	/**
+	 * @return the stable 64-bit fingerprint of the document code, issuing country, document number, date of birth and expiration date, see
+	 * {@link MrzFingerprint}
+	 */
+	public long getFingerprint() {
+		return MrzFingerprint.combine(codeHash, issuingCountryHash, documentNumberHash, dateOfBirthHash, expirationDateHash);
 	}
 
 	/**
@@ -337,6 +521,7 @@ public abstract class MrzRecord implements Serializable {
 	 * @param validDocumentNumber true if valid document number
 	 */
 	protected void setValidDocumentNumber(final boolean validDocumentNumber) {
+		checkNotFrozen();
 		this.validDocumentNumber = validDocumentNumber;
 	}
 
@@ -351,6 +536,7 @@ public abstract class MrzRecord implements Serializable {
 	 * @param validDateOfBirth true if valid date of birth
 	 */
 	protected void setValidDateOfBirth(final boolean validDateOfBirth) {
+		checkNotFrozen();
 		this.validDateOfBirth = validDateOfBirth;
 	}
 
@@ -365,6 +551,7 @@ public abstract class MrzRecord implements Serializable {
 	 * @param validExpirationDate true if valid expiration date to set
 	 */
 	protected void setValidExpirationDate(final boolean validExpirationDate) {
+		checkNotFrozen();
 		this.validExpirationDate = validExpirationDate;
 	}
 
@@ -379,9 +566,28 @@ public abstract class MrzRecord implements Serializable {
 	 * @param validComposite true if valid composite
 	 */
 	protected void setValidComposite(final boolean validComposite) {
+		checkNotFrozen();
 		this.validComposite = validComposite;
 	}
 
+	/**
+	 * Restores the canonical country code instances and the hashes of the identity fields.
+	 *
+	 * @param in the stream to read from
+	 * @throws IOException could not read the record
+	 * @throws ClassNotFoundException could not resolve a class of the record
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		issuingCountry = MrzCountryCode.canonical(issuingCountry);
+		nationality = MrzCountryCode.canonical(nationality);
+		codeHash = MrzFingerprint.hashDocumentCode(code1, code2);
+		issuingCountryHash = MrzFingerprint.hash(issuingCountry);
+		documentNumberHash = MrzFingerprint.hash(documentNumber);
+		dateOfBirthHash = MrzFingerprint.hashDate(dateOfBirth);
+		expirationDateHash = MrzFingerprint.hashDate(expirationDate);
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder(getRecordName());
@@ -0,0 +1,273 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.types.MrzFormat;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary encoding of MRZ records, an alternative to Java serialization.
+ * <p>
+ * A record is encoded as one header byte holding the format id and the four check digit flags, followed by the MRZ characters without line
+ * feeds at 6 bits per character. The length follows from the format, e.g. a passport takes 67 bytes. The characters are the
+ * {@link MrzRecord#getRawMrz() raw MRZ} the record was decoded from, so invalid check digits and fields the record types can not write back
+ * are kept as they were. Records built or modified with setters, which have no raw MRZ, are encoded with {@link MrzRecord#toMrz()}. Decoding parses the
+ * MRZ into a new record of the format without verifying the check digits again, and restores the flags. Encoded records can be concatenated
+ * into a stream, see {@link #writeAll(Iterable, WritableByteChannel)} and {@link #readAll(ReadableByteChannel, Consumer)}.
+ * </p>
+ * <p>
+ * The format ids and character codes are part of the encoding and must not change, so only records of the {@link MrzFormat} constants can be
+ * encoded: encoding a record of a custom {@link com.innovatrics.mrz.types.MrzLayout} throws an {@link IllegalArgumentException}. Instances are
+ * not thread safe, use one codec per thread.
+ * </p>
+ * <pre>
+ * final MrzRecordCodec codec = new MrzRecordCodec();
+ * final byte[] bytes = codec.encode(record);
+ * final MrzRecord decoded = codec.decode(bytes);
+ * </pre>
+ */
+public class MrzRecordCodec {
+
+	/**
+	 * The formats by id.
+	 */
+	private static final MrzFormat[] FORMATS = {MrzFormat.MRTD_TD1, MrzFormat.FRENCH_ID, MrzFormat.MRV_VISA_B, MrzFormat.MRTD_TD2,
+		MrzFormat.MRV_VISA_A, MrzFormat.PASSPORT, MrzFormat.SLOVAK_ID_234};
+
+	/**
+	 * The characters by code.
+	 */
+	private static final char[] CHARS = "<0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+	private static final int[] CODES = new int[128];
+
+	private static final int FLAG_DOCUMENT_NUMBER = 1;
+	private static final int FLAG_DATE_OF_BIRTH = 1 << 1;
+	private static final int FLAG_EXPIRATION_DATE = 1 << 2;
+	private static final int FLAG_COMPOSITE = 1 << 3;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	static {
+		Arrays.fill(CODES, -1);
+		for (int i = 0; i < CHARS.length; i++) {
+			CODES[CHARS[i]] = i;
+		}
+	}
+
+	private char[] chars = new char[96];
+
+	/**
+	 * @param format the format
+	 * @return the number of bytes of an encoded record of the format
+	 */
+	public static int getEncodedLength(final MrzFormat format) {
+		return 1 + (format.getRows() * format.getColumns() * 6 + 7) / 8;
+	}
+
+	/**
+	 * @param record the record to encode
+	 * @return the encoded record
+	 * @throws IllegalArgumentException if the record has a custom layout or its MRZ can not be encoded
+	 */
+	public byte[] encode(final MrzRecord record) {
+		final ByteBuffer dest = ByteBuffer.allocate(getEncodedLength(getFormat(record)));
+		encode(record, dest);
+		return dest.array();
+	}
+
+	/**
+	 * Encodes a record at the position of the buffer.
+	 *
+	 * @param record the record to encode
+	 * @param dest the destination buffer, with at least {@link #getEncodedLength(MrzFormat)} bytes remaining
+	 * @return the destination buffer
+	 * @throws IllegalArgumentException if the record has a custom layout or its MRZ can not be encoded
+	 */
+	public ByteBuffer encode(final MrzRecord record, final ByteBuffer dest) {
+		final MrzFormat format = getFormat(record);
+		final int length = format.getRows() * format.getColumns();
+		final String mrz = record.getRawMrz() == null ? record.toMrz() : record.getRawMrz();
+		int flags = 0;
+		flags |= record.isValidDocumentNumber() ? FLAG_DOCUMENT_NUMBER : 0;
+		flags |= record.isValidDateOfBirth() ? FLAG_DATE_OF_BIRTH : 0;
+		flags |= record.isValidExpirationDate() ? FLAG_EXPIRATION_DATE : 0;
+		flags |= record.isValidComposite() ? FLAG_COMPOSITE : 0;
+		dest.put((byte) (getId(format) << 4 | flags));
+		int count = 0;
+		int bits = 0;
+		int acc = 0;
+		for (int i = 0; i < mrz.length(); i++) {
+			final char c = mrz.charAt(i);
+			if (c == '\n') {
+				continue;
+			}
+			final int code = c < CODES.length ? CODES[c] : -1;
+			if (code < 0) {
+				throw new IllegalArgumentException("Parameter record: invalid value " + record.getRecordName() + ": invalid MRZ character '" + c + "'");
+			}
+			acc = acc << 6 | code;
+			bits += 6;
+			if (bits >= 8) {
+				bits -= 8;
+				dest.put((byte) (acc >>> bits));
+			}
+			count++;
+		}
+		if (count != length) {
+			throw new IllegalArgumentException("Parameter record: invalid value " + record.getRecordName() + ": encoded to " + count + " characters instead of "
+					+ length);
+		}
+		if (bits > 0) {
+			dest.put((byte) (acc << (8 - bits)));
+		}
+		return dest;
+	}
+
+	/**
+	 * @param bytes the encoded record
+	 * @return the decoded record
+	 * @throws MrzParseException could not parse the encoded MRZ
+	 */
+	public MrzRecord decode(final byte[] bytes) throws MrzParseException {
+		return decode(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Decodes a record at the position of the buffer, advancing the position past the record.
+	 *
+	 * @param src the buffer holding the encoded record
+	 * @return the decoded record
+	 * @throws MrzParseException could not parse the encoded MRZ
+	 */
+	public MrzRecord decode(final ByteBuffer src) throws MrzParseException {
+		final int header = src.get() & 0xFF;
+		final MrzFormat format = getFormat(header >>> 4);
+		final int columns = format.getColumns();
+		final int length = format.getRows() * (columns + 1) - 1;
+		if (chars.length < length) {
+			chars = new char[length];
+		}
+		int bits = 0;
+		int acc = 0;
+		int column = 0;
+		for (int i = 0; i < length; i++) {
+			if (column == columns) {
+				chars[i] = '\n';
+				column = 0;
+				continue;
+			}
+			if (bits < 6) {
+				acc = acc << 8 | (src.get() & 0xFF);
+				bits += 8;
+			}
+			bits -= 6;
+			final int code = (acc >>> bits) & 0x3F;
+			if (code >= CHARS.length) {
+				throw new IllegalArgumentException("Parameter src: invalid character code " + code);
+			}
+			chars[i] = CHARS[code];
+			column++;
+		}
+		final MrzRecord record = format.newRecord();
+		final String mrz = new String(chars, 0, length);
+		record.decode(new MrzParser(mrz, mrz.split("\n"), format, MrzParseOptions.TRUSTED, null));
+		record.setValidDocumentNumber((header & FLAG_DOCUMENT_NUMBER) != 0);
+		record.setValidDateOfBirth((header & FLAG_DATE_OF_BIRTH) != 0);
+		record.setValidExpirationDate((header & FLAG_EXPIRATION_DATE) != 0);
+		record.setValidComposite((header & FLAG_COMPOSITE) != 0);
+		return record;
+	}
+
+	/**
+	 * Encodes the records one after another to a channel.
+	 *
+	 * @param records the records to write
+	 * @param channel the channel to write to, not closed
+	 * @return the number of records written
+	 * @throws IOException could not write to the channel
+	 * @throws IllegalArgumentException if a record has a custom layout or its MRZ can not be encoded
+	 */
+	public long writeAll(final Iterable<? extends MrzRecord> records, final WritableByteChannel channel) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		long count = 0;
+		for (MrzRecord record : records) {
+			if (buffer.remaining() < getEncodedLength(getFormat(record))) {
+				flush(buffer, channel);
+			}
+			encode(record, buffer);
+			count++;
+		}
+		flush(buffer, channel);
+		return count;
+	}
+
+	/**
+	 * Decodes records written by {@link #writeAll(Iterable, WritableByteChannel)} until the end of the channel.
+	 *
+	 * @param channel the channel to read from, not closed
+	 * @param consumer receives the decoded records in order
+	 * @return the number of records read
+	 * @throws IOException could not read from the channel, or the channel ended within a record
+	 * @throws MrzParseException could not parse an encoded MRZ
+	 */
+	public long readAll(final ReadableByteChannel channel, final Consumer<? super MrzRecord> consumer) throws IOException, MrzParseException {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.flip();
+		long count = 0;
+		while (true) {
+			if (!buffer.hasRemaining() || buffer.remaining() < getEncodedLength(getFormat((buffer.get(buffer.position()) & 0xFF) >>> 4))) {
+				buffer.compact();
+				final int read = channel.read(buffer);
+				buffer.flip();
+				if (read < 0) {
+					if (buffer.hasRemaining()) {
+						throw new EOFException("Channel ended within record " + count);
+					}
+					return count;
+				}
+				continue;
+			}
+			consumer.accept(decode(buffer));
+			count++;
+		}
+	}
+
+	private static void flush(final ByteBuffer buffer, final WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private static MrzFormat getFormat(final MrzRecord record) {
+		final MrzFormat format = record.getFormat();
+		if (format == null) {
+			throw new IllegalArgumentException("Parameter record: invalid value " + record.getRecordName() + ": custom layout "
+					+ record.getLayout().name() + " has no format id");
+		}
+		return format;
+	}
+
+	private static int getId(final MrzFormat format) {
+		for (int i = 0; i < FORMATS.length; i++) {
+			if (FORMATS[i] == format) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Parameter format: invalid value " + format + ": not supported");
+	}
+
+	private static MrzFormat getFormat(final int id) {
+		if (id >= FORMATS.length) {
+			throw new IllegalArgumentException("Parameter id: invalid value " + id + ": unknown format");
+		}
+		return FORMATS[id];
+	}
+
+}
@@ -1,12 +1,18 @@
 package com.innovatrics.mrz;
 
 import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzLayout;
 
 /**
  * MrzRecord with Optional field.
  */
 public abstract class MrzRecordOptional extends MrzRecord {
 
+	/**
+	 * The computed serial version of the earlier releases, which did not declare one.
+	 */
+	private static final long serialVersionUID = 726984072598363634L;
+
 	/**
 	 * For use of the issuing State or organization.
 	 */
@@ -20,6 +26,14 @@ public abstract class MrzRecordOptional extends MrzRecord {
 		super(format, recordName);
 	}
 
+	/**
+	 * @param layout the record layout, a built-in format or a custom layout
+	 * @param recordName the record name
+	 */
+	protected MrzRecordOptional(final MrzLayout layout, final String recordName) {
+		super(layout, recordName);
+	}
+
 	@Override
 	protected void buildToString(final StringBuilder sb) {
 		super.buildToString(sb);
@@ -37,6 +51,8 @@ public abstract class MrzRecordOptional extends MrzRecord {
 	 * @param optional the issuing State or Organization
 	 */
 	public void setOptional(final String optional) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.optional = optional;
 	}
 
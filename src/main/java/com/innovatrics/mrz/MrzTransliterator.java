@@ -0,0 +1,307 @@
+package com.innovatrics.mrz;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single pass transliteration of text into MRZ characters, as per Doc 9303 Part 3 Section 6.
+ * <p>
+ * Every character below {@link #TABLE_SIZE} is resolved from a table computed once when the class is loaded. The table covers the Latin,
+ * Greek, Cyrillic and Arabic blocks (including the ICAO recommended transliterations) and the general punctuation block. Other characters fall
+ * back to a canonical decomposition with all non ASCII characters removed.
+ * </p>
+ * <p>
+ * Letters are converted to upper-case, apostrophes are removed and all other characters that are not valid in a MRZ are replaced with the
+ * {@link MrzParser#FILLER} character.
+ * </p>
+ */
+public final class MrzTransliterator {
+
+	/**
+	 * Characters below this value are resolved by a table lookup.
+	 */
+	public static final int TABLE_SIZE = 0x2100;
+
+	/**
+	 * The longest transliteration of a single character (e.g. Cyrillic Щ to SHCH).
+	 */
+	public static final int MAX_EXPANSION = 4;
+
+	private static final char[] EMPTY = new char[0];
+
+	private static final char[][] TABLE = new char[TABLE_SIZE][];
+
+	static {
+		final Map<Character, String> icao = new HashMap<>();
+		addLatin(icao);
+		addCyrillic(icao);
+		addGreek(icao);
+		addArabic(icao);
+		for (int c = 0; c < TABLE_SIZE; c++) {
+			final String explicit = icao.get((char) c);
+			final String value = explicit == null ? decompose(String.valueOf((char) c), icao) : explicit;
+			TABLE[c] = value.isEmpty() ? EMPTY : value.toCharArray();
+		}
+	}
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzTransliterator() {
+		// Do nothing
+	}
+
+	/**
+	 * Transliterates the input into a buffer, truncating or padding the result with '&lt;' to exactly the given length.
+	 *
+	 * @param input the text to transliterate. Passing null is the same as passing in an empty string.
+	 * @param buffer the buffer to write to
+	 * @param offset the offset of the first character to write
+	 * @param length the exact number of characters to write, not negative
+	 * @return the offset after the last written character
+	 */
+	public static int transliterate(final CharSequence input, final char[] buffer, final int offset, final int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Parameter length: invalid value " + length + ": negative");
+		}
+		final int end = offset + length;
+		int pos = offset;
+		if (input != null) {
+			int i = 0;
+			while (i < input.length() && pos < end) {
+				final char[] chars;
+				final char c = input.charAt(i);
+				if (c < TABLE_SIZE) {
+					chars = TABLE[c];
+					i++;
+				} else {
+					final int cp = Character.codePointAt(input, i);
+					chars = lookup(cp);
+					i += Character.charCount(cp);
+				}
+				for (int j = 0; j < chars.length && pos < end; j++) {
+					buffer[pos++] = chars[j];
+				}
+			}
+		}
+		while (pos < end) {
+			buffer[pos++] = MrzParser.FILLER;
+		}
+		return pos;
+	}
+
+	/**
+	 * Transliterates a range of the input into a buffer, without truncating or padding the result.
+	 *
+	 * @param input the text to transliterate, not null
+	 * @param start the index of the first character to transliterate
+	 * @param end the index after the last character to transliterate
+	 * @param buffer the buffer to write to, must have room for <code>(end - start) * MAX_EXPANSION</code> characters
+	 * @param offset the offset of the first character to write
+	 * @return the offset after the last written character
+	 */
+	public static int transliterateRange(final CharSequence input, final int start, final int end, final char[] buffer, final int offset) {
+		int pos = offset;
+		int i = start;
+		while (i < end) {
+			final char[] chars;
+			final char c = input.charAt(i);
+			if (c < TABLE_SIZE) {
+				chars = TABLE[c];
+				i++;
+			} else {
+				final int cp = Character.codePointAt(input, i);
+				chars = lookup(cp);
+				i += Character.charCount(cp);
+			}
+			for (int j = 0; j < chars.length; j++) {
+				buffer[pos++] = chars[j];
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * Transliterates the input and appends it to a string builder.
+	 *
+	 * @param input the text to transliterate. Passing null is the same as passing in an empty string.
+	 * @param length required length of the appended string. If the transliterated string is longer, it is truncated. If it is shorter, '&lt;'
+	 * characters are appended. If -1, the string is neither truncated nor enlarged.
+	 * @param sb the string builder to append to
+	 * @return the string builder
+	 */
+	public static StringBuilder transliterate(final CharSequence input, final int length, final StringBuilder sb) {
+		if (length >= 0) {
+			final char[] buffer = new char[length];
+			transliterate(input, buffer, 0, length);
+			return sb.append(buffer);
+		}
+		if (input != null) {
+			int i = 0;
+			while (i < input.length()) {
+				final int cp = Character.codePointAt(input, i);
+				sb.append(lookup(cp));
+				i += Character.charCount(cp);
+			}
+		}
+		return sb;
+	}
+
+	/**
+	 * Returns the transliteration of a single code point.
+	 *
+	 * @param codePoint the code point
+	 * @return the MRZ characters, may be empty. The returned array must not be modified.
+	 */
+	static char[] lookup(final int codePoint) {
+		if (codePoint >= 0 && codePoint < TABLE_SIZE) {
+			return TABLE[codePoint];
+		}
+		final String value = decompose(new String(Character.toChars(codePoint)), null);
+		return value.isEmpty() ? EMPTY : value.toCharArray();
+	}
+
+	/**
+	 * Canonically decomposes the string and transliterates the resulting characters.
+	 *
+	 * @param str the string to decompose
+	 * @param icao the explicit transliterations, or null to use the table
+	 * @return the MRZ characters
+	 */
+	private static String decompose(final String str, final Map<Character, String> icao) {
+		final String nfd = Normalizer.normalize(str, Normalizer.Form.NFD);
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < nfd.length(); i++) {
+			final char c = nfd.charAt(i);
+			if (icao == null && c < TABLE_SIZE) {
+				sb.append(TABLE[c]);
+			} else if (icao != null && icao.containsKey(c)) {
+				sb.append(icao.get(c));
+			} else if (c < 0x80) {
+				appendAscii(c, sb);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void appendAscii(final char c, final StringBuilder sb) {
+		if (c == '\'') {
+			return;
+		}
+		if (c >= 'a' && c <= 'z') {
+			sb.append((char) (c - 'a' + 'A'));
+		} else if (c == MrzParser.FILLER || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z')) {
+			sb.append(c);
+		} else {
+			sb.append(MrzParser.FILLER);
+		}
+	}
+
+	private static void put(final Map<Character, String> icao, final char upper, final char lower, final String value) {
+		icao.put(upper, value);
+		icao.put(lower, value);
+	}
+
+	private static void addLatin(final Map<Character, String> icao) {
+		put(icao, '\u00C4', '\u00E4', "AE"); // Ä
+		put(icao, '\u00C5', '\u00E5', "AA"); // Å
+		put(icao, '\u00C6', '\u00E6', "AE"); // Æ
+		put(icao, '\u0132', '\u0133', "IJ"); // Ĳ
+		put(icao, '\u00D6', '\u00F6', "OE"); // Ö
+		put(icao, '\u00D8', '\u00F8', "OE"); // Ø
+		put(icao, '\u00DC', '\u00FC', "UE"); // Ü
+		put(icao, '\u00DE', '\u00FE', "TH"); // Þ
+		put(icao, '\u00D0', '\u00F0', "D"); // Ð
+		put(icao, '\u0110', '\u0111', "D"); // Đ
+		put(icao, '\u0126', '\u0127', "H"); // Ħ
+		put(icao, '\u013F', '\u0140', "L"); // Ŀ
+		put(icao, '\u0141', '\u0142', "L"); // Ł
+		put(icao, '\u014A', '\u014B', "N"); // Ŋ
+		put(icao, '\u0152', '\u0153', "OE"); // Œ
+		put(icao, '\u0166', '\u0167', "T"); // Ŧ
+		icao.put('\u00DF', "SS"); // ß
+		icao.put('\u0131', "I"); // ı
+		icao.put('\u0138', "K"); // ĸ
+		icao.put('\u0149', "N"); // ŉ
+		icao.put('\u017F', "S"); // ſ
+		icao.put('\u2019', ""); // ’
+	}
+
+	private static void addCyrillic(final Map<Character, String> icao) {
+		final String[] basic = {"A", "B", "V", "G", "D", "E", "ZH", "Z", "I", "I", "K", "L", "M", "N", "O", "P",
+			"R", "S", "T", "U", "F", "KH", "TS", "CH", "SH", "SHCH", "IE", "Y", "", "E", "IU", "IA"};
+		for (int i = 0; i < basic.length; i++) {
+			put(icao, (char) (0x0410 + i), (char) (0x0430 + i), basic[i]);
+		}
+		final String[] extended = {"E", "E", "D", "G", "IE", "DZ", "I", "I", "J", "LJ", "NJ", "C", "K", "I", "U", "DZ"};
+		for (int i = 0; i < extended.length; i++) {
+			put(icao, (char) (0x0400 + i), (char) (0x0450 + i), extended[i]);
+		}
+		put(icao, '\u0490', '\u0491', "G"); // Ґ
+	}
+
+	private static void addGreek(final Map<Character, String> icao) {
+		final String[] basic = {"A", "V", "G", "D", "E", "Z", "I", "TH", "I", "K", "L", "M", "N", "X", "O", "P",
+			"R", "S", "S", "T", "Y", "F", "CH", "PS", "O"};
+		for (int i = 0; i < basic.length; i++) {
+			// 0x03A2 is unassigned, its lower-case counterpart is the final sigma
+			if (i != 0x11) {
+				icao.put((char) (0x0391 + i), basic[i]);
+			}
+			icao.put((char) (0x03B1 + i), basic[i]);
+		}
+	}
+
+	private static void addArabic(final Map<Character, String> icao) {
+		icao.put('\u0621', "XE"); // ء
+		icao.put('\u0622', "XAA"); // آ
+		icao.put('\u0623', "XAE"); // أ
+		icao.put('\u0624', "U"); // ؤ
+		icao.put('\u0625', "I"); // إ
+		icao.put('\u0626', "XI"); // ئ
+		icao.put('\u0627', "A"); // ا
+		icao.put('\u0628', "B"); // ب
+		icao.put('\u0629', "XTA"); // ة
+		icao.put('\u062A', "T"); // ت
+		icao.put('\u062B', "XTH"); // ث
+		icao.put('\u062C', "J"); // ج
+		icao.put('\u062D', "XH"); // ح
+		icao.put('\u062E', "XKH"); // خ
+		icao.put('\u062F', "D"); // د
+		icao.put('\u0630', "XDH"); // ذ
+		icao.put('\u0631', "R"); // ر
+		icao.put('\u0632', "Z"); // ز
+		icao.put('\u0633', "S"); // س
+		icao.put('\u0634', "XSH"); // ش
+		icao.put('\u0635', "XSS"); // ص
+		icao.put('\u0636', "XDZ"); // ض
+		icao.put('\u0637', "XTT"); // ط
+		icao.put('\u0638', "XZZ"); // ظ
+		icao.put('\u0639', "E"); // ع
+		icao.put('\u063A', "G"); // غ
+		icao.put('\u0640', ""); // tatweel
+		icao.put('\u0641', "F"); // ف
+		icao.put('\u0642', "Q"); // ق
+		icao.put('\u0643', "K"); // ك
+		icao.put('\u0644', "L"); // ل
+		icao.put('\u0645', "M"); // م
+		icao.put('\u0646', "N"); // ن
+		icao.put('\u0647', "H"); // ه
+		icao.put('\u0648', "W"); // و
+		icao.put('\u0649', "XAY"); // ى
+		icao.put('\u064A', "Y"); // ي
+		icao.put('\u067E', "P"); // پ
+		icao.put('\u0686', "XCH"); // چ
+		icao.put('\u0698', "XZH"); // ژ
+		icao.put('\u06A4', "V"); // ڤ
+		icao.put('\u06A9', "XKK"); // ک
+		icao.put('\u06AF', "XGG"); // گ
+		icao.put('\u06CC', "XYA"); // ی
+		for (int i = 0; i < 10; i++) {
+			icao.put((char) (0x0660 + i), String.valueOf((char) ('0' + i)));
+			icao.put((char) (0x06F0 + i), String.valueOf((char) ('0' + i)));
+		}
+	}
+
+}
@@ -0,0 +1,349 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.types.MrzDate;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Encodes MRZ records into a reusable character buffer.
+ * <p>
+ * Field and composite check digits are computed incrementally as characters are written, so every field is converted to MRZ characters exactly
+ * once. The encoded record can then be copied to an {@link Appendable}, a <code>char[]</code> or a {@link ByteBuffer}. Instances are not thread
+ * safe, use one writer per thread.
+ * </p>
+ * <pre>
+ * final MrzWriter writer = new MrzWriter();
+ * for (MrzRecord record : records) {
+ *   writer.write(record).writeTo(out);
+ * }
+ * </pre>
+ */
+public class MrzWriter {
+
+	private static final int[] MRZ_WEIGHTS = new int[]{7, 3, 1};
+
+	/**
+	 * Enough for the largest built in format (2 rows of 44 characters, or 3 rows of 30) including line feeds.
+	 */
+	private static final int INITIAL_SIZE = 96;
+
+	private final MrzNameEncoder nameEncoder = new MrzNameEncoder();
+
+	private char[] buffer = new char[INITIAL_SIZE];
+	private int pos;
+
+	private int fieldSum;
+	private int fieldWeight;
+
+	private boolean composite;
+	private int compositeSum;
+	private int compositeWeight;
+
+	/**
+	 * Clears the writer and encodes the record.
+	 *
+	 * @param record the record to encode
+	 * @return this writer
+	 */
+	public MrzWriter write(final MrzRecord record) {
+		reset();
+		record.writeMrz(this);
+		return this;
+	}
+
+	/**
+	 * Clears the buffer and the check digit state.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter reset() {
+		pos = 0;
+		fieldSum = 0;
+		fieldWeight = 0;
+		composite = false;
+		compositeSum = 0;
+		compositeWeight = 0;
+		return this;
+	}
+
+	/**
+	 * Appends a character as is.
+	 *
+	 * @param c the MRZ character
+	 * @return this writer
+	 */
+	public MrzWriter append(final char c) {
+		ensureCapacity(1);
+		buffer[pos++] = c;
+		addComposite(pos - 1, pos);
+		return this;
+	}
+
+	/**
+	 * Appends characters as is.
+	 *
+	 * @param chars the MRZ characters
+	 * @return this writer
+	 */
+	public MrzWriter append(final CharSequence chars) {
+		ensureCapacity(chars.length());
+		final int from = pos;
+		for (int i = 0; i < chars.length(); i++) {
+			buffer[pos++] = chars.charAt(i);
+		}
+		addComposite(from, pos);
+		return this;
+	}
+
+	/**
+	 * Appends a line feed. Line feeds are never part of a check digit.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter newLine() {
+		ensureCapacity(1);
+		buffer[pos++] = '\n';
+		return this;
+	}
+
+	/**
+	 * Appends text converted to MRZ characters, see {@link MrzParser#toMrz(String, int)}.
+	 *
+	 * @param text the text, may be null
+	 * @param length the exact number of characters to append
+	 * @return this writer
+	 */
+	public MrzWriter text(final String text, final int length) {
+		ensureCapacity(length);
+		final int from = pos;
+		pos = MrzTransliterator.transliterate(text, buffer, pos, length);
+		addComposite(from, pos);
+		return this;
+	}
+
+	/**
+	 * Appends the name field, see {@link MrzParser#nameToMrz(String, String, int)}.
+	 *
+	 * @param surname the surname, not blank
+	 * @param givenNames the given names, not blank
+	 * @param length the exact number of characters to append
+	 * @return this writer
+	 */
+	public MrzWriter name(final String surname, final String givenNames, final int length) {
+		ensureCapacity(length);
+		final int from = pos;
+		pos = nameEncoder.encode(surname, givenNames, length, buffer, pos);
+		addComposite(from, pos);
+		return this;
+	}
+
+	/**
+	 * Starts a new check digit field and appends the text converted to MRZ characters.
+	 *
+	 * @param text the text, may be null
+	 * @param length the exact number of characters to append
+	 * @return this writer
+	 */
+	public MrzWriter field(final String text, final int length) {
+		final int from = pos;
+		text(text, length);
+		startField(from);
+		return this;
+	}
+
+	/**
+	 * Starts a new check digit field and appends the date.
+	 *
+	 * @param date the date, not null
+	 * @return this writer
+	 */
+	public MrzWriter field(final MrzDate date) {
+		final int from = pos;
+		append(date.toMrz());
+		startField(from);
+		return this;
+	}
+
+	/**
+	 * Appends the check digit of the current field.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter checkDigit() {
+		return append((char) ('0' + fieldSum % 10));
+	}
+
+	/**
+	 * Starts including the written characters in the composite check digit.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter beginComposite() {
+		composite = true;
+		return this;
+	}
+
+	/**
+	 * Stops including the written characters in the composite check digit.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter endComposite() {
+		composite = false;
+		return this;
+	}
+
+	/**
+	 * Appends the composite check digit of all characters written between {@link #beginComposite()} and {@link #endComposite()} calls.
+	 *
+	 * @return this writer
+	 */
+	public MrzWriter compositeCheckDigit() {
+		composite = false;
+		return append((char) ('0' + compositeSum % 10));
+	}
+
+	/**
+	 * @return the number of encoded characters
+	 */
+	public int length() {
+		return pos;
+	}
+
+	/**
+	 * Copies the encoded characters to a buffer.
+	 *
+	 * @param dest the destination buffer
+	 * @param offset the offset of the first character to copy
+	 * @return the offset after the last copied character
+	 */
+	public int getChars(final char[] dest, final int offset) {
+		System.arraycopy(buffer, 0, dest, offset, pos);
+		return offset + pos;
+	}
+
+	/**
+	 * Writes the encoded characters as US-ASCII bytes.
+	 *
+	 * @param dest the destination buffer
+	 * @return the destination buffer
+	 */
+	public ByteBuffer writeTo(final ByteBuffer dest) {
+		for (int i = 0; i < pos; i++) {
+			dest.put((byte) buffer[i]);
+		}
+		return dest;
+	}
+
+	/**
+	 * Appends the encoded characters.
+	 *
+	 * @param dest the destination
+	 * @throws IOException could not append to the destination
+	 */
+	public void writeTo(final Appendable dest) throws IOException {
+		if (dest instanceof StringBuilder) {
+			((StringBuilder) dest).append(buffer, 0, pos);
+		} else {
+			dest.append(toCharSequence());
+		}
+	}
+
+	/**
+	 * @return the encoded characters as US-ASCII bytes
+	 */
+	public byte[] toBytes() {
+		final byte[] bytes = new byte[pos];
+		for (int i = 0; i < pos; i++) {
+			bytes[i] = (byte) buffer[i];
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return a view of the encoded characters, valid until the writer is next modified
+	 */
+	public CharSequence toCharSequence() {
+		return CharBuffer.wrap(buffer, 0, pos);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, pos);
+	}
+
+	/**
+	 * Encodes the records in parallel and writes them to a file in encounter order. Each record is followed by an empty line.
+	 *
+	 * @param records the records to write
+	 * @param file the file to create or overwrite
+	 * @return the number of records written
+	 * @throws IOException could not write to the file
+	 */
+	public static long writeAll(final Stream<? extends MrzRecord> records, final Path file) throws IOException {
+		final ThreadLocal<MrzWriter> writers = ThreadLocal.withInitial(MrzWriter::new);
+		final AtomicLong count = new AtomicLong();
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+			records.parallel().map(record -> writers.get().write(record).newLine().toBytes()).forEachOrdered(bytes -> {
+				try {
+					out.write(bytes);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				count.incrementAndGet();
+			});
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		return count.get();
+	}
+
+	private void startField(final int from) {
+		fieldSum = 0;
+		fieldWeight = 0;
+		for (int i = from; i < pos; i++) {
+			fieldSum += getCharacterValue(buffer[i]) * MRZ_WEIGHTS[fieldWeight];
+			fieldWeight = fieldWeight == 2 ? 0 : fieldWeight + 1;
+		}
+	}
+
+	private void addComposite(final int from, final int to) {
+		if (!composite) {
+			return;
+		}
+		for (int i = from; i < to; i++) {
+			compositeSum += getCharacterValue(buffer[i]) * MRZ_WEIGHTS[compositeWeight];
+			compositeWeight = compositeWeight == 2 ? 0 : compositeWeight + 1;
+		}
+	}
+
+	private void ensureCapacity(final int extra) {
+		if (pos + extra > buffer.length) {
+			final char[] newBuffer = new char[Math.max(pos + extra, buffer.length * 2)];
+			System.arraycopy(buffer, 0, newBuffer, 0, pos);
+			buffer = newBuffer;
+		}
+	}
+
+	private static int getCharacterValue(final char c) {
+		if (c == MrzParser.FILLER) {
+			return 0;
+		}
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 10;
+		}
+		throw new IllegalArgumentException("Invalid character in MRZ record: " + c);
+	}
+
+}
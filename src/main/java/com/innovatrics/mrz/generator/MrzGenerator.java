@@ -0,0 +1,362 @@
+package com.innovatrics.mrz.generator;
+
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.MrzRecordOptional;
+import com.innovatrics.mrz.MrzWriter;
+import com.innovatrics.mrz.records.MRP;
+import com.innovatrics.mrz.records.MrtdTd1;
+import com.innovatrics.mrz.types.MrzDate;
+import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzSex;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates synthetic MRZ records for load and soak testing.
+ * <p>
+ * Records are built with the record classes of this library and serialized with {@link MrzRecord#writeMrz(MrzWriter)}, so the output is what
+ * the parser sees in production. The record at a given index only depends on the seed and the index, which makes a corpus reproducible and
+ * allows it to be generated in parallel.
+ * </p>
+ * <p>
+ * A configurable share of the records gets one check digit corrupted, and OCR noise can be injected by replacing characters with commonly
+ * confused ones. Noise may also hit the document code or the sex, so noisy records are not guaranteed to be parseable.
+ * </p>
+ */
+public class MrzGenerator {
+
+	private static final String[] COUNTRIES = {"AUS", "AUT", "BEL", "BRA", "CAN", "CHE", "CHN", "CZE", "D", "DNK", "ESP", "FIN", "FRA", "GBR",
+		"GRC", "HUN", "IND", "IRL", "ITA", "JPN", "NLD", "NOR", "NZL", "POL", "PRT", "SVK", "SWE", "USA", "UTO", "XXA"};
+
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	private static final String MRZ_CHARACTERS = ALPHANUMERIC + "<";
+
+	/**
+	 * Characters commonly confused by OCR engines, as pairs.
+	 */
+	private static final String OCR_CONFUSIONS = "0O1I5S8B2Z<K6G";
+
+	private static final int MAX_NAME_PARTS = 4;
+
+	private static final MrzSex[] SEXES = MrzSex.values();
+
+	/**
+	 * The writers, shared by all generators so that no writer is left behind per generator in pooled threads.
+	 */
+	private static final ThreadLocal<MrzWriter> WRITERS = ThreadLocal.withInitial(MrzWriter::new);
+
+	/**
+	 * Check digit positions of each format as {row, column} pairs.
+	 */
+	private static final Map<MrzFormat, int[][]> CHECK_DIGITS = new EnumMap<>(MrzFormat.class);
+
+	static {
+		CHECK_DIGITS.put(MrzFormat.MRTD_TD1, new int[][]{{0, 14}, {1, 6}, {1, 14}, {1, 29}});
+		CHECK_DIGITS.put(MrzFormat.FRENCH_ID, new int[][]{{1, 12}, {1, 33}, {1, 35}});
+		CHECK_DIGITS.put(MrzFormat.MRV_VISA_B, new int[][]{{1, 9}, {1, 19}, {1, 27}});
+		CHECK_DIGITS.put(MrzFormat.MRTD_TD2, new int[][]{{1, 9}, {1, 19}, {1, 27}, {1, 35}});
+		CHECK_DIGITS.put(MrzFormat.MRV_VISA_A, new int[][]{{1, 9}, {1, 19}, {1, 27}});
+		CHECK_DIGITS.put(MrzFormat.PASSPORT, new int[][]{{1, 9}, {1, 19}, {1, 27}, {1, 42}, {1, 43}});
+		CHECK_DIGITS.put(MrzFormat.SLOVAK_ID_234, new int[][]{{1, 9}, {1, 19}, {1, 27}});
+	}
+
+	private final long seed;
+
+	private final Map<MrzFormat, Double> formatWeights = new EnumMap<>(MrzFormat.class);
+
+	private double invalidCheckDigitRate;
+
+	private double ocrNoiseRate;
+
+	private int minNameLength = 4;
+
+	private int maxNameLength = 30;
+
+	/**
+	 * Creates a generator with all formats equally likely, no invalid check digits and no OCR noise.
+	 *
+	 * @param seed the seed, the same seed always generates the same corpus
+	 */
+	public MrzGenerator(final long seed) {
+		this.seed = seed;
+		for (MrzFormat format : MrzFormat.values()) {
+			formatWeights.put(format, 1.0);
+		}
+	}
+
+	/**
+	 * @return the seed
+	 */
+	public final long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param format the format
+	 * @return the relative weight of the format in the generated mix
+	 */
+	public double getFormatWeight(final MrzFormat format) {
+		return formatWeights.get(format);
+	}
+
+	/**
+	 * @param format the format
+	 * @param weight the relative weight of the format in the generated mix, zero to exclude the format
+	 */
+	public void setFormatWeight(final MrzFormat format, final double weight) {
+		if (weight < 0) {
+			throw new IllegalArgumentException("Parameter weight: invalid value " + weight + ": negative");
+		}
+		formatWeights.put(format, weight);
+	}
+
+	/**
+	 * @return the share of records, 0..1, that have one check digit corrupted
+	 */
+	public double getInvalidCheckDigitRate() {
+		return invalidCheckDigitRate;
+	}
+
+	/**
+	 * @param invalidCheckDigitRate the share of records, 0..1, that have one check digit corrupted
+	 */
+	public void setInvalidCheckDigitRate(final double invalidCheckDigitRate) {
+		if (!(invalidCheckDigitRate >= 0 && invalidCheckDigitRate <= 1)) {
+			throw new IllegalArgumentException("Parameter invalidCheckDigitRate: invalid value " + invalidCheckDigitRate + ": not in 0..1");
+		}
+		this.invalidCheckDigitRate = invalidCheckDigitRate;
+	}
+
+	/**
+	 * @return the probability, 0..1, of each character being replaced with OCR noise
+	 */
+	public double getOcrNoiseRate() {
+		return ocrNoiseRate;
+	}
+
+	/**
+	 * @param ocrNoiseRate the probability, 0..1, of each character being replaced with OCR noise
+	 */
+	public void setOcrNoiseRate(final double ocrNoiseRate) {
+		if (!(ocrNoiseRate >= 0 && ocrNoiseRate <= 1)) {
+			throw new IllegalArgumentException("Parameter ocrNoiseRate: invalid value " + ocrNoiseRate + ": not in 0..1");
+		}
+		this.ocrNoiseRate = ocrNoiseRate;
+	}
+
+	/**
+	 * @return the minimum length of surname plus given names
+	 */
+	public int getMinNameLength() {
+		return minNameLength;
+	}
+
+	/**
+	 * @return the maximum length of surname plus given names
+	 */
+	public int getMaxNameLength() {
+		return maxNameLength;
+	}
+
+	/**
+	 * Sets the uniform distribution of the name length (surname plus given names). Names longer than the name field are truncated by the
+	 * record, as in production.
+	 *
+	 * @param minNameLength the minimum length, at least 2
+	 * @param maxNameLength the maximum length
+	 */
+	public void setNameLength(final int minNameLength, final int maxNameLength) {
+		if (minNameLength < 2 || maxNameLength < minNameLength) {
+			throw new IllegalArgumentException("Parameter nameLength: invalid range " + minNameLength + ".." + maxNameLength);
+		}
+		this.minNameLength = minNameLength;
+		this.maxNameLength = maxNameLength;
+	}
+
+	/**
+	 * Generates the record at the given index of the corpus.
+	 *
+	 * @param index the 0-based index
+	 * @return the MRZ, rows separated (and terminated) by \n
+	 */
+	public String generate(final long index) {
+		final SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+		final MrzRecord record = createRecord(nextFormat(random), random);
+		final char[] mrz = WRITERS.get().write(record).toString().toCharArray();
+		if (random.nextDouble() < invalidCheckDigitRate) {
+			corruptCheckDigit(record.getFormat(), mrz, random);
+		}
+		if (ocrNoiseRate > 0) {
+			addNoise(mrz, random);
+		}
+		return new String(mrz);
+	}
+
+	/**
+	 * Generates the first records of the corpus. The stream may be made parallel without changing its content.
+	 *
+	 * @param count the number of records
+	 * @return the MRZs, in index order
+	 */
+	public Stream<String> stream(final long count) {
+		return LongStream.range(0, count).mapToObj(this::generate);
+	}
+
+	/**
+	 * Generates the first records of the corpus in parallel and writes them to a file, each record followed by an empty line (the layout of
+	 * {@link MrzWriter#writeAll(Stream, Path)}).
+	 *
+	 * @param file the file to create or overwrite
+	 * @param count the number of records
+	 * @throws IOException could not write to the file
+	 */
+	public void write(final Path file, final long count) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+			stream(count).parallel().map(mrz -> (mrz + "\n").getBytes(StandardCharsets.US_ASCII)).forEachOrdered(bytes -> {
+				try {
+					out.write(bytes);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private MrzFormat nextFormat(final SplittableRandom random) {
+		double total = 0;
+		for (double weight : formatWeights.values()) {
+			total += weight;
+		}
+		if (total <= 0) {
+			throw new IllegalStateException("No format has a positive weight");
+		}
+		double value = random.nextDouble() * total;
+		MrzFormat last = null;
+		for (Map.Entry<MrzFormat, Double> entry : formatWeights.entrySet()) {
+			if (entry.getValue() > 0) {
+				last = entry.getKey();
+				value -= entry.getValue();
+				if (value < 0) {
+					break;
+				}
+			}
+		}
+		return last;
+	}
+
+	private MrzRecord createRecord(final MrzFormat format, final SplittableRandom random) {
+		final MrzRecord record = format.newRecord();
+		switch (format) {
+			case PASSPORT:
+				record.setCode1('P');
+				record.setCode2('<');
+				break;
+			case MRTD_TD1:
+			case MRTD_TD2:
+			case SLOVAK_ID_234:
+				// Not "ID", which would be detected as a French ID card for France
+				record.setCode1('I');
+				record.setCode2('<');
+				break;
+			default:
+				// Code fixed by the record type
+		}
+		final String country = pick(COUNTRIES, random);
+		record.setIssuingCountry(format == MrzFormat.FRENCH_ID ? "FRA" : country);
+		record.setNationality(format == MrzFormat.FRENCH_ID ? "FRA" : random.nextInt(10) == 0 ? pick(COUNTRIES, random) : country);
+		record.setDocumentNumber(randomString(ALPHANUMERIC, format == MrzFormat.FRENCH_ID ? 12 : 6 + random.nextInt(4), random));
+		record.setDateOfBirth(randomDate(random));
+		record.setExpirationDate(randomDate(random));
+		record.setSex(SEXES[random.nextInt(SEXES.length)]);
+		final int nameLength = minNameLength + random.nextInt(maxNameLength - minNameLength + 1);
+		final int surnameLength = 1 + random.nextInt(nameLength - 1);
+		record.setSurname(randomName(surnameLength, random));
+		record.setGivenNames(randomName(nameLength - surnameLength, random));
+		if (record instanceof MrzRecordOptional) {
+			((MrzRecordOptional) record).setOptional(random.nextBoolean() ? "" : randomString(ALPHANUMERIC, 1 + random.nextInt(6), random));
+		}
+		if (record instanceof MrtdTd1) {
+			((MrtdTd1) record).setOptional2(random.nextBoolean() ? "" : randomString(ALPHANUMERIC, 1 + random.nextInt(11), random));
+		}
+		if (record instanceof MRP) {
+			((MRP) record).setPersonalNumber(random.nextBoolean() ? "" : randomString(ALPHANUMERIC, 1 + random.nextInt(14), random));
+		}
+		return record;
+	}
+
+	private void corruptCheckDigit(final MrzFormat format, final char[] mrz, final SplittableRandom random) {
+		final int[][] positions = CHECK_DIGITS.get(format);
+		final int[] position = positions[random.nextInt(positions.length)];
+		final int index = position[0] * (format.getColumns() + 1) + position[1];
+		final int digit = mrz[index] == '<' ? 0 : mrz[index] - '0';
+		mrz[index] = (char) ('0' + (digit + 1 + random.nextInt(9)) % 10);
+	}
+
+	private void addNoise(final char[] mrz, final SplittableRandom random) {
+		for (int i = 0; i < mrz.length; i++) {
+			if (mrz[i] != '\n' && random.nextDouble() < ocrNoiseRate) {
+				final int confusion = OCR_CONFUSIONS.indexOf(mrz[i]);
+				if (confusion >= 0) {
+					mrz[i] = OCR_CONFUSIONS.charAt(confusion ^ 1);
+				} else {
+					mrz[i] = MRZ_CHARACTERS.charAt(random.nextInt(MRZ_CHARACTERS.length()));
+				}
+			}
+		}
+	}
+
+	private static MrzDate randomDate(final SplittableRandom random) {
+		return new MrzDate(random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28));
+	}
+
+	/**
+	 * Builds a name of the given length, with a space between parts every 3 to 10 letters. The number of parts is limited so the name can always
+	 * be truncated to the shortest name field.
+	 */
+	private static String randomName(final int length, final SplittableRandom random) {
+		final StringBuilder sb = new StringBuilder(length);
+		int parts = 1;
+		int part = 0;
+		int partLength = 3 + random.nextInt(8);
+		while (sb.length() < length) {
+			if (part == partLength && parts < MAX_NAME_PARTS && sb.length() < length - 1) {
+				sb.append(' ');
+				parts++;
+				part = 0;
+				partLength = 3 + random.nextInt(8);
+			} else {
+				sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+				part++;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String randomString(final String alphabet, final int length, final SplittableRandom random) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+		}
+		return new String(chars);
+	}
+
+	private static String pick(final String[] values, final SplittableRandom random) {
+		return values[random.nextInt(values.length)];
+	}
+
+}
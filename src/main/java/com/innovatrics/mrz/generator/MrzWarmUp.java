@@ -0,0 +1,346 @@
+package com.innovatrics.mrz.generator;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.MrzWriter;
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.util.SplittableRandom;
+
+/**
+ * Warms up the parser so that the JIT compiler has compiled the hot paths before real traffic is served.
+ * <p>
+ * Runs rounds over an in-memory corpus generated by {@link MrzGenerator} with every {@link MrzFormat}, a share of invalid check digits and
+ * some text around the MRZ. Each MRZ goes through {@link MrzFinderUtil#findMrz(String)}, {@link MrzParser#parse(String)}, the validity
+ * checks of the record, a check digit computation over the first row and {@link MrzWriter#write(MrzRecord)}. The throughput of every round
+ * is measured and the parser is considered warm when {@link #getPlateauRounds()} rounds in a row do not beat the best earlier round by more
+ * than the {@link #getPlateauTolerance() tolerance}. The warm-up stops at the plateau, or when the time or iteration budget is exhausted.
+ * </p>
+ * <p>
+ * {@link #isPlateaued()} may be polled from another thread, e.g. by a readiness probe, while {@link #run()} runs. The synthetic MRZs are not
+ * reported to {@link com.innovatrics.mrz.metrics.MrzMetrics} nor Java Flight Recorder: reporting is
+ * {@link MrzMetricsRegistry#setSuppressed(boolean) suppressed} on the warm-up thread, the parses of other threads are still reported.
+ * </p>
+ * <pre>
+ * final MrzWarmUp warmUp = new MrzWarmUp();
+ * warmUp.setMaxMillis(20000);
+ * final MrzWarmUp.Result result = warmUp.run();
+ * </pre>
+ */
+public class MrzWarmUp {
+
+	/**
+	 * The default number of MRZs of the corpus per format.
+	 */
+	public static final int DEFAULT_CORPUS_SIZE = 512;
+
+	/**
+	 * The default time budget in milliseconds.
+	 */
+	public static final long DEFAULT_MAX_MILLIS = 30000;
+
+	/**
+	 * The default relative improvement of the throughput below which it is considered stable.
+	 */
+	public static final double DEFAULT_PLATEAU_TOLERANCE = 0.03;
+
+	/**
+	 * The default number of rounds without improvement that make a plateau.
+	 */
+	public static final int DEFAULT_PLATEAU_ROUNDS = 10;
+
+	private static final double INVALID_CHECK_DIGIT_RATE = 0.1;
+
+	private final long seed;
+
+	private int corpusSize = DEFAULT_CORPUS_SIZE;
+	private long maxMillis = DEFAULT_MAX_MILLIS;
+	private long maxIterations = Long.MAX_VALUE;
+	private double plateauTolerance = DEFAULT_PLATEAU_TOLERANCE;
+	private int plateauRounds = DEFAULT_PLATEAU_ROUNDS;
+
+	private volatile boolean plateaued;
+
+	/**
+	 * Keeps the results alive so the JIT compiler can not eliminate the work.
+	 */
+	private volatile long sink;
+
+	/**
+	 * Creates a warm-up with a fixed seed.
+	 */
+	public MrzWarmUp() {
+		this(0);
+	}
+
+	/**
+	 * @param seed the seed of the corpus
+	 */
+	public MrzWarmUp(final long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return the number of MRZs of the corpus per format
+	 */
+	public int getCorpusSize() {
+		return corpusSize;
+	}
+
+	/**
+	 * @param corpusSize the number of MRZs of the corpus per format, one round processes the whole corpus
+	 */
+	public void setCorpusSize(final int corpusSize) {
+		if (corpusSize <= 0) {
+			throw new IllegalArgumentException("Parameter corpusSize: invalid value " + corpusSize + ": not positive");
+		}
+		this.corpusSize = corpusSize;
+	}
+
+	/**
+	 * @return the time budget in milliseconds
+	 */
+	public long getMaxMillis() {
+		return maxMillis;
+	}
+
+	/**
+	 * @param maxMillis the time budget in milliseconds, the warm-up stops after the round exceeding it
+	 */
+	public void setMaxMillis(final long maxMillis) {
+		if (maxMillis <= 0) {
+			throw new IllegalArgumentException("Parameter maxMillis: invalid value " + maxMillis + ": not positive");
+		}
+		this.maxMillis = maxMillis;
+	}
+
+	/**
+	 * @return the maximum number of MRZs to process
+	 */
+	public long getMaxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * @param maxIterations the maximum number of MRZs to process, the warm-up stops after the round exceeding it
+	 */
+	public void setMaxIterations(final long maxIterations) {
+		if (maxIterations <= 0) {
+			throw new IllegalArgumentException("Parameter maxIterations: invalid value " + maxIterations + ": not positive");
+		}
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * @return the relative improvement of the throughput below which it is considered stable
+	 */
+	public double getPlateauTolerance() {
+		return plateauTolerance;
+	}
+
+	/**
+	 * @param plateauTolerance the relative improvement of the throughput below which it is considered stable, e.g. 0.03 for 3%
+	 */
+	public void setPlateauTolerance(final double plateauTolerance) {
+		if (!(plateauTolerance >= 0)) {
+			throw new IllegalArgumentException("Parameter plateauTolerance: invalid value " + plateauTolerance + ": negative");
+		}
+		this.plateauTolerance = plateauTolerance;
+	}
+
+	/**
+	 * @return the number of rounds without improvement that make a plateau
+	 */
+	public int getPlateauRounds() {
+		return plateauRounds;
+	}
+
+	/**
+	 * @param plateauRounds the number of rounds without improvement that make a plateau
+	 */
+	public void setPlateauRounds(final int plateauRounds) {
+		if (plateauRounds <= 0) {
+			throw new IllegalArgumentException("Parameter plateauRounds: invalid value " + plateauRounds + ": not positive");
+		}
+		this.plateauRounds = plateauRounds;
+	}
+
+	/**
+	 * @return true once a run reached a plateau of the throughput
+	 */
+	public boolean isPlateaued() {
+		return plateaued;
+	}
+
+	/**
+	 * Runs the warm-up in the calling thread, without reporting.
+	 *
+	 * @return the result
+	 */
+	public Result run() {
+		final boolean suppressed = MrzMetricsRegistry.isSuppressed();
+		MrzMetricsRegistry.setSuppressed(true);
+		try {
+			return warmUp();
+		} finally {
+			MrzMetricsRegistry.setSuppressed(suppressed);
+		}
+	}
+
+	private Result warmUp() {
+		final String[] corpus = createCorpus();
+		final MrzWriter writer = new MrzWriter();
+		final long start = System.nanoTime();
+		final long deadline = start + maxMillis * 1000000L;
+		long iterations = 0;
+		int rounds = 0;
+		double best = 0;
+		double last = 0;
+		int roundsWithoutImprovement = 0;
+		boolean plateau = false;
+		while (!plateau && iterations < maxIterations && System.nanoTime() - deadline < 0) {
+			final long roundStart = System.nanoTime();
+			long checksum = 0;
+			for (String input : corpus) {
+				checksum += process(input, writer);
+			}
+			final long elapsed = Math.max(1, System.nanoTime() - roundStart);
+			sink += checksum;
+			iterations += corpus.length;
+			rounds++;
+			last = corpus.length * 1e9 / elapsed;
+			if (last > best * (1 + plateauTolerance)) {
+				roundsWithoutImprovement = 0;
+			} else {
+				roundsWithoutImprovement++;
+				plateau = roundsWithoutImprovement >= plateauRounds;
+			}
+			best = Math.max(best, last);
+		}
+		if (plateau) {
+			plateaued = true;
+		}
+		return new Result(iterations, rounds, (System.nanoTime() - start) / 1000000L, last, best, plateau);
+	}
+
+	private String[] createCorpus() {
+		final MrzFormat[] formats = MrzFormat.values();
+		final String[] corpus = new String[formats.length * corpusSize];
+		int index = 0;
+		for (MrzFormat format : formats) {
+			final MrzGenerator generator = new MrzGenerator(seed ^ format.ordinal());
+			for (MrzFormat f : formats) {
+				generator.setFormatWeight(f, f == format ? 1 : 0);
+			}
+			generator.setInvalidCheckDigitRate(INVALID_CHECK_DIGIT_RATE);
+			for (int i = 0; i < corpusSize; i++) {
+				corpus[index++] = "SCAN " + i + "\n" + generator.generate(i) + "END\n";
+			}
+		}
+		// Interleave the formats so every round exercises them in an unpredictable order
+		final SplittableRandom random = new SplittableRandom(seed);
+		for (int i = corpus.length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final String input = corpus[i];
+			corpus[i] = corpus[j];
+			corpus[j] = input;
+		}
+		return corpus;
+	}
+
+	/**
+	 * Finds, parses, validates and encodes an MRZ.
+	 *
+	 * @return a value depending on all the work
+	 */
+	private static long process(final String input, final MrzWriter writer) {
+		try {
+			final String mrz = MrzFinderUtil.findMrz(input);
+			final MrzRecord record = MrzParser.parse(mrz);
+			long result = record.getFingerprint();
+			if (record.isValidDocumentNumber() && record.isValidDateOfBirth() && record.isValidExpirationDate() && record.isValidComposite()) {
+				result++;
+			}
+			result += MrzParser.computeCheckDigit(mrz.substring(0, mrz.indexOf('\n')));
+			return result + writer.write(record).length();
+		} catch (MrzNotFoundException | MrzParseException ex) {
+			return ex.getMessage().length();
+		}
+	}
+
+	/**
+	 * The outcome of a warm-up.
+	 */
+	public static final class Result {
+
+		private final long iterations;
+		private final int rounds;
+		private final long durationMillis;
+		private final double throughput;
+		private final double bestThroughput;
+		private final boolean plateaued;
+
+		private Result(final long iterations, final int rounds, final long durationMillis, final double throughput, final double bestThroughput,
+				final boolean plateaued) {
+			this.iterations = iterations;
+			this.rounds = rounds;
+			this.durationMillis = durationMillis;
+			this.throughput = throughput;
+			this.bestThroughput = bestThroughput;
+			this.plateaued = plateaued;
+		}
+
+		/**
+		 * @return the number of MRZs processed
+		 */
+		public long getIterations() {
+			return iterations;
+		}
+
+		/**
+		 * @return the number of rounds over the corpus
+		 */
+		public int getRounds() {
+			return rounds;
+		}
+
+		/**
+		 * @return the duration of the warm-up in milliseconds
+		 */
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		/**
+		 * @return the throughput of the last round in MRZs per second
+		 */
+		public double getThroughput() {
+			return throughput;
+		}
+
+		/**
+		 * @return the throughput of the fastest round in MRZs per second
+		 */
+		public double getBestThroughput() {
+			return bestThroughput;
+		}
+
+		/**
+		 * @return true if the throughput reached a plateau, false if the budget was exhausted first
+		 */
+		public boolean isPlateaued() {
+			return plateaued;
+		}
+
+		@Override
+		public String toString() {
+			return "MrzWarmUp.Result{iterations=" + iterations + ", rounds=" + rounds + ", durationMillis=" + durationMillis + ", throughput="
+					+ Math.round(throughput) + "/s, bestThroughput=" + Math.round(bestThroughput) + "/s, plateaued=" + plateaued + "}";
+		}
+
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Synthetic MRZ Generation.
+ */
+package com.innovatrics.mrz.generator;
@@ -0,0 +1,32 @@
+package com.innovatrics.mrz.jfr;
+
+import com.innovatrics.mrz.types.MrzLayout;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Verifying a check digit with MrzParser.checkDigit.
+ */
+@Name("com.innovatrics.mrz.CheckDigit")
+@Label("MRZ Check Digit")
+@Description("Verifying a check digit with MrzParser.checkDigit")
+public final class CheckDigitEvent extends MrzEvent {
+
+	@Label("Field")
+	private String field;
+
+	/**
+	 * Ends the event and commits it if enabled.
+	 *
+	 * @param format the MRZ format
+	 * @param field the name of the field
+	 * @param inputLength the length of the checked characters
+	 * @param valid true if the check digit is valid
+	 */
+	public void complete(final MrzLayout format, final String field, final int inputLength, final boolean valid) {
+		this.field = field;
+		complete(format, inputLength, valid ? MrzEvents.VALID : MrzEvents.INVALID);
+	}
+
+}
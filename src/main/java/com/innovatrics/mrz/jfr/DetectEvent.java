@@ -0,0 +1,14 @@
+package com.innovatrics.mrz.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Detecting the format of a MRZ with MrzFormat.get.
+ */
+@Name("com.innovatrics.mrz.Detect")
+@Label("MRZ Format Detection")
+@Description("Detecting the format of a MRZ with MrzFormat.get")
+public final class DetectEvent extends MrzEvent {
+}
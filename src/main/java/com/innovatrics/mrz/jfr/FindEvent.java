@@ -0,0 +1,14 @@
+package com.innovatrics.mrz.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Locating a MRZ in text with MrzFinderUtil.findMrz.
+ */
+@Name("com.innovatrics.mrz.Find")
+@Label("MRZ Find")
+@Description("Locating a MRZ in text with MrzFinderUtil.findMrz")
+public final class FindEvent extends MrzEvent {
+}
@@ -0,0 +1,46 @@
+package com.innovatrics.mrz.jfr;
+
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.types.MrzLayout;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the MRZ events, disabled by default. Only reference events after checking {@link MrzEvents#AVAILABLE}.
+ */
+@Category("MRZ")
+@Enabled(false)
+@StackTrace(false)
+public abstract class MrzEvent extends Event {
+
+	@Label("Format")
+	String format;
+
+	@Label("Input Length")
+	int inputLength;
+
+	@Label("Outcome")
+	String outcome;
+
+	/**
+	 * Ends the event and commits it if enabled and reporting is not {@link MrzMetricsRegistry#setSuppressed(boolean) suppressed} on the calling
+	 * thread.
+	 *
+	 * @param format the MRZ format or custom layout, may be null
+	 * @param inputLength the length of the input
+	 * @param outcome the outcome, see {@link MrzEvents}
+	 */
+	public void complete(final MrzLayout format, final int inputLength, final String outcome) {
+		end();
+		if (shouldCommit() && !MrzMetricsRegistry.isSuppressed()) {
+			this.format = format == null ? null : format.name();
+			this.inputLength = inputLength;
+			this.outcome = outcome;
+			commit();
+		}
+	}
+
+}
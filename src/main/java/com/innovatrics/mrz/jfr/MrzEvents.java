@@ -0,0 +1,54 @@
+package com.innovatrics.mrz.jfr;
+
+/**
+ * Java Flight Recorder support.
+ * <p>
+ * The MRZ events are disabled by default and cost next to nothing unless a recording enables them, e.g. with
+ * <code>jcmd &lt;pid&gt; JFR.start settings=mrz.jfc</code> where the settings enable the <code>com.innovatrics.mrz.*</code> events. On Java
+ * runtimes without the <code>jdk.jfr</code> module no events are created.
+ * </p>
+ */
+public final class MrzEvents {
+
+	/**
+	 * True if the runtime supports Java Flight Recorder events.
+	 */
+	public static final boolean AVAILABLE = isJfrAvailable();
+
+	/**
+	 * Outcome: the stage completed and all check digits are valid.
+	 */
+	public static final String VALID = "VALID";
+
+	/**
+	 * Outcome: the stage completed but at least one check digit is invalid.
+	 */
+	public static final String INVALID = "INVALID";
+
+	/**
+	 * Outcome: no MRZ was found.
+	 */
+	public static final String NOT_FOUND = "NOT_FOUND";
+
+	/**
+	 * Outcome: the stage failed with an exception.
+	 */
+	public static final String ERROR = "ERROR";
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzEvents() {
+		// Do nothing
+	}
+
+	private static boolean isJfrAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, MrzEvents.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError ex) {
+			return false;
+		}
+	}
+
+}
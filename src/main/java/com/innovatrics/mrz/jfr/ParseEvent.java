@@ -0,0 +1,14 @@
+package com.innovatrics.mrz.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Decoding a record with MrzRecord.fromMrz.
+ */
+@Name("com.innovatrics.mrz.Parse")
+@Label("MRZ Parse")
+@Description("Decoding a record with MrzRecord.fromMrz")
+public final class ParseEvent extends MrzEvent {
+}
@@ -0,0 +1,4 @@
+/**
+ * Java Flight Recorder Events.
+ */
+package com.innovatrics.mrz.jfr;
@@ -0,0 +1,27 @@
+package com.innovatrics.mrz.metrics;
+
+/**
+ * The record fields protected by a check digit, as reported to {@link MrzMetrics}.
+ */
+public enum CheckDigitField {
+	/**
+	 * Document number.
+	 */
+	DOCUMENT_NUMBER,
+	/**
+	 * Date of birth.
+	 */
+	DATE_OF_BIRTH,
+	/**
+	 * Expiration date.
+	 */
+	EXPIRATION_DATE,
+	/**
+	 * Composite check digit over several fields.
+	 */
+	COMPOSITE,
+	/**
+	 * Any other field, e.g. the personal number of a passport.
+	 */
+	OTHER
+}
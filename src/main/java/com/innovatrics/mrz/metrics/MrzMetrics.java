@@ -0,0 +1,53 @@
+package com.innovatrics.mrz.metrics;
+
+import com.innovatrics.mrz.types.MrzLayout;
+
+/**
+ * Receives metrics from the parser and the MRZ finder.
+ * <p>
+ * Install an implementation with {@link MrzMetricsRegistry#setMetrics(MrzMetrics)}, or register it as a {@link java.util.ServiceLoader} provider
+ * of this interface. Implementations are called from every parsing thread and must be thread safe. Unless {@link #isEnabled()} returns true, none
+ * of the other methods are called and no timings are taken.
+ * </p>
+ */
+public interface MrzMetrics {
+
+	/**
+	 * @return true to receive metrics
+	 */
+	boolean isEnabled();
+
+	/**
+	 * A MRZ was parsed.
+	 *
+	 * @param layout the layout of the MRZ, a {@link com.innovatrics.mrz.types.MrzFormat} or a custom layout
+	 * @param nanos the time taken to detect the layout and parse the record
+	 */
+	void parsed(MrzLayout layout, long nanos);
+
+	/**
+	 * A MRZ could not be parsed.
+	 *
+	 * @param layout the detected layout, or null if the layout could not be detected
+	 * @param nanos the time taken until the failure
+	 */
+	void parseFailed(MrzLayout layout, long nanos);
+
+	/**
+	 * A check digit verified by {@link com.innovatrics.mrz.MrzParser#checkDigit(int, int, String, String)} is invalid. Reported by the record
+	 * decoders, whether the record was parsed with {@link com.innovatrics.mrz.MrzParser#parse(String)} or decoded directly with
+	 * {@link com.innovatrics.mrz.MrzRecord#fromMrz(String)}.
+	 *
+	 * @param layout the layout of the record
+	 * @param field the field with the invalid check digit
+	 */
+	void checkDigitFailed(MrzLayout layout, CheckDigitField field);
+
+	/**
+	 * The MRZ finder was called.
+	 *
+	 * @param found true if a MRZ was found, false if not or if the MRZ found has an unknown format
+	 */
+	void finderResult(boolean found);
+
+}
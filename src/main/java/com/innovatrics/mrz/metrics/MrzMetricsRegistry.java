@@ -0,0 +1,69 @@
+package com.innovatrics.mrz.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the {@link MrzMetrics} the library reports to.
+ * <p>
+ * The initial metrics are the first {@link MrzMetrics} provider found by the {@link ServiceLoader}, or a disabled no-op implementation.
+ * Reporting can be suppressed per thread, e.g. while it parses synthetic MRZs, see {@link #setSuppressed(boolean)}.
+ * </p>
+ */
+public final class MrzMetricsRegistry {
+
+	private static volatile MrzMetrics metrics = load();
+
+	/**
+	 * Set on the threads that do not report, only read when metrics or a Java Flight Recorder event are enabled.
+	 */
+	private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzMetricsRegistry() {
+		// Do nothing
+	}
+
+	/**
+	 * @return the current metrics, or disabled metrics if reporting is suppressed on the calling thread, never null
+	 */
+	public static MrzMetrics getMetrics() {
+		final MrzMetrics current = metrics;
+		return current.isEnabled() && isSuppressed() ? NoopMrzMetrics.INSTANCE : current;
+	}
+
+	/**
+	 * @param metrics the metrics to report to, or null to disable metrics
+	 */
+	public static void setMetrics(final MrzMetrics metrics) {
+		MrzMetricsRegistry.metrics = metrics == null ? NoopMrzMetrics.INSTANCE : metrics;
+	}
+
+	/**
+	 * Suppresses or resumes reporting of the calling thread, to the metrics and to Java Flight Recorder.
+	 *
+	 * @param suppressed true to stop reporting the work of the calling thread, false to report it again
+	 */
+	public static void setSuppressed(final boolean suppressed) {
+		if (suppressed) {
+			SUPPRESSED.set(Boolean.TRUE);
+		} else {
+			SUPPRESSED.remove();
+		}
+	}
+
+	/**
+	 * @return true if reporting is suppressed on the calling thread
+	 */
+	public static boolean isSuppressed() {
+		return SUPPRESSED.get() != null;
+	}
+
+	private static MrzMetrics load() {
+		final Iterator<MrzMetrics> providers = ServiceLoader.load(MrzMetrics.class).iterator();
+		return providers.hasNext() ? providers.next() : NoopMrzMetrics.INSTANCE;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.innovatrics.mrz.metrics;
+
+import com.innovatrics.mrz.types.MrzLayout;
+
+/**
+ * The default metrics, disabled.
+ */
+final class NoopMrzMetrics implements MrzMetrics {
+
+	/**
+	 * The instance.
+	 */
+	static final NoopMrzMetrics INSTANCE = new NoopMrzMetrics();
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private NoopMrzMetrics() {
+		// Do nothing
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public void parsed(final MrzLayout layout, final long nanos) {
+		// Do nothing
+	}
+
+	@Override
+	public void parseFailed(final MrzLayout layout, final long nanos) {
+		// Do nothing
+	}
+
+	@Override
+	public void checkDigitFailed(final MrzLayout layout, final CheckDigitField field) {
+		// Do nothing
+	}
+
+	@Override
+	public void finderResult(final boolean found) {
+		// Do nothing
+	}
+
+}
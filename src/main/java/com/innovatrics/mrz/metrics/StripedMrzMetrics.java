@@ -0,0 +1,198 @@
+package com.innovatrics.mrz.metrics;
+
+import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzLayout;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects metrics in lock-free striped counters, cheap to update from many threads.
+ * <p>
+ * Latencies are counted in a histogram per layout with power of two buckets: bucket <code>i</code> counts the parses that took from
+ * <code>2^i</code> up to <code>2^(i+1)</code> nanoseconds. The {@link MrzFormat} constants are counted in arrays, every custom layout in its own
+ * counters created when it is first reported. Metrics of MRZs with an unknown layout are available by passing a null layout.
+ * </p>
+ * <pre>
+ * final StripedMrzMetrics metrics = new StripedMrzMetrics();
+ * MrzMetricsRegistry.setMetrics(metrics);
+ * ...
+ * long passports = metrics.getParseCount(MrzFormat.PASSPORT);
+ * </pre>
+ */
+public class StripedMrzMetrics implements MrzMetrics {
+
+	/**
+	 * The number of latency buckets. The last bucket also counts all longer latencies.
+	 */
+	public static final int BUCKETS = 40;
+
+	private static final int FORMATS = MrzFormat.values().length + 1;
+
+	private final Counters[] formats = new Counters[FORMATS];
+	private final ConcurrentMap<MrzLayout, Counters> layouts = new ConcurrentHashMap<>();
+	private final LongAdder finderHits = new LongAdder();
+	private final LongAdder finderMisses = new LongAdder();
+
+	/**
+	 * Construct metrics with all counters at zero.
+	 */
+	public StripedMrzMetrics() {
+		for (int i = 0; i < FORMATS; i++) {
+			formats[i] = new Counters();
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void parsed(final MrzLayout layout, final long nanos) {
+		final Counters counters = counters(layout);
+		counters.parses.increment();
+		counters.latencies[bucket(nanos)].increment();
+	}
+
+	@Override
+	public void parseFailed(final MrzLayout layout, final long nanos) {
+		final Counters counters = counters(layout);
+		counters.parseFailures.increment();
+		counters.latencies[bucket(nanos)].increment();
+	}
+
+	@Override
+	public void checkDigitFailed(final MrzLayout layout, final CheckDigitField field) {
+		counters(layout).checkDigitFailures[field.ordinal()].increment();
+	}
+
+	@Override
+	public void finderResult(final boolean found) {
+		if (found) {
+			finderHits.increment();
+		} else {
+			finderMisses.increment();
+		}
+	}
+
+	/**
+	 * @param layout the layout, or null for unknown
+	 * @return the number of MRZs parsed
+	 */
+	public long getParseCount(final MrzLayout layout) {
+		return counters(layout).parses.sum();
+	}
+
+	/**
+	 * @param layout the layout, or null for unknown
+	 * @return the number of MRZs that could not be parsed
+	 */
+	public long getParseFailureCount(final MrzLayout layout) {
+		return counters(layout).parseFailures.sum();
+	}
+
+	/**
+	 * @param layout the layout, or null for unknown
+	 * @return the number of parses, successful or not, per latency bucket
+	 */
+	public long[] getLatencyHistogram(final MrzLayout layout) {
+		final LongAdder[] buckets = counters(layout).latencies;
+		final long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = buckets[i].sum();
+		}
+		return histogram;
+	}
+
+	/**
+	 * @param layout the layout
+	 * @param field the field
+	 * @return the number of records with an invalid check digit for the field
+	 */
+	public long getCheckDigitFailureCount(final MrzLayout layout, final CheckDigitField field) {
+		return counters(layout).checkDigitFailures[field.ordinal()].sum();
+	}
+
+	/**
+	 * @return the number of times the finder found a MRZ
+	 */
+	public long getFinderHitCount() {
+		return finderHits.sum();
+	}
+
+	/**
+	 * @return the number of times the finder did not find a MRZ
+	 */
+	public long getFinderMissCount() {
+		return finderMisses.sum();
+	}
+
+	/**
+	 * Resets all counters to zero. Updates made concurrently may be lost.
+	 */
+	public void reset() {
+		for (Counters counters : formats) {
+			counters.reset();
+		}
+		for (Counters counters : layouts.values()) {
+			counters.reset();
+		}
+		finderHits.reset();
+		finderMisses.reset();
+	}
+
+	/**
+	 * @param nanos the latency
+	 * @return the bucket index
+	 */
+	static int bucket(final long nanos) {
+		if (nanos <= 1) {
+			return 0;
+		}
+		return Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+	}
+
+	private Counters counters(final MrzLayout layout) {
+		if (layout == null) {
+			return formats[FORMATS - 1];
+		}
+		if (layout instanceof MrzFormat) {
+			return formats[((MrzFormat) layout).ordinal()];
+		}
+		final Counters counters = layouts.get(layout);
+		return counters == null ? layouts.computeIfAbsent(layout, l -> new Counters()) : counters;
+	}
+
+	private static LongAdder[] counters(final int size) {
+		final LongAdder[] counters = new LongAdder[size];
+		for (int i = 0; i < size; i++) {
+			counters[i] = new LongAdder();
+		}
+		return counters;
+	}
+
+	/**
+	 * The counters of a layout.
+	 */
+	private static final class Counters {
+
+		private final LongAdder parses = new LongAdder();
+		private final LongAdder parseFailures = new LongAdder();
+		private final LongAdder[] latencies = counters(BUCKETS);
+		private final LongAdder[] checkDigitFailures = counters(CheckDigitField.values().length);
+
+		private void reset() {
+			parses.reset();
+			parseFailures.reset();
+			for (LongAdder counter : latencies) {
+				counter.reset();
+			}
+			for (LongAdder counter : checkDigitFailures) {
+				counter.reset();
+			}
+		}
+
+	}
+
+}
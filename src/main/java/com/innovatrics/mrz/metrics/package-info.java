@@ -0,0 +1,4 @@
+/**
+ * Parser Metrics.
+ */
+package com.innovatrics.mrz.metrics;
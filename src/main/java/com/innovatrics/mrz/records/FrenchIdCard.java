@@ -22,6 +22,7 @@ import com.innovatrics.mrz.MrzParseException;
 import com.innovatrics.mrz.MrzParser;
 import com.innovatrics.mrz.MrzRange;
 import com.innovatrics.mrz.MrzRecordOptional;
+import com.innovatrics.mrz.MrzWriter;
 import com.innovatrics.mrz.types.MrzDocumentCode;
 import com.innovatrics.mrz.types.MrzFormat;
 
@@ -49,43 +50,44 @@ public class FrenchIdCard extends MrzRecordOptional {
 	}
 
 	@Override
-	public void fromMrz(final String mrz) throws MrzParseException {
-		super.fromMrz(mrz);
-		final MrzParser parser = new MrzParser(mrz);
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		super.fromMrz(parser);
 		//Special because surname and firstname not on the same line
 		String[] name = new String[]{"", ""};
 		name[0] = parser.parseString(new MrzRange(5, 30, 0));
 		name[1] = parser.parseString(new MrzRange(13, 27, 1));
 		setName(name);
-		setNationality(parser.parseString(new MrzRange(2, 5, 0)));
+		setNationality(parser.parseCountry(new MrzRange(2, 5, 0)));
 		setOptional(parser.parseString(new MrzRange(30, 36, 0)));
 		setDocumentNumber(parser.parseString(new MrzRange(0, 12, 1)));
 		setValidDocumentNumber(parser.checkDigit(12, 1, new MrzRange(0, 12, 1), "document number"));
 		setDateOfBirth(parser.parseDate(new MrzRange(27, 33, 1)));
 		setValidDateOfBirth(parser.checkDigit(33, 1, new MrzRange(27, 33, 1), "date of birth") && getDateOfBirth().isDateValid());
 		setSex(parser.parseSex(34, 1));
-		final String finalChecksum = mrz.replace("\n", "").substring(0, 36 + 35);
+		final String finalChecksum = parser.getMrz().replace("\n", "").substring(0, 36 + 35);
 		setValidComposite(parser.checkDigit(35, 1, finalChecksum, "final checksum"));
 		// TODO expirationDate is missing
 	}
 
 	@Override
 	public String toMrz() {
-		final StringBuilder sb = new StringBuilder("IDFRA");
+		return new MrzWriter().write(this).toString();
+	}
+
+	@Override
+	public void writeMrz(final MrzWriter writer) {
 		// first row
-		sb.append(MrzParser.toMrz(getSurname(), 25));
-		sb.append(MrzParser.toMrz(getOptional(), 6));
-		sb.append('\n');
+		writer.beginComposite().append("IDFRA");
+		writer.text(getSurname(), 25);
+		writer.text(getOptional(), 6);
+		writer.newLine();
 		// second row
-		sb.append(MrzParser.toMrz(getDocumentNumber(), 12));
-		sb.append(MrzParser.computeCheckDigitChar(MrzParser.toMrz(getDocumentNumber(), 12)));
-		sb.append(MrzParser.toMrz(getGivenNames(), 14));
-		sb.append(getDateOfBirth().toMrz());
-		sb.append(MrzParser.computeCheckDigitChar(getDateOfBirth().toMrz()));
-		sb.append(getSex().getMrz());
-		sb.append(MrzParser.computeCheckDigitChar(sb.toString().replace("\n", "")));
-		sb.append('\n');
-		return sb.toString();
+		writer.field(getDocumentNumber(), 12).checkDigit();
+		writer.text(getGivenNames(), 14);
+		writer.field(getDateOfBirth()).checkDigit();
+		writer.append(getSex().getMrz());
+		writer.compositeCheckDigit();
+		writer.newLine();
 	}
 
 }
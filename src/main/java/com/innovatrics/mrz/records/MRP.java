@@ -22,6 +22,7 @@ import com.innovatrics.mrz.MrzParseException;
 import com.innovatrics.mrz.MrzParser;
 import com.innovatrics.mrz.MrzRange;
 import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.MrzWriter;
 import com.innovatrics.mrz.types.MrzFormat;
 
 /**
@@ -45,13 +46,12 @@ public class MRP extends MrzRecord {
 	}
 
 	@Override
-	public void fromMrz(final String mrz) throws MrzParseException {
-		super.fromMrz(mrz);
-		final MrzParser parser = new MrzParser(mrz);
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		super.fromMrz(parser);
 		setName(parser.parseName(new MrzRange(5, 44, 0)));
 		setDocumentNumber(parser.parseString(new MrzRange(0, 9, 1)));
 		setValidDocumentNumber(parser.checkDigit(9, 1, new MrzRange(0, 9, 1), "passport number"));
-		setNationality(parser.parseString(new MrzRange(10, 13, 1)));
+		setNationality(parser.parseCountry(new MrzRange(10, 13, 1)));
 		setDateOfBirth(parser.parseDate(new MrzRange(13, 19, 1)));
 		setValidDateOfBirth(parser.checkDigit(19, 1, new MrzRange(13, 19, 1), "date of birth") && getDateOfBirth().isDateValid());
 		setSex(parser.parseSex(20, 1));
@@ -64,25 +64,26 @@ public class MRP extends MrzRecord {
 
 	@Override
 	public String toMrz() {
+		return new MrzWriter().write(this).toString();
+	}
+
+	@Override
+	public void writeMrz(final MrzWriter writer) {
 		// first line
-		final StringBuilder sb = new StringBuilder();
-		sb.append(getCode1());
-		sb.append(getCode2());
-		sb.append(MrzParser.toMrz(getIssuingCountry(), 3));
-		sb.append(MrzParser.nameToMrz(getSurname(), getGivenNames(), 39));
-		sb.append('\n');
+		writer.append(getCode1());
+		writer.append(getCode2());
+		writer.text(getIssuingCountry(), 3);
+		writer.name(getSurname(), getGivenNames(), 39);
+		writer.newLine();
 		// second line
-		final String docNum = MrzParser.toMrz(getDocumentNumber(), 9) + MrzParser.computeCheckDigitChar(MrzParser.toMrz(getDocumentNumber(), 9));
-		sb.append(docNum);
-		sb.append(MrzParser.toMrz(getNationality(), 3));
-		final String dob = getDateOfBirth().toMrz() + MrzParser.computeCheckDigitChar(getDateOfBirth().toMrz());
-		sb.append(dob);
-		sb.append(getSex().getMrz());
-		final String edpn = getExpirationDate().toMrz() + MrzParser.computeCheckDigitChar(getExpirationDate().toMrz()) + MrzParser.toMrz(getPersonalNumber(), 14) + MrzParser.computeCheckDigitChar(MrzParser.toMrz(getPersonalNumber(), 14));
-		sb.append(edpn);
-		sb.append(MrzParser.computeCheckDigitChar(docNum + dob + edpn));
-		sb.append('\n');
-		return sb.toString();
+		writer.beginComposite().field(getDocumentNumber(), 9).checkDigit().endComposite();
+		writer.text(getNationality(), 3);
+		writer.beginComposite().field(getDateOfBirth()).checkDigit().endComposite();
+		writer.append(getSex().getMrz());
+		writer.beginComposite().field(getExpirationDate()).checkDigit();
+		writer.field(getPersonalNumber(), 14).checkDigit();
+		writer.compositeCheckDigit();
+		writer.newLine();
 	}
 
 	/**
@@ -96,6 +97,8 @@ public class MRP extends MrzRecord {
 	 * @param personalNumber the personal number
 	 */
 	public void setPersonalNumber(final String personalNumber) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.personalNumber = personalNumber;
 	}
 
@@ -110,6 +113,7 @@ public class MRP extends MrzRecord {
 	 * @param validPersonalNumber true if valid personal number
 	 */
 	protected void setValidPersonalNumber(final boolean validPersonalNumber) {
+		checkNotFrozen();
 		this.validPersonalNumber = validPersonalNumber;
 	}
 
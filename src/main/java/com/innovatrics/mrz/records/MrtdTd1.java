@@ -22,6 +22,7 @@ import com.innovatrics.mrz.MrzParseException;
 import com.innovatrics.mrz.MrzParser;
 import com.innovatrics.mrz.MrzRange;
 import com.innovatrics.mrz.MrzRecordOptional;
+import com.innovatrics.mrz.MrzWriter;
 import com.innovatrics.mrz.types.MrzFormat;
 
 /**
@@ -46,9 +47,8 @@ public class MrtdTd1 extends MrzRecordOptional {
 	}
 
 	@Override
-	public void fromMrz(final String mrz) throws MrzParseException {
-		super.fromMrz(mrz);
-		final MrzParser parser = new MrzParser(mrz);
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		super.fromMrz(parser);
 		setDocumentNumber(parser.parseString(new MrzRange(5, 14, 0)));
 		setValidDocumentNumber(parser.checkDigit(14, 0, new MrzRange(5, 14, 0), "document number"));
 		setOptional(parser.parseString(new MrzRange(15, 30, 0)));
@@ -57,7 +57,7 @@ public class MrtdTd1 extends MrzRecordOptional {
 		setSex(parser.parseSex(7, 1));
 		setExpirationDate(parser.parseDate(new MrzRange(8, 14, 1)));
 		setValidExpirationDate(parser.checkDigit(14, 1, new MrzRange(8, 14, 1), "expiration date") && getExpirationDate().isDateValid());
-		setNationality(parser.parseString(new MrzRange(15, 18, 1)));
+		setNationality(parser.parseCountry(new MrzRange(15, 18, 1)));
 		setOptional2(parser.parseString(new MrzRange(18, 29, 1)));
 		setValidComposite(parser.checkDigit(29, 1, parser.rawValue(new MrzRange(5, 30, 0), new MrzRange(0, 7, 1), new MrzRange(8, 15, 1), new MrzRange(18, 29, 1)), "mrz"));
 		setName(parser.parseName(new MrzRange(0, 30, 2)));
@@ -65,28 +65,29 @@ public class MrtdTd1 extends MrzRecordOptional {
 
 	@Override
 	public String toMrz() {
+		return new MrzWriter().write(this).toString();
+	}
+
+	@Override
+	public void writeMrz(final MrzWriter writer) {
 		// first line
-		final StringBuilder sb = new StringBuilder();
-		sb.append(getCode1());
-		sb.append(getCode2());
-		sb.append(MrzParser.toMrz(getIssuingCountry(), 3));
-		final String dno = MrzParser.toMrz(getDocumentNumber(), 9) + MrzParser.computeCheckDigitChar(MrzParser.toMrz(getDocumentNumber(), 9)) + MrzParser.toMrz(getOptional(), 15);
-		sb.append(dno);
-		sb.append('\n');
+		writer.append(getCode1());
+		writer.append(getCode2());
+		writer.text(getIssuingCountry(), 3);
+		writer.beginComposite().field(getDocumentNumber(), 9).checkDigit();
+		writer.text(getOptional(), 15).endComposite();
+		writer.newLine();
 		// second line
-		final String dob = getDateOfBirth().toMrz() + MrzParser.computeCheckDigitChar(getDateOfBirth().toMrz());
-		sb.append(dob);
-		sb.append(getSex().getMrz());
-		final String ed = getExpirationDate().toMrz() + MrzParser.computeCheckDigitChar(getExpirationDate().toMrz());
-		sb.append(ed);
-		sb.append(MrzParser.toMrz(getNationality(), 3));
-		sb.append(MrzParser.toMrz(getOptional2(), 11));
-		sb.append(MrzParser.computeCheckDigitChar(dno + dob + ed + MrzParser.toMrz(getOptional2(), 11)));
-		sb.append('\n');
+		writer.beginComposite().field(getDateOfBirth()).checkDigit().endComposite();
+		writer.append(getSex().getMrz());
+		writer.beginComposite().field(getExpirationDate()).checkDigit().endComposite();
+		writer.text(getNationality(), 3);
+		writer.beginComposite().text(getOptional2(), 11);
+		writer.compositeCheckDigit();
+		writer.newLine();
 		// third line
-		sb.append(MrzParser.nameToMrz(getSurname(), getGivenNames(), 30));
-		sb.append('\n');
-		return sb.toString();
+		writer.name(getSurname(), getGivenNames(), 30);
+		writer.newLine();
 	}
 
 	/**
@@ -104,6 +105,8 @@ public class MrtdTd1 extends MrzRecordOptional {
 	 * @param optional2 the optional2 data
 	 */
 	public void setOptional2(final String optional2) {
+		checkNotFrozen();
+		clearRawMrz();
 		this.optional2 = optional2;
 	}
 
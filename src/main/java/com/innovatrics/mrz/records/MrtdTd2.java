@@ -22,6 +22,7 @@ import com.innovatrics.mrz.MrzParseException;
 import com.innovatrics.mrz.MrzParser;
 import com.innovatrics.mrz.MrzRange;
 import com.innovatrics.mrz.MrzRecordOptional;
+import com.innovatrics.mrz.MrzWriter;
 import com.innovatrics.mrz.types.MrzFormat;
 
 /**
@@ -41,13 +42,12 @@ public class MrtdTd2 extends MrzRecordOptional {
 	}
 
 	@Override
-	public void fromMrz(final String mrz) throws MrzParseException {
-		super.fromMrz(mrz);
-		final MrzParser parser = new MrzParser(mrz);
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		super.fromMrz(parser);
 		setName(parser.parseName(new MrzRange(5, 36, 0)));
 		setDocumentNumber(parser.parseString(new MrzRange(0, 9, 1)));
 		setValidDocumentNumber(parser.checkDigit(9, 1, new MrzRange(0, 9, 1), "document number"));
-		setNationality(parser.parseString(new MrzRange(10, 13, 1)));
+		setNationality(parser.parseCountry(new MrzRange(10, 13, 1)));
 		setDateOfBirth(parser.parseDate(new MrzRange(13, 19, 1)));
 		setValidDateOfBirth(parser.checkDigit(19, 1, new MrzRange(13, 19, 1), "date of birth") && getDateOfBirth().isDateValid());
 		setSex(parser.parseSex(20, 1));
@@ -59,26 +59,26 @@ public class MrtdTd2 extends MrzRecordOptional {
 
 	@Override
 	public String toMrz() {
+		return new MrzWriter().write(this).toString();
+	}
+
+	@Override
+	public void writeMrz(final MrzWriter writer) {
 		// first line
-		final StringBuilder sb = new StringBuilder();
-		sb.append(getCode1());
-		sb.append(getCode2());
-		sb.append(MrzParser.toMrz(getIssuingCountry(), 3));
-		sb.append(MrzParser.nameToMrz(getSurname(), getGivenNames(), 31));
-		sb.append('\n');
+		writer.append(getCode1());
+		writer.append(getCode2());
+		writer.text(getIssuingCountry(), 3);
+		writer.name(getSurname(), getGivenNames(), 31);
+		writer.newLine();
 		// second line
-		final String dn = MrzParser.toMrz(getDocumentNumber(), 9) + MrzParser.computeCheckDigitChar(MrzParser.toMrz(getDocumentNumber(), 9));
-		sb.append(dn);
-		sb.append(MrzParser.toMrz(getNationality(), 3));
-		final String dob = getDateOfBirth().toMrz() + MrzParser.computeCheckDigitChar(getDateOfBirth().toMrz());
-		sb.append(dob);
-		sb.append(getSex().getMrz());
-		final String ed = getExpirationDate().toMrz() + MrzParser.computeCheckDigitChar(getExpirationDate().toMrz());
-		sb.append(ed);
-		sb.append(MrzParser.toMrz(getOptional(), 7));
-		sb.append(MrzParser.computeCheckDigitChar(dn + dob + ed + MrzParser.toMrz(getOptional(), 7)));
-		sb.append('\n');
-		return sb.toString();
+		writer.beginComposite().field(getDocumentNumber(), 9).checkDigit().endComposite();
+		writer.text(getNationality(), 3);
+		writer.beginComposite().field(getDateOfBirth()).checkDigit().endComposite();
+		writer.append(getSex().getMrz());
+		writer.beginComposite().field(getExpirationDate()).checkDigit();
+		writer.text(getOptional(), 7);
+		writer.compositeCheckDigit();
+		writer.newLine();
 	}
 
 }
@@ -22,6 +22,7 @@ import com.innovatrics.mrz.MrzParseException;
 import com.innovatrics.mrz.MrzParser;
 import com.innovatrics.mrz.MrzRange;
 import com.innovatrics.mrz.MrzRecordOptional;
+import com.innovatrics.mrz.MrzWriter;
 import com.innovatrics.mrz.types.MrzDocumentCode;
 import com.innovatrics.mrz.types.MrzFormat;
 
@@ -45,13 +46,12 @@ public class MrvA extends MrzRecordOptional {
 	}
 
 	@Override
-	public void fromMrz(final String mrz) throws MrzParseException {
-		super.fromMrz(mrz);
-		final MrzParser parser = new MrzParser(mrz);
+	protected void fromMrz(final MrzParser parser) throws MrzParseException {
+		super.fromMrz(parser);
 		setName(parser.parseName(new MrzRange(5, 44, 0)));
 		setDocumentNumber(parser.parseString(new MrzRange(0, 9, 1)));
 		setValidDocumentNumber(parser.checkDigit(9, 1, new MrzRange(0, 9, 1), "passport number"));
-		setNationality(parser.parseString(new MrzRange(10, 13, 1)));
+		setNationality(parser.parseCountry(new MrzRange(10, 13, 1)));
 		setDateOfBirth(parser.parseDate(new MrzRange(13, 19, 1)));
 		setValidDateOfBirth(parser.checkDigit(19, 1, new MrzRange(13, 19, 1), "date of birth") && getDateOfBirth().isDateValid());
 		setSex(parser.parseSex(20, 1));
@@ -63,23 +63,24 @@ public class MrvA extends MrzRecordOptional {
 
 	@Override
 	public String toMrz() {
+		return new MrzWriter().write(this).toString();
+	}
+
+	@Override
+	public void writeMrz(final MrzWriter writer) {
 		// first line
-		final StringBuilder sb = new StringBuilder("V<");
-		sb.append(MrzParser.toMrz(getIssuingCountry(), 3));
-		sb.append(MrzParser.nameToMrz(getSurname(), getGivenNames(), 39));
-		sb.append('\n');
+		writer.append("V<");
+		writer.text(getIssuingCountry(), 3);
+		writer.name(getSurname(), getGivenNames(), 39);
+		writer.newLine();
 		// second line
-		sb.append(MrzParser.toMrz(getDocumentNumber(), 9));
-		sb.append(MrzParser.computeCheckDigitChar(MrzParser.toMrz(getDocumentNumber(), 9)));
-		sb.append(MrzParser.toMrz(getNationality(), 3));
-		sb.append(getDateOfBirth().toMrz());
-		sb.append(MrzParser.computeCheckDigitChar(getDateOfBirth().toMrz()));
-		sb.append(getSex().getMrz());
-		sb.append(getExpirationDate().toMrz());
-		sb.append(MrzParser.computeCheckDigitChar(getExpirationDate().toMrz()));
-		sb.append(MrzParser.toMrz(getOptional(), 16));
-		sb.append('\n');
-		return sb.toString();
+		writer.field(getDocumentNumber(), 9).checkDigit();
+		writer.text(getNationality(), 3);
+		writer.field(getDateOfBirth()).checkDigit();
+		writer.append(getSex().getMrz());
+		writer.field(getExpirationDate()).checkDigit();
+		writer.text(getOptional(), 16);
+		writer.newLine();
 	}
 
 }
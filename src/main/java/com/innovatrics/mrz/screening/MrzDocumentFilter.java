@@ -0,0 +1,250 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter of document numbers, e.g. of a lost and stolen document list, answering whether a document is possibly on the list.
+ * <p>
+ * Documents are keyed on issuing country, document number and document code (the first character of the MRZ). A negative answer is always
+ * right, a positive one is wrong with a probability depending on the bits per entry (about 1% for the default {@value #DEFAULT_BITS_PER_ENTRY}),
+ * so a negative answer lets the caller skip the lookup in the full list. The filter is split into blocks of 512 bits and all the bits of a key
+ * are in one block, so a query reads a single cache line.
+ * </p>
+ * <p>
+ * Lists are built from a text file, see {@link #build(Path, int)}, and can be saved to a file that is memory mapped when loaded, so even filters
+ * of hundreds of megabytes load instantly. The filter is immutable and queries are lock-free.
+ * </p>
+ * <pre>
+ * final MrzDocumentFilter filter = MrzDocumentFilter.map(Paths.get("stolen.bloom"));
+ * if (filter.mightContain(record)) {
+ *   ...
+ * }
+ * </pre>
+ */
+public class MrzDocumentFilter {
+
+	/**
+	 * The default number of bits per entry.
+	 */
+	public static final int DEFAULT_BITS_PER_ENTRY = 10;
+
+	private static final long MAGIC = 0x4d525a424c4f4f4dL;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 32;
+	private static final int BLOCK_BYTES = 64;
+	private static final int BLOCK_BITS = BLOCK_BYTES * 8;
+	private static final int MAX_HASHES = 7;
+
+	/**
+	 * The blocks, starting at position 0.
+	 */
+	private final ByteBuffer blocks;
+	private final long blockCount;
+	private final int hashes;
+	private final long entryCount;
+
+	private MrzDocumentFilter(final ByteBuffer blocks, final int hashes, final long entryCount) {
+		this.blocks = blocks;
+		this.blockCount = blocks.capacity() / BLOCK_BYTES;
+		this.hashes = hashes;
+		this.entryCount = entryCount;
+	}
+
+	/**
+	 * Builds a filter from a text file with one document per line, as <code>issuingCountry,documentNumber,documentCode</code>, e.g.
+	 * <code>CZE,99003853,P</code>. Document numbers are compared as in the MRZ, with fillers or spaces for the blanks inside the number and without
+	 * the trailing fillers. Blank lines are skipped.
+	 *
+	 * @param source the file listing the documents, in UTF-8
+	 * @param bitsPerEntry the number of bits per document, more bits mean fewer false positives
+	 * @return the filter
+	 * @throws IOException could not read the file, or a line is not valid
+	 */
+	public static MrzDocumentFilter build(final Path source, final int bitsPerEntry) throws IOException {
+		if (bitsPerEntry <= 0 || bitsPerEntry > 64) {
+			throw new IllegalArgumentException("Parameter bitsPerEntry: invalid value " + bitsPerEntry + ": not in 1..64");
+		}
+		long lines = 0;
+		try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.trim().isEmpty()) {
+					lines++;
+				}
+			}
+		}
+		final long blockCount = Math.max(1, (lines * bitsPerEntry + BLOCK_BITS - 1) / BLOCK_BITS);
+		if (blockCount > (Integer.MAX_VALUE - HEADER_BYTES) / BLOCK_BYTES) {
+			throw new IllegalArgumentException("Parameter source: invalid size " + lines + " entries: filter larger than 2GB");
+		}
+		final int hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerEntry * Math.log(2))));
+		final ByteBuffer blocks = ByteBuffer.allocate((int) blockCount * BLOCK_BYTES);
+		final MrzDocumentFilter filter = new MrzDocumentFilter(blocks, hashes, lines);
+		long number = 0;
+		try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				number++;
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				final String[] fields = line.split(",", -1);
+				if (fields.length != 3 || fields[2].trim().isEmpty()) {
+					throw new IOException("Invalid line " + number + " of " + source + ": " + line);
+				}
+				filter.add(hash(fields[0].trim(), fields[1].trim(), fields[2].trim().charAt(0)));
+			}
+		}
+		return filter;
+	}
+
+	/**
+	 * Loads a filter saved with {@link #write(Path)} by memory mapping the file.
+	 *
+	 * @param file the file
+	 * @return the filter
+	 * @throws IOException could not read the file, or the file is not a filter
+	 */
+	public static MrzDocumentFilter map(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Not a document filter: " + file);
+			}
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+				throw new IOException("Not a document filter: " + file);
+			}
+			final int hashes = buffer.getInt(12);
+			final long blockCount = buffer.getLong(16);
+			final long entryCount = buffer.getLong(24);
+			if (hashes <= 0 || hashes > MAX_HASHES || blockCount <= 0 || HEADER_BYTES + blockCount * BLOCK_BYTES != buffer.capacity()) {
+				throw new IOException("Corrupted document filter: " + file);
+			}
+			buffer.position(HEADER_BYTES);
+			return new MrzDocumentFilter(buffer.slice(), hashes, entryCount);
+		}
+	}
+
+	/**
+	 * Saves the filter.
+	 *
+	 * @param file the file to create or overwrite
+	 * @throws IOException could not write the file
+	 */
+	public void write(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putLong(MAGIC).putInt(VERSION).putInt(hashes).putLong(blockCount).putLong(entryCount).flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+			final ByteBuffer data = blocks.duplicate();
+			data.clear();
+			while (data.hasRemaining()) {
+				channel.write(data);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of documents the filter was built from
+	 */
+	public long getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * @return the size of the filter in bytes, excluding the header of the file
+	 */
+	public long getSizeInBytes() {
+		return blocks.capacity();
+	}
+
+	/**
+	 * @param record the parsed record
+	 * @return false if the document is not in the list, true if it may be
+	 */
+	public boolean mightContain(final MrzRecord record) {
+		return mightContain(record.getIssuingCountry(), record.getDocumentNumber(), record.getCode1());
+	}
+
+	/**
+	 * @param issuingCountry the issuing country
+	 * @param documentNumber the document number, as parsed or as in the MRZ
+	 * @param documentCode the first character of the MRZ
+	 * @return false if the document is not in the list, true if it may be
+	 */
+	public boolean mightContain(final String issuingCountry, final String documentNumber, final char documentCode) {
+		final long hash = hash(issuingCountry, documentNumber, documentCode);
+		final int block = block(hash);
+		long bits = hash * 0x9e3779b97f4a7c15L;
+		for (int i = 0; i < hashes; i++) {
+			final int bit = (int) (bits >>> 55);
+			if ((blocks.getLong(block + (bit >>> 6) * 8) & (1L << bit)) == 0) {
+				return false;
+			}
+			bits <<= 9;
+		}
+		return true;
+	}
+
+	private void add(final long hash) {
+		final int block = block(hash);
+		long bits = hash * 0x9e3779b97f4a7c15L;
+		for (int i = 0; i < hashes; i++) {
+			final int bit = (int) (bits >>> 55);
+			final int index = block + (bit >>> 6) * 8;
+			blocks.putLong(index, blocks.getLong(index) | (1L << bit));
+			bits <<= 9;
+		}
+	}
+
+	/**
+	 * @return the offset of the block of a hash
+	 */
+	private int block(final long hash) {
+		return (int) (((hash >>> 32) * blockCount) >>> 32) * BLOCK_BYTES;
+	}
+
+	/**
+	 * FNV-1a over the fields, with the document number normalized to MRZ characters, followed by a final mix.
+	 */
+	private static long hash(final String issuingCountry, final String documentNumber, final char documentCode) {
+		long hash = 0xcbf29ce484222325L;
+		if (issuingCountry != null) {
+			for (int i = 0; i < issuingCountry.length(); i++) {
+				hash = (hash ^ issuingCountry.charAt(i)) * 0x100000001b3L;
+			}
+		}
+		hash = (hash ^ ',') * 0x100000001b3L;
+		if (documentNumber != null) {
+			int length = documentNumber.length();
+			while (length > 0 && isBlank(documentNumber.charAt(length - 1))) {
+				length--;
+			}
+			for (int i = 0; i < length; i++) {
+				final char c = documentNumber.charAt(i);
+				hash = (hash ^ (isBlank(c) ? MrzParser.FILLER : c)) * 0x100000001b3L;
+			}
+		}
+		hash = (hash ^ ',') * 0x100000001b3L;
+		hash = (hash ^ documentCode) * 0x100000001b3L;
+		hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+		hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	private static boolean isBlank(final char c) {
+		return c == MrzParser.FILLER || c == ' ';
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzFingerprint;
+import com.innovatrics.mrz.MrzRecord;
+import java.util.Arrays;
+
+/**
+ * Detects repeated reads of the same document within a sliding window of recent records.
+ * <p>
+ * Records are compared by their {@link MrzFingerprint fingerprint}, so two reads are duplicates when their document code, issuing country,
+ * document number, date of birth and expiration date are the same. The window is bounded by the number of records and optionally by time: a
+ * read is a duplicate if the same document was seen within the last <code>maxRecords</code> records and, if a time window is set, within the
+ * last <code>windowMillis</code> milliseconds. Every read, duplicate or not, restarts the window of its document.
+ * </p>
+ * <p>
+ * The fingerprints are kept in an open addressing table of primitive arrays sized for <code>maxRecords</code>, so memory is bounded and checks
+ * take constant time. Expired entries are reused in place and dropped when the table is rebuilt. Safe for concurrent use.
+ * </p>
+ * <pre>
+ * final MrzDuplicateDetector detector = new MrzDuplicateDetector(10000, 30000);
+ * if (!detector.isDuplicate(record)) {
+ *   ...
+ * }
+ * </pre>
+ */
+public class MrzDuplicateDetector {
+
+	private final int maxRecords;
+	private final long windowMillis;
+	private final int mask;
+
+	private final long[] fingerprints;
+	/**
+	 * The sequence number of the last read of each fingerprint, 0 for empty slots.
+	 */
+	private final long[] sequences;
+	private final long[] times;
+
+	/**
+	 * The live entries copied out while rebuilding the table.
+	 */
+	private final long[] liveFingerprints;
+	private final long[] liveSequences;
+	private final long[] liveTimes;
+
+	private long sequence;
+	private int used;
+	private long duplicates;
+
+	/**
+	 * Construct a detector with a window bounded by the number of records only.
+	 *
+	 * @param maxRecords the number of recent records to compare with
+	 */
+	public MrzDuplicateDetector(final int maxRecords) {
+		this(maxRecords, 0);
+	}
+
+	/**
+	 * @param maxRecords the number of recent records to compare with
+	 * @param windowMillis the duration of the window in milliseconds, 0 to only bound it by the number of records
+	 */
+	public MrzDuplicateDetector(final int maxRecords, final long windowMillis) {
+		if (maxRecords <= 0 || maxRecords > 1 << 29) {
+			throw new IllegalArgumentException("Parameter maxRecords: invalid value " + maxRecords + ": not in 1.." + (1 << 29));
+		}
+		if (windowMillis < 0) {
+			throw new IllegalArgumentException("Parameter windowMillis: invalid value " + windowMillis + ": negative");
+		}
+		this.maxRecords = maxRecords;
+		this.windowMillis = windowMillis;
+		final int capacity = Integer.highestOneBit(maxRecords * 2 - 1) << 1;
+		mask = capacity - 1;
+		fingerprints = new long[capacity];
+		sequences = new long[capacity];
+		times = new long[capacity];
+		liveFingerprints = new long[maxRecords];
+		liveSequences = new long[maxRecords];
+		liveTimes = new long[maxRecords];
+	}
+
+	/**
+	 * Checks a record read now and adds it to the window.
+	 *
+	 * @param record the record
+	 * @return true if the same document was read within the window
+	 */
+	public boolean isDuplicate(final MrzRecord record) {
+		return isDuplicate(record.getFingerprint(), System.currentTimeMillis());
+	}
+
+	/**
+	 * Checks a fingerprint and adds it to the window.
+	 *
+	 * @param fingerprint the fingerprint of the record, see {@link MrzRecord#getFingerprint()}
+	 * @param timeMillis the time of the read in milliseconds, not decreasing between calls
+	 * @return true if the same fingerprint was read within the window
+	 */
+	public synchronized boolean isDuplicate(final long fingerprint, final long timeMillis) {
+		sequence++;
+		int free = -1;
+		int slot = spread(fingerprint) & mask;
+		while (sequences[slot] != 0) {
+			final boolean live = isLive(slot, timeMillis);
+			if (fingerprints[slot] == fingerprint) {
+				sequences[slot] = sequence;
+				times[slot] = timeMillis;
+				if (live) {
+					duplicates++;
+				}
+				return live;
+			}
+			if (!live && free < 0) {
+				free = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (free < 0) {
+			free = slot;
+			used++;
+		}
+		fingerprints[free] = fingerprint;
+		sequences[free] = sequence;
+		times[free] = timeMillis;
+		if (used > mask - (mask >>> 2)) {
+			rebuild(timeMillis);
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of duplicates detected
+	 */
+	public synchronized long getDuplicateCount() {
+		return duplicates;
+	}
+
+	/**
+	 * @return the number of records in the window, including records that expire by time but were not removed yet
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (int slot = 0; slot <= mask; slot++) {
+			if (sequences[slot] != 0 && sequence - sequences[slot] < maxRecords) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all records from the window.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(sequences, 0);
+		used = 0;
+	}
+
+	private boolean isLive(final int slot, final long timeMillis) {
+		return sequence - sequences[slot] <= maxRecords && (windowMillis == 0 || timeMillis - times[slot] < windowMillis);
+	}
+
+	/**
+	 * Reinserts the live entries, dropping the expired ones that lengthen the probe sequences.
+	 */
+	private void rebuild(final long timeMillis) {
+		int live = 0;
+		for (int slot = 0; slot <= mask; slot++) {
+			// The current record is counted as the newest of the window
+			if (sequences[slot] != 0 && sequence - sequences[slot] < maxRecords && (windowMillis == 0 || timeMillis - times[slot] < windowMillis)) {
+				liveFingerprints[live] = fingerprints[slot];
+				liveSequences[live] = sequences[slot];
+				liveTimes[live] = times[slot];
+				live++;
+			}
+			sequences[slot] = 0;
+		}
+		for (int i = 0; i < live; i++) {
+			int slot = spread(liveFingerprints[i]) & mask;
+			while (sequences[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			fingerprints[slot] = liveFingerprints[i];
+			sequences[slot] = liveSequences[i];
+			times[slot] = liveTimes[i];
+		}
+		used = live;
+	}
+
+	private static int spread(final long fingerprint) {
+		return (int) (fingerprint ^ (fingerprint >>> 32));
+	}
+
+}
@@ -0,0 +1,334 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzCountryCode;
+import com.innovatrics.mrz.types.MrzDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Screens MRZ records against a watchlist, tolerating spelling and transliteration differences in names.
+ * <p>
+ * Names of both the watchlist entries and the screened records are normalized with {@link MrzParser#toMrz(String, int)} into
+ * <code>SURNAME&lt;&lt;GIVEN&lt;NAMES</code>, so an entry written in any script compares with the name as it appears in the MRZ. Entries are
+ * indexed by the trigrams of their normalized name. An entry reaching the threshold must share a minimal number of trigrams with the record, so
+ * screening counts the hits of the entries only in the posting lists of the rarest trigrams of the record, skipping the common ones, and
+ * compares the trigrams of the entries with enough hits. It keeps the entries whose Dice similarity reaches the threshold and whose date of
+ * birth and nationality do not contradict the record. Parts of a date of birth set to -1 and missing nationalities match anything.
+ * </p>
+ * <p>
+ * The watchlist is immutable, build a new instance to update it. Screening is thread safe.
+ * </p>
+ * <pre>
+ * final MrzWatchlist watchlist = new MrzWatchlist(entries);
+ * for (MrzWatchlist.Match match : watchlist.screen(record)) {
+ *   ...
+ * }
+ * </pre>
+ */
+public class MrzWatchlist {
+
+	/**
+	 * The default minimal similarity of names.
+	 */
+	public static final double DEFAULT_THRESHOLD = 0.7;
+
+	private static final int RADIX = 37;
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * The hit counts by entry id, shared by all the watchlists screened by a thread and grown to the largest of them, so rebuilt watchlists
+	 * leave nothing behind. All zero between screenings.
+	 */
+	private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> EMPTY);
+
+	private final MrzWatchlistEntry[] entries;
+	private final int[][] trigrams;
+	private final int[] packedDatesOfBirth;
+	private final String[] nationalities;
+
+	/**
+	 * The ids of the entries containing each trigram.
+	 */
+	private final int[][] postings = new int[RADIX * RADIX * RADIX][];
+
+	private volatile double threshold = DEFAULT_THRESHOLD;
+
+	/**
+	 * @param entries the entries of the watchlist
+	 */
+	public MrzWatchlist(final Collection<MrzWatchlistEntry> entries) {
+		this.entries = entries.toArray(new MrzWatchlistEntry[0]);
+		final int size = this.entries.length;
+		trigrams = new int[size][];
+		packedDatesOfBirth = new int[size];
+		nationalities = new String[size];
+		final int[] lengths = new int[postings.length];
+		for (int i = 0; i < size; i++) {
+			final MrzWatchlistEntry entry = this.entries[i];
+			trigrams[i] = trigrams(normalize(entry.getSurname(), entry.getGivenNames()));
+			packedDatesOfBirth[i] = entry.getDateOfBirth() == null ? MrzDate.pack(-1, -1, -1) : entry.getDateOfBirth().getPacked();
+			nationalities[i] = entry.getNationality() == null ? null : MrzCountryCode.canonical(MrzParser.toMrz(entry.getNationality(), -1));
+			for (int trigram : trigrams[i]) {
+				lengths[trigram]++;
+			}
+		}
+		for (int trigram = 0; trigram < postings.length; trigram++) {
+			postings[trigram] = lengths[trigram] == 0 ? EMPTY : new int[lengths[trigram]];
+			lengths[trigram] = 0;
+		}
+		for (int i = 0; i < size; i++) {
+			for (int trigram : trigrams[i]) {
+				postings[trigram][lengths[trigram]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * @return the minimal similarity of names
+	 */
+	public double getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param threshold the minimal similarity of names, from 0 exclusive (any shared trigram) to 1 (same trigrams)
+	 */
+	public void setThreshold(final double threshold) {
+		if (!(threshold > 0 && threshold <= 1)) {
+			throw new IllegalArgumentException("Parameter threshold: invalid value " + threshold + ": not in (0, 1]");
+		}
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Screens a parsed record.
+	 *
+	 * @param record the record
+	 * @return the matching entries, the most similar first
+	 */
+	public List<Match> screen(final MrzRecord record) {
+		return screen(record.getSurname(), record.getGivenNames(), record.getDateOfBirth(), record.getNationality());
+	}
+
+	/**
+	 * Screens a person.
+	 *
+	 * @param surname the surname
+	 * @param givenNames the given names, may be null
+	 * @param dateOfBirth the date of birth, null if unknown
+	 * @param nationality the nationality, null if unknown
+	 * @return the matching entries, the most similar first
+	 */
+	public List<Match> screen(final String surname, final String givenNames, final MrzDate dateOfBirth, final String nationality) {
+		final int[] trigrams = trigrams(normalize(surname, givenNames));
+		final List<Match> matches = new ArrayList<>();
+		if (trigrams.length == 0) {
+			return matches;
+		}
+		final int packedDateOfBirth = dateOfBirth == null ? MrzDate.pack(-1, -1, -1) : dateOfBirth.getPacked();
+		final String country = nationality == null || nationality.isEmpty() ? null : MrzCountryCode.canonical(nationality);
+		final double minimum = threshold;
+		// An entry reaching the threshold shares at least this many trigrams with the record, so at least the remainder of them are among the
+		// rarest trigrams when the most common ones are not looked up
+		final int required = Math.max(1, (int) Math.ceil(minimum * trigrams.length / (2 - minimum) - 1e-9));
+		if (required > trigrams.length) {
+			return matches;
+		}
+		final int[] rarest = rarest(trigrams, Math.min(trigrams.length, trigrams.length - required + 2));
+		final int minimumHits = required - (trigrams.length - rarest.length);
+		final int[] counts = counts();
+		for (int trigram : rarest) {
+			for (int entry : postings[trigram]) {
+				counts[entry]++;
+			}
+		}
+		for (int trigram : rarest) {
+			for (int entry : postings[trigram]) {
+				final int hits = counts[entry];
+				if (hits == 0) {
+					continue;
+				}
+				counts[entry] = 0;
+				if (hits < minimumHits) {
+					continue;
+				}
+				final int[] candidate = this.trigrams[entry];
+				final double score = 2.0 * intersect(trigrams, candidate) / (trigrams.length + candidate.length);
+				if (score >= minimum && matchesDate(packedDatesOfBirth[entry], packedDateOfBirth) && matches(nationalities[entry], country)) {
+					matches.add(new Match(entries[entry], score));
+				}
+			}
+		}
+		matches.sort((m1, m2) -> Double.compare(m2.score, m1.score));
+		return matches;
+	}
+
+	/**
+	 * @return the hit counts of the current thread, with room for the entries of this watchlist
+	 */
+	private int[] counts() {
+		int[] counts = COUNTS.get();
+		if (counts.length < entries.length) {
+			counts = new int[entries.length];
+			COUNTS.set(counts);
+		}
+		return counts;
+	}
+
+	/**
+	 * Normalizes a name as written in the MRZ.
+	 *
+	 * @param surname the surname
+	 * @param givenNames the given names, may be null
+	 * @return the name as <code>SURNAME&lt;&lt;GIVEN&lt;NAMES</code> without trailing fillers
+	 */
+	public static String normalize(final String surname, final String givenNames) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(MrzParser.toMrz(surname, -1));
+		if (givenNames != null && !givenNames.trim().isEmpty()) {
+			sb.append("<<").append(MrzParser.toMrz(givenNames.trim(), -1));
+		}
+		int length = sb.length();
+		while (length > 0 && sb.charAt(length - 1) == MrzParser.FILLER) {
+			length--;
+		}
+		int start = 0;
+		while (start < length && sb.charAt(start) == MrzParser.FILLER) {
+			start++;
+		}
+		return sb.substring(start, length);
+	}
+
+	/**
+	 * @return the given number of trigrams with the shortest postings
+	 */
+	private int[] rarest(final int[] trigrams, final int count) {
+		final long[] byLength = new long[trigrams.length];
+		for (int i = 0; i < trigrams.length; i++) {
+			byLength[i] = (long) postings[trigrams[i]].length << 32 | trigrams[i];
+		}
+		Arrays.sort(byLength);
+		final int[] rarest = new int[count];
+		for (int i = 0; i < count; i++) {
+			rarest[i] = (int) byLength[i];
+		}
+		return rarest;
+	}
+
+	/**
+	 * @return the number of trigrams in both sorted arrays
+	 */
+	private static int intersect(final int[] trigrams1, final int[] trigrams2) {
+		int common = 0;
+		int i = 0;
+		int j = 0;
+		while (i < trigrams1.length && j < trigrams2.length) {
+			if (trigrams1[i] < trigrams2[j]) {
+				i++;
+			} else if (trigrams1[i] > trigrams2[j]) {
+				j++;
+			} else {
+				common++;
+				i++;
+				j++;
+			}
+		}
+		return common;
+	}
+
+	private static boolean matchesDate(final int packed1, final int packed2) {
+		return matches(MrzDate.getYear(packed1), MrzDate.getYear(packed2)) && matches(MrzDate.getMonth(packed1), MrzDate.getMonth(packed2))
+				&& matches(MrzDate.getDay(packed1), MrzDate.getDay(packed2));
+	}
+
+	private static boolean matches(final int field1, final int field2) {
+		return field1 < 0 || field2 < 0 || field1 == field2;
+	}
+
+	private static boolean matches(final String nationality1, final String nationality2) {
+		return nationality1 == null || nationality2 == null || nationality1.equals(nationality2);
+	}
+
+	/**
+	 * @return the distinct trigrams of the name padded with a filler on both sides, sorted
+	 */
+	private static int[] trigrams(final String name) {
+		if (name.isEmpty()) {
+			return EMPTY;
+		}
+		final int[] trigrams = new int[name.length()];
+		int previous = 0;
+		int current = digit(name.charAt(0));
+		for (int i = 0; i < trigrams.length; i++) {
+			final int next = i + 1 < name.length() ? digit(name.charAt(i + 1)) : 0;
+			trigrams[i] = (previous * RADIX + current) * RADIX + next;
+			previous = current;
+			current = next;
+		}
+		Arrays.sort(trigrams);
+		int distinct = 0;
+		for (int i = 0; i < trigrams.length; i++) {
+			if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+				trigrams[distinct++] = trigrams[i];
+			}
+		}
+		return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+	}
+
+	private static int digit(final char c) {
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 1;
+		}
+		if (c >= '0' && c <= '9') {
+			return c - '0' + 27;
+		}
+		return 0;
+	}
+
+	/**
+	 * A watchlist entry matching a screened record.
+	 */
+	public static final class Match {
+
+		private final MrzWatchlistEntry entry;
+		private final double score;
+
+		private Match(final MrzWatchlistEntry entry, final double score) {
+			this.entry = entry;
+			this.score = score;
+		}
+
+		/**
+		 * @return the matching entry
+		 */
+		public MrzWatchlistEntry getEntry() {
+			return entry;
+		}
+
+		/**
+		 * @return the similarity of the names, from 0 to 1
+		 */
+		public double getScore() {
+			return score;
+		}
+
+		@Override
+		public String toString() {
+			return entry + " (" + score + ")";
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.types.MrzDate;
+
+/**
+ * A person on a watchlist, see {@link MrzWatchlist}.
+ */
+public class MrzWatchlistEntry {
+
+	private final String id;
+	private final String surname;
+	private final String givenNames;
+	private final MrzDate dateOfBirth;
+	private final String nationality;
+
+	/**
+	 * @param id the identifier of the entry in the watchlist
+	 * @param surname the surname, in any script
+	 * @param givenNames the given names, in any script, may be null
+	 * @param dateOfBirth the date of birth with unknown parts set to -1, null if unknown
+	 * @param nationality the nationality country code, null if unknown
+	 */
+	public MrzWatchlistEntry(final String id, final String surname, final String givenNames, final MrzDate dateOfBirth, final String nationality) {
+		if (surname == null) {
+			throw new IllegalArgumentException("Parameter surname: invalid value null");
+		}
+		this.id = id;
+		this.surname = surname;
+		this.givenNames = givenNames;
+		this.dateOfBirth = dateOfBirth;
+		this.nationality = nationality;
+	}
+
+	/**
+	 * @return the identifier of the entry in the watchlist
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the surname
+	 */
+	public String getSurname() {
+		return surname;
+	}
+
+	/**
+	 * @return the given names, may be null
+	 */
+	public String getGivenNames() {
+		return givenNames;
+	}
+
+	/**
+	 * @return the date of birth, null if unknown
+	 */
+	public MrzDate getDateOfBirth() {
+		return dateOfBirth;
+	}
+
+	/**
+	 * @return the nationality, null if unknown
+	 */
+	public String getNationality() {
+		return nationality;
+	}
+
+	@Override
+	public String toString() {
+		return id + ": " + surname + ", " + givenNames + " " + dateOfBirth + " " + nationality;
+	}
+
+}
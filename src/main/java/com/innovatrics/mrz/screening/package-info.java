@@ -0,0 +1,4 @@
+/**
+ * Watchlist Screening.
+ */
+package com.innovatrics.mrz.screening;
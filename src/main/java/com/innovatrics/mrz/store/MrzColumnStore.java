@@ -0,0 +1,500 @@
+package com.innovatrics.mrz.store;
+
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzCountryCode;
+import com.innovatrics.mrz.types.MrzDate;
+import com.innovatrics.mrz.types.MrzFormat;
+import com.innovatrics.mrz.types.MrzSex;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Off-heap store of the parsed fields of MRZ records, laid out column by column in direct buffers.
+ * <p>
+ * Rows are appended in chunks of {@value #DEFAULT_CHUNK_ROWS} rows, each chunk a single direct buffer holding one column after another: format,
+ * check digit flags, document code characters and sex as bytes, issuing country and nationality as {@link MrzCountryCode#toId(String) country
+ * ids}, the dates {@link MrzDate#getPacked() packed} into ints, the {@link MrzRecord#getFingerprint() fingerprint} and the document number as
+ * fixed width US-ASCII. Names and optional data are not
+ * stored. Rows are addressed by their id, the index in append order. The accessors and scans read the columns in place and, apart from
+ * {@link #getDocumentNumber(int)}, do not allocate.
+ * </p>
+ * <p>
+ * Reads may run concurrently, appends must not run concurrently with any other call.
+ * </p>
+ * <pre>
+ * final MrzColumnStore store = new MrzColumnStore();
+ * for (MrzRecord record : records) {
+ *   store.append(record);
+ * }
+ * final int expiring = store.scanExpirationDate(MrzDate.pack(24, 6, 15), MrzDate.pack(24, 12, 31), row -&gt; ...);
+ * </pre>
+ */
+public class MrzColumnStore {
+
+	/**
+	 * The default width of the document number column.
+	 */
+	public static final int DEFAULT_DOCUMENT_NUMBER_WIDTH = 16;
+
+	/**
+	 * The number of rows of a chunk.
+	 */
+	public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+
+	private static final int FLAG_DOCUMENT_NUMBER = 1;
+	private static final int FLAG_DATE_OF_BIRTH = 1 << 1;
+	private static final int FLAG_EXPIRATION_DATE = 1 << 2;
+	private static final int FLAG_COMPOSITE = 1 << 3;
+
+	private static final MrzFormat[] FORMATS = MrzFormat.values();
+	private static final MrzSex[] SEXES = MrzSex.values();
+
+	private final int documentNumberWidth;
+	private final int chunkShift;
+	private final int chunkMask;
+
+	private final int formatOffset;
+	private final int flagsOffset;
+	private final int code1Offset;
+	private final int code2Offset;
+	private final int sexOffset;
+	private final int issuingCountryOffset;
+	private final int nationalityOffset;
+	private final int dateOfBirthOffset;
+	private final int expirationDateOffset;
+	private final int fingerprintOffset;
+	private final int documentNumberOffset;
+	private final int chunkBytes;
+
+	private ByteBuffer[] chunks = new ByteBuffer[8];
+	private int size;
+
+	/**
+	 * Construct a store with the default document number width.
+	 */
+	public MrzColumnStore() {
+		this(DEFAULT_DOCUMENT_NUMBER_WIDTH);
+	}
+
+	/**
+	 * @param documentNumberWidth the maximum length of a document number
+	 */
+	public MrzColumnStore(final int documentNumberWidth) {
+		this(documentNumberWidth, DEFAULT_CHUNK_ROWS);
+	}
+
+	/**
+	 * @param documentNumberWidth the maximum length of a document number
+	 * @param chunkRows the number of rows of a chunk, a power of two
+	 */
+	MrzColumnStore(final int documentNumberWidth, final int chunkRows) {
+		if (documentNumberWidth <= 0) {
+			throw new IllegalArgumentException("Parameter documentNumberWidth: invalid value " + documentNumberWidth + ": not positive");
+		}
+		if (chunkRows <= 0 || Integer.bitCount(chunkRows) != 1) {
+			throw new IllegalArgumentException("Parameter chunkRows: invalid value " + chunkRows + ": not a power of two");
+		}
+		if ((long) chunkRows * (documentNumberWidth + 25) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Parameter documentNumberWidth: invalid value " + documentNumberWidth + ": chunk too large");
+		}
+		this.documentNumberWidth = documentNumberWidth;
+		chunkShift = Integer.numberOfTrailingZeros(chunkRows);
+		chunkMask = chunkRows - 1;
+		formatOffset = 0;
+		flagsOffset = formatOffset + chunkRows;
+		code1Offset = flagsOffset + chunkRows;
+		code2Offset = code1Offset + chunkRows;
+		sexOffset = code2Offset + chunkRows;
+		issuingCountryOffset = sexOffset + chunkRows;
+		nationalityOffset = issuingCountryOffset + chunkRows * 2;
+		dateOfBirthOffset = nationalityOffset + chunkRows * 2;
+		expirationDateOffset = dateOfBirthOffset + chunkRows * 4;
+		fingerprintOffset = expirationDateOffset + chunkRows * 4;
+		documentNumberOffset = fingerprintOffset + chunkRows * 8;
+		chunkBytes = documentNumberOffset + chunkRows * documentNumberWidth;
+	}
+
+	/**
+	 * Appends the fields of a record.
+	 *
+	 * @param record the record
+	 * @return the id of the new row
+	 */
+	public int append(final MrzRecord record) {
+		final String documentNumber = record.getDocumentNumber();
+		if (documentNumber != null && documentNumber.length() > documentNumberWidth) {
+			throw new IllegalArgumentException("Parameter record: invalid document number length " + documentNumber.length() + ": longer than "
+					+ documentNumberWidth);
+		}
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("Store is full");
+		}
+		final int row = size;
+		final int chunk = row >>> chunkShift;
+		if (chunk == chunks.length) {
+			chunks = Arrays.copyOf(chunks, chunks.length * 2);
+		}
+		if (chunks[chunk] == null) {
+			chunks[chunk] = ByteBuffer.allocateDirect(chunkBytes);
+		}
+		final ByteBuffer buffer = chunks[chunk];
+		final int index = row & chunkMask;
+		int flags = 0;
+		flags |= record.isValidDocumentNumber() ? FLAG_DOCUMENT_NUMBER : 0;
+		flags |= record.isValidDateOfBirth() ? FLAG_DATE_OF_BIRTH : 0;
+		flags |= record.isValidExpirationDate() ? FLAG_EXPIRATION_DATE : 0;
+		flags |= record.isValidComposite() ? FLAG_COMPOSITE : 0;
+		buffer.put(formatOffset + index, (byte) (record.getFormat() == null ? -1 : record.getFormat().ordinal()));
+		buffer.put(flagsOffset + index, (byte) flags);
+		buffer.put(code1Offset + index, (byte) record.getCode1());
+		buffer.put(code2Offset + index, (byte) record.getCode2());
+		buffer.put(sexOffset + index, (byte) (record.getSex() == null ? -1 : record.getSex().ordinal()));
+		buffer.putShort(issuingCountryOffset + index * 2, (short) MrzCountryCode.toId(record.getIssuingCountry()));
+		buffer.putShort(nationalityOffset + index * 2, (short) MrzCountryCode.toId(record.getNationality()));
+		buffer.putInt(dateOfBirthOffset + index * 4, packed(record.getDateOfBirth()));
+		buffer.putInt(expirationDateOffset + index * 4, packed(record.getExpirationDate()));
+		buffer.putLong(fingerprintOffset + index * 8, record.getFingerprint());
+		final int from = documentNumberOffset + index * documentNumberWidth;
+		final int length = documentNumber == null ? 0 : documentNumber.length();
+		for (int i = 0; i < documentNumberWidth; i++) {
+			buffer.put(from + i, i < length ? (byte) documentNumber.charAt(i) : 0);
+		}
+		size++;
+		return row;
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of bytes allocated off-heap
+	 */
+	public long getAllocatedBytes() {
+		long bytes = 0;
+		for (ByteBuffer chunk : chunks) {
+			bytes += chunk == null ? 0 : chunk.capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Removes all rows, keeping the allocated chunks for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the format of the record, null for a record of a custom layout
+	 */
+	public MrzFormat getFormat(final int row) {
+		final int ordinal = chunk(row).get(formatOffset + (row & chunkMask));
+		return ordinal < 0 ? null : FORMATS[ordinal];
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the document code character
+	 */
+	public char getCode1(final int row) {
+		return (char) chunk(row).get(code1Offset + (row & chunkMask));
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the document type character
+	 */
+	public char getCode2(final int row) {
+		return (char) chunk(row).get(code2Offset + (row & chunkMask));
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the sex, or null if the record had none
+	 */
+	public MrzSex getSex(final int row) {
+		final byte sex = chunk(row).get(sexOffset + (row & chunkMask));
+		return sex < 0 ? null : SEXES[sex];
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the id of the issuing country, see {@link MrzCountryCode#toId(String)}
+	 */
+	public int getIssuingCountryId(final int row) {
+		return chunk(row).getShort(issuingCountryOffset + (row & chunkMask) * 2);
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the issuing country, or null if the record had none or it was not made of letters
+	 */
+	public String getIssuingCountry(final int row) {
+		return country(getIssuingCountryId(row));
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the id of the nationality, see {@link MrzCountryCode#toId(String)}
+	 */
+	public int getNationalityId(final int row) {
+		return chunk(row).getShort(nationalityOffset + (row & chunkMask) * 2);
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the nationality, or null if the record had none or it was not made of letters
+	 */
+	public String getNationality(final int row) {
+		return country(getNationalityId(row));
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the packed date of birth, see {@link MrzDate#pack(int, int, int)}
+	 */
+	public int getDateOfBirth(final int row) {
+		return chunk(row).getInt(dateOfBirthOffset + (row & chunkMask) * 4);
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the packed expiration date, see {@link MrzDate#pack(int, int, int)}
+	 */
+	public int getExpirationDate(final int row) {
+		return chunk(row).getInt(expirationDateOffset + (row & chunkMask) * 4);
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the fingerprint of the record, see {@link MrzRecord#getFingerprint()}
+	 */
+	public long getFingerprint(final int row) {
+		return chunk(row).getLong(fingerprintOffset + (row & chunkMask) * 8);
+	}
+
+	/**
+	 * Copies the fingerprints of a range of rows.
+	 *
+	 * @param fromRow the id of the first row
+	 * @param dest the destination array
+	 * @param offset the index in the destination array of the first fingerprint
+	 * @param length the number of rows
+	 */
+	public void getFingerprints(final int fromRow, final long[] dest, final int offset, final int length) {
+		if (fromRow < 0 || length < 0 || fromRow > size - length) {
+			throw new IllegalArgumentException("Parameter length: invalid value " + length + ": rows " + fromRow + ".." + (fromRow + length - 1)
+					+ " not in 0.." + (size - 1));
+		}
+		for (int i = 0; i < length; i++) {
+			final int row = fromRow + i;
+			dest[offset + i] = chunks[row >>> chunkShift].getLong(fingerprintOffset + (row & chunkMask) * 8);
+		}
+	}
+
+	/**
+	 * @param row the row id
+	 * @return the document number
+	 */
+	public String getDocumentNumber(final int row) {
+		final ByteBuffer buffer = chunk(row);
+		final int from = documentNumberOffset + (row & chunkMask) * documentNumberWidth;
+		final char[] chars = new char[documentNumberWidth];
+		int length = 0;
+		while (length < documentNumberWidth && buffer.get(from + length) != 0) {
+			chars[length] = (char) buffer.get(from + length);
+			length++;
+		}
+		return new String(chars, 0, length);
+	}
+
+	/**
+	 * @param row the row id
+	 * @param documentNumber the document number to compare with
+	 * @return true if the document number of the row equals the given one
+	 */
+	public boolean isDocumentNumber(final int row, final CharSequence documentNumber) {
+		return matchesDocumentNumber(chunk(row), documentNumberOffset + (row & chunkMask) * documentNumberWidth, documentNumber);
+	}
+
+	/**
+	 * @param row the row id
+	 * @return true if the document number check digit was valid
+	 */
+	public boolean isValidDocumentNumber(final int row) {
+		return (flags(row) & FLAG_DOCUMENT_NUMBER) != 0;
+	}
+
+	/**
+	 * @param row the row id
+	 * @return true if the date of birth check digit was valid
+	 */
+	public boolean isValidDateOfBirth(final int row) {
+		return (flags(row) & FLAG_DATE_OF_BIRTH) != 0;
+	}
+
+	/**
+	 * @param row the row id
+	 * @return true if the expiration date check digit was valid
+	 */
+	public boolean isValidExpirationDate(final int row) {
+		return (flags(row) & FLAG_EXPIRATION_DATE) != 0;
+	}
+
+	/**
+	 * @param row the row id
+	 * @return true if the composite check digit was valid
+	 */
+	public boolean isValidComposite(final int row) {
+		return (flags(row) & FLAG_COMPOSITE) != 0;
+	}
+
+	/**
+	 * Passes the ids of the rows matching a predicate to an action, in order.
+	 *
+	 * @param filter tests a row id, typically using the accessors of this store
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scan(final IntPredicate filter, final IntConsumer action) {
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (filter.test(row)) {
+				action.accept(row);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Passes the ids of the rows with an expiration date in a range to an action, in order.
+	 *
+	 * @param fromPacked the first packed date of the range, inclusive
+	 * @param toPacked the last packed date of the range, inclusive
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scanExpirationDate(final int fromPacked, final int toPacked, final IntConsumer action) {
+		return scanInts(expirationDateOffset, fromPacked, toPacked, action);
+	}
+
+	/**
+	 * Passes the ids of the rows with a date of birth in a range to an action, in order.
+	 *
+	 * @param fromPacked the first packed date of the range, inclusive
+	 * @param toPacked the last packed date of the range, inclusive
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scanDateOfBirth(final int fromPacked, final int toPacked, final IntConsumer action) {
+		return scanInts(dateOfBirthOffset, fromPacked, toPacked, action);
+	}
+
+	/**
+	 * Passes the ids of the rows of an issuing country to an action, in order.
+	 *
+	 * @param code the country code
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scanIssuingCountry(final String code, final IntConsumer action) {
+		return scanShorts(issuingCountryOffset, code, action);
+	}
+
+	/**
+	 * Passes the ids of the rows of a nationality to an action, in order.
+	 *
+	 * @param code the country code
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scanNationality(final String code, final IntConsumer action) {
+		return scanShorts(nationalityOffset, code, action);
+	}
+
+	/**
+	 * Passes the ids of the rows with a document number to an action, in order.
+	 *
+	 * @param documentNumber the document number
+	 * @param action receives the matching row ids
+	 * @return the number of matching rows
+	 */
+	public int scanDocumentNumber(final CharSequence documentNumber, final IntConsumer action) {
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (isDocumentNumber(row, documentNumber)) {
+				action.accept(row);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int scanInts(final int offset, final int from, final int to, final IntConsumer action) {
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			final int value = chunks[row >>> chunkShift].getInt(offset + (row & chunkMask) * 4);
+			if (MrzDate.compare(value, from) >= 0 && MrzDate.compare(value, to) <= 0) {
+				action.accept(row);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int scanShorts(final int offset, final String code, final IntConsumer action) {
+		final int id = MrzCountryCode.toId(code);
+		if (id < 0) {
+			return 0;
+		}
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (chunks[row >>> chunkShift].getShort(offset + (row & chunkMask) * 2) == id) {
+				action.accept(row);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean matchesDocumentNumber(final ByteBuffer buffer, final int from, final CharSequence documentNumber) {
+		final int length = documentNumber.length();
+		if (length > documentNumberWidth) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(from + i) != documentNumber.charAt(i)) {
+				return false;
+			}
+		}
+		return length == documentNumberWidth || buffer.get(from + length) == 0;
+	}
+
+	private int flags(final int row) {
+		return chunk(row).get(flagsOffset + (row & chunkMask));
+	}
+
+	private ByteBuffer chunk(final int row) {
+		if (row < 0 || row >= size) {
+			throw new IllegalArgumentException("Parameter row: invalid value " + row + ": not in 0.." + (size - 1));
+		}
+		return chunks[row >>> chunkShift];
+	}
+
+	private static String country(final int id) {
+		return id < 0 ? null : MrzCountryCode.fromId(id);
+	}
+
+	private static int packed(final MrzDate date) {
+		return date == null ? MrzDate.pack(-1, -1, -1) : date.getPacked();
+	}
+
+}
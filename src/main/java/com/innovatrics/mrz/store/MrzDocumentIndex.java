@@ -0,0 +1,348 @@
+package com.innovatrics.mrz.store;
+
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzCountryCode;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of document numbers per issuing country, mapping them to integer ids such as the row ids of a {@link MrzColumnStore}.
+ * <p>
+ * Document numbers of up to {@value #PACKED_LENGTH} MRZ characters, i.e. almost all of them, are packed together with the country into a single
+ * <code>long</code> whose order matches the order of the strings, so an entry takes 12 bytes and a prefix query is a range of keys. The keys are
+ * kept in sorted runs of doubling size, merged as entries are appended, plus a small unsorted run of the latest entries. Lookups binary search
+ * every run. Longer document numbers are kept in a sorted map.
+ * </p>
+ * <p>
+ * Appends are serialized, lookups run concurrently with appends without locking and see all the entries appended before they started. A
+ * document number may be added several times, lookups then report every id.
+ * </p>
+ * <pre>
+ * final MrzDocumentIndex index = new MrzDocumentIndex();
+ * index.add(record, store.append(record));
+ * index.findPrefix("CZE", "9900", row -&gt; ...);
+ * </pre>
+ */
+public class MrzDocumentIndex {
+
+	/**
+	 * The maximum length of a packed document number.
+	 */
+	public static final int PACKED_LENGTH = 9;
+
+	private static final int RADIX = 38;
+
+	/**
+	 * The number of combinations of packed document numbers, RADIX ^ PACKED_LENGTH.
+	 */
+	private static final long DOCUMENT_SPACE;
+
+	private static final int PENDING_SIZE = 1024;
+
+	static {
+		long space = 1;
+		for (int i = 0; i < PACKED_LENGTH; i++) {
+			space *= RADIX;
+		}
+		DOCUMENT_SPACE = space;
+	}
+
+	private final Object lock = new Object();
+	private final ConcurrentSkipListMap<String, int[]> overflow = new ConcurrentSkipListMap<>();
+
+	private volatile State state = new State(new Run[0]);
+	private volatile long size;
+
+	/**
+	 * Adds the issuing country and document number of a record.
+	 *
+	 * @param record the record
+	 * @param id the id to report when the document number is looked up
+	 */
+	public void add(final MrzRecord record, final int id) {
+		add(record.getIssuingCountry(), record.getDocumentNumber(), id);
+	}
+
+	/**
+	 * Adds a document number.
+	 *
+	 * @param issuingCountry the issuing country, may be null
+	 * @param documentNumber the document number
+	 * @param id the id to report when the document number is looked up
+	 */
+	public void add(final String issuingCountry, final String documentNumber, final int id) {
+		if (documentNumber == null) {
+			throw new IllegalArgumentException("Parameter documentNumber: invalid value null");
+		}
+		final long key = pack(issuingCountry, documentNumber, false);
+		synchronized (lock) {
+			if (key < 0) {
+				overflow.merge(overflowKey(issuingCountry, documentNumber), new int[]{id}, MrzDocumentIndex::concat);
+			} else {
+				append(key, id);
+			}
+			size++;
+		}
+	}
+
+	/**
+	 * @return the number of added document numbers
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Reports the ids of a document number.
+	 *
+	 * @param issuingCountry the issuing country, may be null
+	 * @param documentNumber the document number
+	 * @param action receives the ids, in no particular order
+	 * @return the number of ids reported
+	 */
+	public int find(final String issuingCountry, final String documentNumber, final IntConsumer action) {
+		final long key = pack(issuingCountry, documentNumber, false);
+		if (key < 0) {
+			final int[] ids = overflow.get(overflowKey(issuingCountry, documentNumber));
+			return ids == null ? 0 : report(ids, action);
+		}
+		return state.find(key, key, action);
+	}
+
+	/**
+	 * Reports the ids of the document numbers starting with a prefix.
+	 *
+	 * @param issuingCountry the issuing country, may be null
+	 * @param prefix the prefix of the document numbers, empty for all document numbers of the country
+	 * @param action receives the ids, in no particular order
+	 * @return the number of ids reported
+	 */
+	public int findPrefix(final String issuingCountry, final String prefix, final IntConsumer action) {
+		int count = 0;
+		final long from = pack(issuingCountry, prefix, false);
+		if (from >= 0) {
+			count += state.find(from, pack(issuingCountry, prefix, true), action);
+		}
+		final String overflowFrom = overflowKey(issuingCountry, prefix);
+		for (int[] ids : overflow.subMap(overflowFrom, overflowFrom + Character.MAX_VALUE).values()) {
+			count += report(ids, action);
+		}
+		return count;
+	}
+
+	/**
+	 * Appends an entry to the pending run, sorting and merging the runs when it is full. Must be called with the lock held.
+	 */
+	private void append(final long key, final int id) {
+		State current = state;
+		if (current.pendingSize == PENDING_SIZE) {
+			final long[] keys = Arrays.copyOf(current.pendingKeys, PENDING_SIZE);
+			final int[] ids = Arrays.copyOf(current.pendingIds, PENDING_SIZE);
+			sort(keys, ids, 0, PENDING_SIZE - 1);
+			Run[] runs = Arrays.copyOf(current.runs, current.runs.length + 1);
+			runs[runs.length - 1] = new Run(keys, ids);
+			while (runs.length > 1 && runs[runs.length - 2].keys.length <= runs[runs.length - 1].keys.length) {
+				final Run merged = Run.merge(runs[runs.length - 2], runs[runs.length - 1]);
+				runs = Arrays.copyOf(runs, runs.length - 1);
+				runs[runs.length - 1] = merged;
+			}
+			current = new State(runs);
+			state = current;
+		}
+		final int index = current.pendingSize;
+		current.pendingKeys[index] = key;
+		current.pendingIds[index] = id;
+		// Publishes the entry to readers of this state
+		current.pendingSize = index + 1;
+	}
+
+	/**
+	 * Packs the country and a document number or prefix, padded with the lowest or highest character.
+	 *
+	 * @return the key, or -1 if the country or document number can not be packed
+	 */
+	private static long pack(final String issuingCountry, final String documentNumber, final boolean highest) {
+		if (documentNumber.length() > PACKED_LENGTH) {
+			return -1;
+		}
+		final int country;
+		if (issuingCountry == null || issuingCountry.isEmpty()) {
+			country = 0;
+		} else {
+			country = MrzCountryCode.toId(issuingCountry);
+			if (country < 0) {
+				return -1;
+			}
+		}
+		long key = 0;
+		for (int i = 0; i < PACKED_LENGTH; i++) {
+			final int digit = i < documentNumber.length() ? digit(documentNumber.charAt(i)) : highest ? RADIX - 1 : 0;
+			if (digit < 0) {
+				return -1;
+			}
+			key = key * RADIX + digit;
+		}
+		return country * DOCUMENT_SPACE + key;
+	}
+
+	/**
+	 * @return the digit of a character, in the order of the characters, 0 is reserved for padding
+	 */
+	private static int digit(final char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0' + 1;
+		}
+		if (c == '<') {
+			return 11;
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 12;
+		}
+		return -1;
+	}
+
+	private static String overflowKey(final String issuingCountry, final String documentNumber) {
+		final String country = issuingCountry == null ? "" : issuingCountry;
+		return country.length() + country + documentNumber;
+	}
+
+	private static int[] concat(final int[] ids, final int[] added) {
+		final int[] result = Arrays.copyOf(ids, ids.length + added.length);
+		System.arraycopy(added, 0, result, ids.length, added.length);
+		return result;
+	}
+
+	private static int report(final int[] ids, final IntConsumer action) {
+		for (int id : ids) {
+			action.accept(id);
+		}
+		return ids.length;
+	}
+
+	private static void sort(final long[] keys, final int[] ids, final int from, final int to) {
+		if (to - from < 16) {
+			for (int i = from + 1; i <= to; i++) {
+				final long key = keys[i];
+				final int id = ids[i];
+				int j = i - 1;
+				while (j >= from && keys[j] > key) {
+					keys[j + 1] = keys[j];
+					ids[j + 1] = ids[j];
+					j--;
+				}
+				keys[j + 1] = key;
+				ids[j + 1] = id;
+			}
+			return;
+		}
+		final long pivot = keys[(from + to) >>> 1];
+		int i = from;
+		int j = to;
+		while (i <= j) {
+			while (keys[i] < pivot) {
+				i++;
+			}
+			while (keys[j] > pivot) {
+				j--;
+			}
+			if (i <= j) {
+				final long key = keys[i];
+				keys[i] = keys[j];
+				keys[j] = key;
+				final int id = ids[i];
+				ids[i] = ids[j];
+				ids[j] = id;
+				i++;
+				j--;
+			}
+		}
+		sort(keys, ids, from, j);
+		sort(keys, ids, i, to);
+	}
+
+	/**
+	 * The sorted runs and the pending entries. The runs never change, the pending entries are only appended to.
+	 */
+	private static final class State {
+
+		private final Run[] runs;
+		private final long[] pendingKeys = new long[PENDING_SIZE];
+		private final int[] pendingIds = new int[PENDING_SIZE];
+		private volatile int pendingSize;
+
+		private State(final Run[] runs) {
+			this.runs = runs;
+		}
+
+		private int find(final long from, final long to, final IntConsumer action) {
+			int count = 0;
+			final int pending = pendingSize;
+			for (int i = 0; i < pending; i++) {
+				final long key = pendingKeys[i];
+				if (key >= from && key <= to) {
+					action.accept(pendingIds[i]);
+					count++;
+				}
+			}
+			for (Run run : runs) {
+				count += run.find(from, to, action);
+			}
+			return count;
+		}
+
+	}
+
+	/**
+	 * Keys sorted in ascending order and their ids.
+	 */
+	private static final class Run {
+
+		private final long[] keys;
+		private final int[] ids;
+
+		private Run(final long[] keys, final int[] ids) {
+			this.keys = keys;
+			this.ids = ids;
+		}
+
+		private int find(final long from, final long to, final IntConsumer action) {
+			int low = 0;
+			int high = keys.length;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (keys[mid] < from) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			int count = 0;
+			for (int i = low; i < keys.length && keys[i] <= to; i++) {
+				action.accept(ids[i]);
+				count++;
+			}
+			return count;
+		}
+
+		private static Run merge(final Run first, final Run second) {
+			final int length = first.keys.length + second.keys.length;
+			final long[] keys = new long[length];
+			final int[] ids = new int[length];
+			int i = 0;
+			int j = 0;
+			for (int k = 0; k < length; k++) {
+				if (j == second.keys.length || i < first.keys.length && first.keys[i] <= second.keys[j]) {
+					keys[k] = first.keys[i];
+					ids[k] = first.ids[i++];
+				} else {
+					keys[k] = second.keys[j];
+					ids[k] = second.ids[j++];
+				}
+			}
+			return new Run(keys, ids);
+		}
+
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Off-Heap Record Storage.
+ */
+package com.innovatrics.mrz.store;
@@ -0,0 +1,258 @@
+package com.innovatrics.mrz.types;
+
+/**
+ * Registry of the country codes valid in a MRZ, as per Doc 9303 Part 3 Section 5: the ISO 3166-1 alpha-3 codes, <code>D</code> for Germany and
+ * the codes reserved for British nationals, the United Nations, other organizations and stateless persons and refugees, and <code>UTO</code> of
+ * the specimen documents. The special codes are available as constants.
+ * <p>
+ * Every code has one canonical String instance, so records of the same country can be grouped by reference. Codes are looked up with a perfect
+ * hash: each of the three MRZ characters ('&lt;' or 'A' to 'Z') is a base 27 digit, indexing a table of all 19683 possible codes.
+ * </p>
+ */
+public final class MrzCountryCode {
+
+	/**
+	 * Germany.
+	 */
+	public static final String D = "D";
+	/**
+	 * British dependent territories citizen.
+	 */
+	public static final String GBD = "GBD";
+	/**
+	 * British National (Overseas).
+	 */
+	public static final String GBN = "GBN";
+	/**
+	 * British Overseas citizen.
+	 */
+	public static final String GBO = "GBO";
+	/**
+	 * British protected person.
+	 */
+	public static final String GBP = "GBP";
+	/**
+	 * British subject.
+	 */
+	public static final String GBS = "GBS";
+	/**
+	 * United Nations Organization.
+	 */
+	public static final String UNO = "UNO";
+	/**
+	 * Specialized agency of the United Nations.
+	 */
+	public static final String UNA = "UNA";
+	/**
+	 * Resident of Kosovo to whom a travel document has been issued by the United Nations Interim Administration Mission in Kosovo.
+	 */
+	public static final String UNK = "UNK";
+	/**
+	 * European Union.
+	 */
+	public static final String EUE = "EUE";
+	/**
+	 * Sovereign Military Order of Malta.
+	 */
+	public static final String XOM = "XOM";
+	/**
+	 * Stateless person, as per the 1954 Convention Relating to the Status of Stateless Persons.
+	 */
+	public static final String XXA = "XXA";
+	/**
+	 * Refugee, as per the 1951 Convention Relating to the Status of Refugees.
+	 */
+	public static final String XXB = "XXB";
+	/**
+	 * Refugee, other than defined above.
+	 */
+	public static final String XXC = "XXC";
+	/**
+	 * Unspecified nationality.
+	 */
+	public static final String XXX = "XXX";
+	/**
+	 * Utopia, the fictional state of the specimen documents of Doc 9303.
+	 */
+	public static final String UTO = "UTO";
+
+	/**
+	 * The ISO 3166-1 alpha-3 codes.
+	 */
+	private static final String[] ISO_CODES = {
+		"ABW", "AFG", "AGO", "AIA", "ALA", "ALB", "AND", "ARE", "ARG", "ARM", "ASM", "ATA", "ATF", "ATG", "AUS", "AUT",
+		"AZE", "BDI", "BEL", "BEN", "BES", "BFA", "BGD", "BGR", "BHR", "BHS", "BIH", "BLM", "BLR", "BLZ", "BMU", "BOL",
+		"BRA", "BRB", "BRN", "BTN", "BVT", "BWA", "CAF", "CAN", "CCK", "CHE", "CHL", "CHN", "CIV", "CMR", "COD", "COG",
+		"COK", "COL", "COM", "CPV", "CRI", "CUB", "CUW", "CXR", "CYM", "CYP", "CZE", "DEU", "DJI", "DMA", "DNK", "DOM",
+		"DZA", "ECU", "EGY", "ERI", "ESH", "ESP", "EST", "ETH", "FIN", "FJI", "FLK", "FRA", "FRO", "FSM", "GAB", "GBR",
+		"GEO", "GGY", "GHA", "GIB", "GIN", "GLP", "GMB", "GNB", "GNQ", "GRC", "GRD", "GRL", "GTM", "GUF", "GUM", "GUY",
+		"HKG", "HMD", "HND", "HRV", "HTI", "HUN", "IDN", "IMN", "IND", "IOT", "IRL", "IRN", "IRQ", "ISL", "ISR", "ITA",
+		"JAM", "JEY", "JOR", "JPN", "KAZ", "KEN", "KGZ", "KHM", "KIR", "KNA", "KOR", "KWT", "LAO", "LBN", "LBR", "LBY",
+		"LCA", "LIE", "LKA", "LSO", "LTU", "LUX", "LVA", "MAC", "MAF", "MAR", "MCO", "MDA", "MDG", "MDV", "MEX", "MHL",
+		"MKD", "MLI", "MLT", "MMR", "MNE", "MNG", "MNP", "MOZ", "MRT", "MSR", "MTQ", "MUS", "MWI", "MYS", "MYT", "NAM",
+		"NCL", "NER", "NFK", "NGA", "NIC", "NIU", "NLD", "NOR", "NPL", "NRU", "NZL", "OMN", "PAK", "PAN", "PCN", "PER",
+		"PHL", "PLW", "PNG", "POL", "PRI", "PRK", "PRT", "PRY", "PSE", "PYF", "QAT", "REU", "ROU", "RUS", "RWA", "SAU",
+		"SDN", "SEN", "SGP", "SGS", "SHN", "SJM", "SLB", "SLE", "SLV", "SMR", "SOM", "SPM", "SRB", "SSD", "STP", "SUR",
+		"SVK", "SVN", "SWE", "SWZ", "SXM", "SYC", "SYR", "TCA", "TCD", "TGO", "THA", "TJK", "TKL", "TKM", "TLS", "TON",
+		"TTO", "TUN", "TUR", "TUV", "TWN", "TZA", "UGA", "UKR", "UMI", "URY", "USA", "UZB", "VAT", "VCT", "VEN", "VGB",
+		"VIR", "VNM", "VUT", "WLF", "WSM", "YEM", "ZAF", "ZMB", "ZWE",
+	};
+
+	/**
+	 * The codes defined by Doc 9303 in addition to the ISO codes, and historical codes still found on valid documents.
+	 */
+	private static final String[] ICAO_CODES = {
+		D,
+		// British citizen categories
+		GBD, GBN, GBO, GBP, GBS,
+		// United Nations
+		UNO, UNA, UNK,
+		// Other organizations
+		EUE, "XBA", "XIM", "XCC", "XCE", "XCO", "XDC", "XEC", "XES", "XMP", XOM, "XPO",
+		// Stateless persons, refugees and unspecified nationality
+		XXA, XXB, XXC, XXX,
+		// Kosovo, Netherlands Antilles, Neutral Zone
+		"RKS", "ANT", "NTZ",
+		// Specimen documents
+		UTO
+	};
+
+	private static final int RADIX = 27;
+
+	private static final String[] TABLE = new String[RADIX * RADIX * RADIX];
+
+	/**
+	 * The largest id of a country code, see {@link #toId(String)}.
+	 */
+	public static final int MAX_ID = TABLE.length - 1;
+
+	static {
+		for (String code : ISO_CODES) {
+			register(code);
+		}
+		for (String code : ICAO_CODES) {
+			register(code);
+		}
+	}
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzCountryCode() {
+		// Do nothing
+	}
+
+	/**
+	 * Looks up the code of a 3 character MRZ field, without allocating.
+	 *
+	 * @param mrz the MRZ characters
+	 * @param start the index of the first character of the field
+	 * @return the canonical code, with trailing fillers removed (e.g. <code>D</code> for <code>D&lt;&lt;</code>), or null if not a known code
+	 */
+	public static String lookup(final CharSequence mrz, final int start) {
+		if (start < 0 || start + 3 > mrz.length()) {
+			return null;
+		}
+		final int index = index(mrz.charAt(start), mrz.charAt(start + 1), mrz.charAt(start + 2));
+		return index < 0 ? null : TABLE[index];
+	}
+
+	/**
+	 * @param code the country code, as returned by {@link com.innovatrics.mrz.MrzParser#parseString(com.innovatrics.mrz.MrzRange)}, may be null
+	 * @return the canonical instance of the code, or the code itself if not a known code
+	 */
+	public static String canonical(final String code) {
+		final String known = get(code);
+		return known == null ? code : known;
+	}
+
+	/**
+	 * @param code the country code, may be null
+	 * @return true if the code is a known country code
+	 */
+	public static boolean isKnown(final String code) {
+		return get(code) != null;
+	}
+
+	/**
+	 * Maps a code to a small integer, e.g. to store it in a column. Every code of 1 to 3 letters has an id, known or not.
+	 *
+	 * @param code the country code, may be null
+	 * @return the id of the code in 1..{@link #MAX_ID}, or -1 if the code is null, empty, longer than 3 characters or not made of letters and
+	 * fillers
+	 */
+	public static int toId(final String code) {
+		if (code == null || code.isEmpty() || code.length() > 3) {
+			return -1;
+		}
+		final int index = indexOf(code);
+		return index == 0 ? -1 : index;
+	}
+
+	/**
+	 * @param id the id of a code, see {@link #toId(String)}
+	 * @return the canonical instance of a known code, or a new string for other codes
+	 */
+	public static String fromId(final int id) {
+		if (id <= 0 || id > MAX_ID) {
+			throw new IllegalArgumentException("Parameter id: invalid value " + id + ": not in 1.." + MAX_ID);
+		}
+		final String known = TABLE[id];
+		if (known != null) {
+			return known;
+		}
+		final char[] chars = {character(id / (RADIX * RADIX)), character(id / RADIX % RADIX), character(id % RADIX)};
+		int length = chars.length;
+		while (length > 0 && chars[length - 1] == '<') {
+			length--;
+		}
+		return new String(chars, 0, length);
+	}
+
+	private static String get(final String code) {
+		if (code == null || code.isEmpty() || code.length() > 3) {
+			return null;
+		}
+		final int index = indexOf(code);
+		return index < 0 ? null : TABLE[index];
+	}
+
+	private static void register(final String code) {
+		TABLE[indexOf(code)] = code;
+	}
+
+	/**
+	 * @return the perfect hash of the code padded with fillers to 3 characters, or -1 if a character is not valid in a country code
+	 */
+	private static int indexOf(final String code) {
+		return index(code.charAt(0), code.length() > 1 ? code.charAt(1) : '<', code.length() > 2 ? code.charAt(2) : '<');
+	}
+
+	/**
+	 * @return the perfect hash of the code, or -1 if a character is not valid in a country code
+	 */
+	private static int index(final char c1, final char c2, final char c3) {
+		final int d1 = digit(c1);
+		final int d2 = digit(c2);
+		final int d3 = digit(c3);
+		if (d1 < 0 || d2 < 0 || d3 < 0) {
+			return -1;
+		}
+		return (d1 * RADIX + d2) * RADIX + d3;
+	}
+
+	private static char character(final int digit) {
+		return digit == 0 ? '<' : (char) ('A' + digit - 1);
+	}
+
+	private static int digit(final char c) {
+		if (c == '<') {
+			return 0;
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 1;
+		}
+		return -1;
+	}
+
+}
@@ -18,12 +18,26 @@
  */
 package com.innovatrics.mrz.types;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Holds a MRZ date type.
+ * <p>
+ * The date is held as a single packed int, see {@link #pack(int, int, int)}, which orders dates chronologically (for the same century), so
+ * dates can be sorted and compared without creating instances. Valid dates are cached: {@link #valueOf(int, int, int)} and
+ * {@link #parse(CharSequence, int)} return the canonical instance of each of the 37200 valid dates. Year, month and day must be in -1..99, -1
+ * standing for a value that is not two digits.
+ * </p>
+ * <p>
+ * The serialized form is the one of the earlier versions, with separate year, month and day.
+ * </p>
  *
  * @author Martin Vysny
  */
@@ -31,23 +45,40 @@ public class MrzDate implements Serializable, Comparable<MrzDate> {
 
 	private static final long serialVersionUID = 1L;
 
-	private static final Logger LOG = LoggerFactory.getLogger(MrzDate.class);
-
 	/**
-	 * Year, 00-99.
-	 * <p>
-	 * Note: I am unable to find a specification of conversion of this value to a full year value.
-	 * </p>
+	 * The serialized fields.
+	 *
+	 * @serialField year int the year
+	 * @serialField month int the month
+	 * @serialField day int the day
+	 * @serialField mrz String the raw MRZ value
+	 * @serialField dateValid boolean true if the date is valid
 	 */
-	private final int year;
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("year", int.class),
+		new ObjectStreamField("month", int.class),
+		new ObjectStreamField("day", int.class),
+		new ObjectStreamField("mrz", String.class),
+		new ObjectStreamField("dateValid", boolean.class)
+	};
+
+	private static final Logger LOG = LoggerFactory.getLogger(MrzDate.class);
+
+	private static final int FIELD_BITS = 7;
+	private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+
 	/**
-	 * Month, 1-12.
+	 * The canonical instances of the valid dates, created when first used.
 	 */
-	private final int month;
+	private static final MrzDate[] CACHE = new MrzDate[100 * 12 * 31];
+
 	/**
-	 * Day, 1-31.
+	 * Year (00-99), month (1-12) and day (1-31), packed by {@link #pack(int, int, int)}.
+	 * <p>
+	 * Note: I am unable to find a specification of conversion of the year value to a full year value.
+	 * </p>
 	 */
-	private final int day;
+	private final int packed;
 
 	private final String mrz;
 
@@ -56,17 +87,19 @@ public class MrzDate implements Serializable, Comparable<MrzDate> {
 	 */
 	private final boolean dateValid;
 
+	/**
+	 * The date read by {@link #readObject(ObjectInputStream)}, returned by {@link #readResolve()}.
+	 */
+	private transient MrzDate resolved;
+
 	/**
 	 * @param year the year 00-99
 	 * @param month the month 1-12
 	 * @param day the day 1-31
+	 * @throws IllegalArgumentException if a value is not in -1..99
 	 */
 	public MrzDate(final int year, final int month, final int day) {
-		this.year = year;
-		this.month = month;
-		this.day = day;
-		this.dateValid = check();
-		this.mrz = null;
+		this(year, month, day, null);
 	}
 
 	/**
@@ -74,34 +107,153 @@ public class MrzDate implements Serializable, Comparable<MrzDate> {
 	 * @param month the month 1-12
 	 * @param day the day 1-31
 	 * @param raw the raw MRZ value
+	 * @throws IllegalArgumentException if a value is not in -1..99
 	 */
 	public MrzDate(final int year, final int month, final int day, final String raw) {
-		this.year = year;
-		this.month = month;
-		this.day = day;
-		this.dateValid = check();
+		checkRange("year", year);
+		checkRange("month", month);
+		checkRange("day", day);
+		this.packed = pack(year, month, day);
+		this.dateValid = check(year, month, day);
 		this.mrz = raw;
 	}
 
+	/**
+	 * Returns the canonical instance of a valid date, or a new instance of an invalid date.
+	 *
+	 * @param year the year 00-99
+	 * @param month the month 1-12
+	 * @param day the day 1-31
+	 * @return the date, with the MRZ value set if valid
+	 * @throws IllegalArgumentException if a value is not in -1..99
+	 */
+	public static MrzDate valueOf(final int year, final int month, final int day) {
+		if (!isValid(year, month, day)) {
+			return new MrzDate(year, month, day);
+		}
+		final int index = (year * 12 + month - 1) * 31 + day - 1;
+		MrzDate date = CACHE[index];
+		if (date == null) {
+			// MrzDate is immutable, so a racing thread at worst creates a duplicate
+			date = new MrzDate(year, month, day, format(year, month, day));
+			CACHE[index] = date;
+		}
+		return date;
+	}
+
+	/**
+	 * Returns the date of a packed int.
+	 *
+	 * @param packed the packed date, see {@link #pack(int, int, int)}
+	 * @return the date
+	 */
+	public static MrzDate valueOf(final int packed) {
+		return valueOf(getYear(packed), getMonth(packed), getDay(packed));
+	}
+
+	/**
+	 * Parses a date in the YYMMDD format, without throwing an exception if it contains other characters than digits.
+	 *
+	 * @param mrz the MRZ characters
+	 * @param start the index of the first character of the date
+	 * @return the canonical instance of a valid date, or a new instance holding the raw MRZ value. Year, month and day that are not two
+	 * digits are -1.
+	 */
+	public static MrzDate parse(final CharSequence mrz, final int start) {
+		final int packed = parsePacked(mrz, start);
+		final int year = getYear(packed);
+		final int month = getMonth(packed);
+		final int day = getDay(packed);
+		if (isValid(year, month, day)) {
+			return valueOf(year, month, day);
+		}
+		return new MrzDate(year, month, day, mrz.subSequence(start, start + 6).toString());
+	}
+
+	/**
+	 * Parses a date in the YYMMDD format into a packed int, without allocating.
+	 *
+	 * @param mrz the MRZ characters
+	 * @param start the index of the first character of the date
+	 * @return the packed date. Year, month and day that are not two digits are -1.
+	 */
+	public static int parsePacked(final CharSequence mrz, final int start) {
+		return pack(parseTwoDigits(mrz, start), parseTwoDigits(mrz, start + 2), parseTwoDigits(mrz, start + 4));
+	}
+
+	/**
+	 * Packs a date into an int, ordered by year, then month, then day. Values outside the range -1..99 are packed as -1.
+	 *
+	 * @param year the year 00-99, or -1 if not known
+	 * @param month the month 1-12, or -1 if not known
+	 * @param day the day 1-31, or -1 if not known
+	 * @return the packed date
+	 */
+	public static int pack(final int year, final int month, final int day) {
+		return (packField(year) << (2 * FIELD_BITS)) | (packField(month) << FIELD_BITS) | packField(day);
+	}
+
+	/**
+	 * Compares two packed dates.
+	 *
+	 * @param packed1 the first packed date
+	 * @param packed2 the second packed date
+	 * @return negative if the first date is before the second, 0 if equal, positive if after
+	 */
+	public static int compare(final int packed1, final int packed2) {
+		return Integer.compare(packed1, packed2);
+	}
+
+	/**
+	 * @param packed the packed date
+	 * @return the year
+	 */
+	public static int getYear(final int packed) {
+		return (packed >>> (2 * FIELD_BITS)) - 1;
+	}
+
+	/**
+	 * @param packed the packed date
+	 * @return the month
+	 */
+	public static int getMonth(final int packed) {
+		return ((packed >>> FIELD_BITS) & FIELD_MASK) - 1;
+	}
+
+	/**
+	 * @param packed the packed date
+	 * @return the day
+	 */
+	public static int getDay(final int packed) {
+		return (packed & FIELD_MASK) - 1;
+	}
+
+	/**
+	 * @return the date packed into an int, see {@link #pack(int, int, int)}
+	 */
+	public final int getPacked() {
+		return packed;
+	}
+
 	/**
 	 * @return the year
 	 */
 	public final int getYear() {
-		return year;
+		return getYear(packed);
 	}
 
 	/**
 	 * @return the month
 	 */
 	public final int getMonth() {
-		return month;
+		return getMonth(packed);
 	}
 
 	/**
 	 * @return the day
 	 */
 	public final int getDay() {
-		return day;
+		return getDay(packed);
 	}
 
 	/**
@@ -126,28 +278,108 @@ public class MrzDate implements Serializable, Comparable<MrzDate> {
 	public String toMrz() {
 		if (getMrz() != null) {
 			return getMrz();
+		} else if (isValid(getYear(), getMonth(), getDay())) {
+			return format(getYear(), getMonth(), getDay());
 		} else {
 			return String.format("%02d%02d%02d", getYear(), getMonth(), getDay());
 		}
 	}
 
-	private boolean check() {
-		if (getYear() < 0 || getYear() > 99) {
-			LOG.debug("Parameter year: invalid value " + getYear() + ": must be 0..99");
+	private static void checkRange(final String name, final int value) {
+		if (value < -1 || value > 99) {
+			throw new IllegalArgumentException("Parameter " + name + ": invalid value " + value + ": not in -1..99");
+		}
+	}
+
+	private static int packField(final int value) {
+		return value < -1 || value > 99 ? 0 : value + 1;
+	}
+
+	/**
+	 * @return the two digits, or -1 if either character is not a digit
+	 */
+	private static int parseTwoDigits(final CharSequence mrz, final int index) {
+		final int d1 = mrz.charAt(index) - '0';
+		final int d2 = mrz.charAt(index + 1) - '0';
+		// All ones if a value is outside 0..9
+		final int invalid = (d1 | d2 | (9 - d1) | (9 - d2)) >> 31;
+		return (d1 * 10 + d2) | invalid;
+	}
+
+	private static String format(final int year, final int month, final int day) {
+		return new String(new char[]{
+			(char) ('0' + year / 10), (char) ('0' + year % 10),
+			(char) ('0' + month / 10), (char) ('0' + month % 10),
+			(char) ('0' + day / 10), (char) ('0' + day % 10)});
+	}
+
+	private static boolean isValid(final int year, final int month, final int day) {
+		return year >= 0 && year <= 99 && month >= 1 && month <= 12 && day >= 1 && day <= 31;
+	}
+
+	private static boolean check(final int year, final int month, final int day) {
+		if (year < 0 || year > 99) {
+			LOG.debug("Parameter year: invalid value " + year + ": must be 0..99");
 			return false;
 		}
-		if (getMonth() < 1 || getMonth() > 12) {
-			LOG.debug("Parameter month: invalid value " + getMonth() + ": must be 1..12");
+		if (month < 1 || month > 12) {
+			LOG.debug("Parameter month: invalid value " + month + ": must be 1..12");
 			return false;
 		}
-		if (getDay() < 1 || getDay() > 31) {
-			LOG.debug("Parameter day: invalid value " + getDay() + ": must be 1..31");
+		if (day < 1 || day > 31) {
+			LOG.debug("Parameter day: invalid value " + day + ": must be 1..31");
 			return false;
 		}
 
 		return true;
 	}
 
+	/**
+	 * Writes the date in the serialized form of the earlier versions.
+	 *
+	 * @param out the stream to write to
+	 * @throws IOException could not write the date
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		final ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("year", getYear());
+		fields.put("month", getMonth());
+		fields.put("day", getDay());
+		fields.put("mrz", mrz);
+		fields.put("dateValid", dateValid);
+		out.writeFields();
+	}
+
+	/**
+	 * Reads a date written by this or an earlier version.
+	 *
+	 * @param in the stream to read from
+	 * @throws IOException could not read the date, or the date is out of range
+	 * @throws ClassNotFoundException could not resolve a class of the date
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		final ObjectInputStream.GetField fields = in.readFields();
+		final int year = fields.get("year", -1);
+		final int month = fields.get("month", -1);
+		final int day = fields.get("day", -1);
+		final String raw = (String) fields.get("mrz", null);
+		try {
+			resolved = isValid(year, month, day) && format(year, month, day).equals(raw) ? valueOf(year, month, day)
+					: new MrzDate(year, month, day, raw);
+		} catch (IllegalArgumentException ex) {
+			final InvalidObjectException invalid = new InvalidObjectException(ex.getMessage());
+			invalid.initCause(ex);
+			throw invalid;
+		}
+	}
+
+	/**
+	 * @return the date read from the stream
+	 */
+	private Object readResolve() {
+		return resolved;
+	}
+
 	@Override
 	public boolean equals(final Object obj) {
 		if (obj == null) {
@@ -157,27 +389,17 @@ public class MrzDate implements Serializable, Comparable<MrzDate> {
 			return false;
 		}
 		final MrzDate other = (MrzDate) obj;
-		if (this.getYear() != other.getYear()) {
-			return false;
-		}
-		if (this.getMonth() != other.getMonth()) {
-			return false;
-		}
-		return this.getDay() == other.getDay();
+		return this.packed == other.packed;
 	}
 
 	@Override
 	public int hashCode() {
-		int hash = 7;
-		hash = 11 * hash + this.getYear();
-		hash = 11 * hash + this.getMonth();
-		hash = 11 * hash + this.getDay();
-		return hash;
+		return packed;
 	}
 
 	@Override
 	public int compareTo(final MrzDate o) {
-		return Integer.valueOf(getYear() * 10000 + getMonth() * 100 + getDay()).compareTo(o.getYear() * 10000 + o.getMonth() * 100 + o.getDay());
+		return compare(packed, o.packed);
 	}
 
 	@Override
@@ -0,0 +1,381 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzRecord;
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Resolves the century of MRZ dates and evaluates expiry and age without allocating.
+ * <p>
+ * A two digit year is resolved to the only year congruent to it in the 100 year window ending at the pivot year. The pivot is relative to the
+ * current year of the clock: by default dates of birth never resolve to a future year (pivot offset 0) while expiration dates may lie up to 50
+ * years ahead (pivot offset 50). Dates are evaluated as epoch days (days since 1970-01-01), so checking many records creates no objects. The
+ * current date is cached and only recomputed when the clock passes midnight.
+ * </p>
+ * <p>
+ * Configure the resolver before sharing it, it is then safe for concurrent use.
+ * </p>
+ * <pre>
+ * final MrzDateResolver resolver = new MrzDateResolver();
+ * if (resolver.isExpired(record) || resolver.getAge(record) &lt; 18) {
+ *   ...
+ * }
+ * </pre>
+ */
+public class MrzDateResolver {
+
+	/**
+	 * Epoch day of an invalid date.
+	 */
+	public static final int INVALID = Integer.MIN_VALUE;
+
+	/**
+	 * Default pivot offset of dates of birth: not after the current year.
+	 */
+	public static final int DEFAULT_BIRTH_PIVOT_OFFSET = 0;
+
+	/**
+	 * Default pivot offset of expiration dates: up to 50 years after the current year.
+	 */
+	public static final int DEFAULT_EXPIRY_PIVOT_OFFSET = 50;
+
+	/**
+	 * Month and day of a civil date, see {@link #civilFromDays(int)}.
+	 */
+	private static final int CIVIL_MONTH_DAY_MASK = (1 << 9) - 1;
+
+	private final Clock clock;
+
+	private int birthPivotOffset = DEFAULT_BIRTH_PIVOT_OFFSET;
+	private int expiryPivotOffset = DEFAULT_EXPIRY_PIVOT_OFFSET;
+
+	private volatile Today today;
+
+	/**
+	 * Construct a resolver using the system clock in the default time-zone.
+	 */
+	public MrzDateResolver() {
+		this(Clock.systemDefaultZone());
+	}
+
+	/**
+	 * @param clock the clock providing the current date
+	 */
+	public MrzDateResolver(final Clock clock) {
+		if (clock == null) {
+			throw new IllegalArgumentException("Parameter clock: invalid value null");
+		}
+		this.clock = clock;
+	}
+
+	/**
+	 * @return the number of years after the current year a date of birth may resolve to
+	 */
+	public int getBirthPivotOffset() {
+		return birthPivotOffset;
+	}
+
+	/**
+	 * @param birthPivotOffset the number of years after the current year a date of birth may resolve to, 0 to 99
+	 */
+	public void setBirthPivotOffset(final int birthPivotOffset) {
+		this.birthPivotOffset = checkOffset(birthPivotOffset, "birthPivotOffset");
+	}
+
+	/**
+	 * @return the number of years after the current year an expiration date may resolve to
+	 */
+	public int getExpiryPivotOffset() {
+		return expiryPivotOffset;
+	}
+
+	/**
+	 * @param expiryPivotOffset the number of years after the current year an expiration date may resolve to, 0 to 99
+	 */
+	public void setExpiryPivotOffset(final int expiryPivotOffset) {
+		this.expiryPivotOffset = checkOffset(expiryPivotOffset, "expiryPivotOffset");
+	}
+
+	/**
+	 * @return the current date of the clock, as an epoch day
+	 */
+	public int today() {
+		return current().epochDay;
+	}
+
+	/**
+	 * @param year the two digit year of a date of birth
+	 * @return the full year
+	 */
+	public int resolveBirthYear(final int year) {
+		return resolve(year, current().year + birthPivotOffset);
+	}
+
+	/**
+	 * @param year the two digit year of an expiration date
+	 * @return the full year
+	 */
+	public int resolveExpiryYear(final int year) {
+		return resolve(year, current().year + expiryPivotOffset);
+	}
+
+	/**
+	 * @param packed the packed date of birth, see {@link MrzDate#pack(int, int, int)}
+	 * @return the epoch day, or {@link #INVALID}
+	 */
+	public int birthEpochDay(final int packed) {
+		return epochDay(packed, current().year + birthPivotOffset);
+	}
+
+	/**
+	 * @param packed the packed expiration date, see {@link MrzDate#pack(int, int, int)}
+	 * @return the epoch day, or {@link #INVALID}
+	 */
+	public int expiryEpochDay(final int packed) {
+		return epochDay(packed, current().year + expiryPivotOffset);
+	}
+
+	/**
+	 * @param date the date of birth, may be null
+	 * @return the resolved date, or null if the date is null or invalid
+	 */
+	public LocalDate toBirthDate(final MrzDate date) {
+		return date == null ? null : toLocalDate(birthEpochDay(date.getPacked()));
+	}
+
+	/**
+	 * @param date the expiration date, may be null
+	 * @return the resolved date, or null if the date is null or invalid
+	 */
+	public LocalDate toExpiryDate(final MrzDate date) {
+		return date == null ? null : toLocalDate(expiryEpochDay(date.getPacked()));
+	}
+
+	/**
+	 * @param record the record
+	 * @return true if the document has expired today, or has no valid expiration date
+	 */
+	public boolean isExpired(final MrzRecord record) {
+		return isExpired(record, today());
+	}
+
+	/**
+	 * @param record the record
+	 * @param epochDay the date to check at
+	 * @return true if the document has expired at the given date, or has no valid expiration date. A document expires the day after its
+	 * expiration date.
+	 */
+	public boolean isExpired(final MrzRecord record, final int epochDay) {
+		return isExpiredPacked(packed(record.getExpirationDate()), epochDay, current().year + expiryPivotOffset);
+	}
+
+	/**
+	 * @param record the record
+	 * @param days the number of days
+	 * @return true if the document has not expired today but will within the given number of days
+	 */
+	public boolean expiresWithin(final MrzRecord record, final int days) {
+		return expiresWithin(record, days, today());
+	}
+
+	/**
+	 * @param record the record
+	 * @param days the number of days
+	 * @param epochDay the date to check at
+	 * @return true if the document has not expired at the given date but will within the given number of days
+	 */
+	public boolean expiresWithin(final MrzRecord record, final int days, final int epochDay) {
+		return expiresWithinPacked(packed(record.getExpirationDate()), days, epochDay, current().year + expiryPivotOffset);
+	}
+
+	/**
+	 * @param record the record
+	 * @return the age of the holder today in completed years, or -1 if the record has no valid date of birth
+	 */
+	public int getAge(final MrzRecord record) {
+		return getAge(record, today());
+	}
+
+	/**
+	 * @param record the record
+	 * @param epochDay the date to compute the age at
+	 * @return the age of the holder at the given date in completed years, or -1 if the record has no valid date of birth
+	 */
+	public int getAge(final MrzRecord record, final int epochDay) {
+		final int civil = civilFromDays(epochDay);
+		return agePacked(packed(record.getDateOfBirth()), civilYear(civil), civil & CIVIL_MONTH_DAY_MASK, current().year + birthPivotOffset);
+	}
+
+	/**
+	 * Checks the expiry of a batch of packed expiration dates.
+	 *
+	 * @param packedDates the packed expiration dates
+	 * @param epochDay the date to check at
+	 * @param expired the results, at the same index as the dates
+	 */
+	public void isExpired(final int[] packedDates, final int epochDay, final boolean[] expired) {
+		checkLength(packedDates.length, expired.length);
+		final int pivot = current().year + expiryPivotOffset;
+		for (int i = 0; i < packedDates.length; i++) {
+			expired[i] = isExpiredPacked(packedDates[i], epochDay, pivot);
+		}
+	}
+
+	/**
+	 * Checks a batch of packed expiration dates for documents expiring soon.
+	 *
+	 * @param packedDates the packed expiration dates
+	 * @param days the number of days
+	 * @param epochDay the date to check at
+	 * @param expiring the results, at the same index as the dates
+	 */
+	public void expiresWithin(final int[] packedDates, final int days, final int epochDay, final boolean[] expiring) {
+		checkLength(packedDates.length, expiring.length);
+		final int pivot = current().year + expiryPivotOffset;
+		for (int i = 0; i < packedDates.length; i++) {
+			expiring[i] = expiresWithinPacked(packedDates[i], days, epochDay, pivot);
+		}
+	}
+
+	/**
+	 * Computes the ages of a batch of packed dates of birth.
+	 *
+	 * @param packedDates the packed dates of birth
+	 * @param epochDay the date to compute the ages at
+	 * @param ages the ages in completed years, or -1 for invalid dates, at the same index as the dates
+	 */
+	public void getAges(final int[] packedDates, final int epochDay, final int[] ages) {
+		checkLength(packedDates.length, ages.length);
+		final int pivot = current().year + birthPivotOffset;
+		final int civil = civilFromDays(epochDay);
+		final int year = civilYear(civil);
+		final int monthDay = civil & CIVIL_MONTH_DAY_MASK;
+		for (int i = 0; i < packedDates.length; i++) {
+			ages[i] = agePacked(packedDates[i], year, monthDay, pivot);
+		}
+	}
+
+	private static boolean isExpiredPacked(final int packed, final int epochDay, final int pivot) {
+		final int expiry = epochDay(packed, pivot);
+		return expiry == INVALID || expiry < epochDay;
+	}
+
+	private static boolean expiresWithinPacked(final int packed, final int days, final int epochDay, final int pivot) {
+		final int expiry = epochDay(packed, pivot);
+		return expiry != INVALID && expiry >= epochDay && expiry - epochDay <= days;
+	}
+
+	private static int agePacked(final int packed, final int year, final int monthDay, final int pivot) {
+		if (!isValid(packed)) {
+			return -1;
+		}
+		final int birthYear = resolve(MrzDate.getYear(packed), pivot);
+		final int birthMonthDay = (MrzDate.getMonth(packed) << 5) | MrzDate.getDay(packed);
+		final int age = year - birthYear - (monthDay < birthMonthDay ? 1 : 0);
+		return age < 0 ? -1 : age;
+	}
+
+	private static int epochDay(final int packed, final int pivot) {
+		if (!isValid(packed)) {
+			return INVALID;
+		}
+		return daysFromCivil(resolve(MrzDate.getYear(packed), pivot), MrzDate.getMonth(packed), MrzDate.getDay(packed));
+	}
+
+	private static boolean isValid(final int packed) {
+		final int month = MrzDate.getMonth(packed);
+		final int day = MrzDate.getDay(packed);
+		return MrzDate.getYear(packed) >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31;
+	}
+
+	private static int resolve(final int year, final int pivot) {
+		return pivot - Math.floorMod(pivot - year, 100);
+	}
+
+	/**
+	 * Days since 1970-01-01 of a proleptic Gregorian date. Days past the end of the month roll over into the next month.
+	 */
+	private static int daysFromCivil(final int year, final int month, final int day) {
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = Math.floorDiv(y, 400);
+		final int yearOfEra = y - era * 400;
+		final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * @return the civil date of an epoch day, packed as year &lt;&lt; 9 | month &lt;&lt; 5 | day
+	 */
+	private static int civilFromDays(final int epochDay) {
+		final int z = epochDay + 719468;
+		final int era = Math.floorDiv(z, 146097);
+		final int dayOfEra = z - era * 146097;
+		final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		final int mp = (5 * dayOfYear + 2) / 153;
+		final int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+		final int month = mp < 10 ? mp + 3 : mp - 9;
+		final int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return (year << 9) | (month << 5) | day;
+	}
+
+	private static int civilYear(final int civil) {
+		return civil >> 9;
+	}
+
+	private static int packed(final MrzDate date) {
+		return date == null ? MrzDate.pack(-1, -1, -1) : date.getPacked();
+	}
+
+	private static LocalDate toLocalDate(final int epochDay) {
+		return epochDay == INVALID ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	private static int checkOffset(final int offset, final String name) {
+		if (offset < 0 || offset > 99) {
+			throw new IllegalArgumentException("Parameter " + name + ": invalid value " + offset + ": must be 0..99");
+		}
+		return offset;
+	}
+
+	private static void checkLength(final int dates, final int results) {
+		if (results < dates) {
+			throw new IllegalArgumentException("Parameter results: invalid length " + results + ": must be at least " + dates);
+		}
+	}
+
+	private Today current() {
+		final Today current = today;
+		final long millis = clock.millis();
+		if (current != null && millis >= current.from && millis < current.until) {
+			return current;
+		}
+		final LocalDate date = LocalDate.now(clock);
+		final Today updated = new Today((int) date.toEpochDay(), date.getYear(),
+				date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(),
+				date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli());
+		today = updated;
+		return updated;
+	}
+
+	/**
+	 * The cached current date.
+	 */
+	private static final class Today {
+
+		private final int epochDay;
+		private final int year;
+		private final long from;
+		private final long until;
+
+		private Today(final int epochDay, final int year, final long from, final long until) {
+			this.epochDay = epochDay;
+			this.year = year;
+			this.from = from;
+			this.until = until;
+		}
+
+	}
+
+}
@@ -28,86 +28,67 @@ import com.innovatrics.mrz.records.MrtdTd2;
 import com.innovatrics.mrz.records.MrvA;
 import com.innovatrics.mrz.records.MrvB;
 import com.innovatrics.mrz.records.SlovakId2x34;
+import java.util.function.Supplier;
 
 /**
- * Lists all supported MRZ formats. Note that the order of the enum constants are important, see for example {@link  #FRENCH_ID}.
+ * Lists all built-in MRZ formats. Formats sharing the same dimensions are told apart by the first characters of the MRZ, see
+ * {@link #getPrefix()}; detection is done by the {@link MrzFormatRegistry}, which also holds custom {@link MrzLayout layouts}.
  *
  * @author Martin Vysny, Pierrick Martin
  */
-public enum MrzFormat {
+public enum MrzFormat implements MrzLayout {
 
 	/**
 	 * MRTD td1 format: A three line long, 30 characters per line format.
 	 */
-	MRTD_TD1(3, 30, MrtdTd1.class),
+	MRTD_TD1(3, 30, "", MrtdTd1.class, MrtdTd1::new),
 	/**
-	 * French 2 line/36 characters per line format, used with French ID cards. Need to occur before the {@link #MRTD_TD2} enum constant because of the
-	 * same values for row/column. See below for the "if" test.
+	 * French 2 line/36 characters per line format, used with French ID cards. Starts with <code>IDFRA</code>, otherwise the same dimensions as
+	 * {@link #MRTD_TD2}.
 	 */
-	FRENCH_ID(2, 36, FrenchIdCard.class) {
-
-		@Override
-		public boolean isFormatOf(final String[] mrzRows) {
-			if (!super.isFormatOf(mrzRows)) {
-				return false;
-			}
-			return mrzRows[0].substring(0, 5).equals("IDFRA");
-		}
-	},
+	FRENCH_ID(2, 36, "IDFRA", FrenchIdCard.class, FrenchIdCard::new),
 	/**
-	 * MRV type-B format: A two lines long, 36 characters per line format. Need to occur before the {@link #MRTD_TD2} enum constant because of the
-	 * same values for row/column. See below for the "if" test.
+	 * MRV type-B format: A two lines long, 36 characters per line format. Starts with <code>V</code>, otherwise the same dimensions as
+	 * {@link #MRTD_TD2}.
 	 */
-	MRV_VISA_B(2, 36, MrvB.class) {
-
-		@Override
-		public boolean isFormatOf(final String[] mrzRows) {
-			if (!super.isFormatOf(mrzRows)) {
-				return false;
-			}
-			return mrzRows[0].substring(0, 1).equals("V");
-		}
-	},
+	MRV_VISA_B(2, 36, "V", MrvB.class, MrvB::new),
 	/**
 	 * MRTD td2 format: A two line long, 36 characters per line format.
 	 */
-	MRTD_TD2(2, 36, MrtdTd2.class),
+	MRTD_TD2(2, 36, "", MrtdTd2.class, MrtdTd2::new),
 	/**
-	 * MRV type-A format: A two lines long, 44 characters per line format Need to occur before {@link #PASSPORT} constant because of the same values
-	 * for row/column. See below for the "if" test.
+	 * MRV type-A format: A two lines long, 44 characters per line format. Starts with <code>V</code>, otherwise the same dimensions as
+	 * {@link #PASSPORT}.
 	 */
-	MRV_VISA_A(2, 44, MrvA.class) {
-
-		@Override
-		public boolean isFormatOf(final String[] mrzRows) {
-			if (!super.isFormatOf(mrzRows)) {
-				return false;
-			}
-			return mrzRows[0].substring(0, 1).equals("V");
-		}
-	},
+	MRV_VISA_A(2, 44, "V", MrvA.class, MrvA::new),
 	/**
 	 * MRP Passport format: A two line long, 44 characters per line format.
 	 */
-	PASSPORT(2, 44, MRP.class),
+	PASSPORT(2, 44, "", MRP.class, MRP::new),
 	/**
 	 * Unknown 2 line/34 characters per line format, used with old Slovak ID cards.
 	 */
-	SLOVAK_ID_234(2, 34, SlovakId2x34.class);
+	SLOVAK_ID_234(2, 34, "", SlovakId2x34.class, SlovakId2x34::new);
 
 	private final int rows;
 	private final int columns;
+	private final String prefix;
 	private final Class<? extends MrzRecord> recordClass;
+	private final Supplier<MrzRecord> recordFactory;
 
-	private MrzFormat(final int rows, final int columns, final Class<? extends MrzRecord> recordClass) {
+	private MrzFormat(final int rows, final int columns, final String prefix, final Class<? extends MrzRecord> recordClass,
+			final Supplier<MrzRecord> recordFactory) {
 		this.rows = rows;
 		this.columns = columns;
+		this.prefix = prefix;
 		this.recordClass = recordClass;
+		this.recordFactory = recordFactory;
 	}
 
 	/**
 	 * @return the rows
 	 */
+	@Override
 	public final int getRows() {
 		return rows;
 	}
@@ -115,10 +96,19 @@ public enum MrzFormat {
 	/**
 	 * @return the columns
 	 */
+	@Override
 	public final int getColumns() {
 		return columns;
 	}
 
+	/**
+	 * @return the characters the MRZ starts with, empty for the formats only told apart by their dimensions
+	 */
+	@Override
+	public final String getPrefix() {
+		return prefix;
+	}
+
 	/**
 	 * @return the recordClass
 	 */
@@ -127,13 +117,14 @@ public enum MrzFormat {
 	}
 
 	/**
-	 * Checks if this format is able to parse given serialized MRZ record.
+	 * Checks if this format is able to parse given serialized MRZ record. Unlike detection, does not check if another format has a longer
+	 * prefix matching the record.
 	 *
 	 * @param mrzRows MRZ record, separated into rows.
 	 * @return true if given MRZ record is of this type, false otherwise.
 	 */
-	public boolean isFormatOf(final String[] mrzRows) {
-		return getRows() == mrzRows.length && getColumns() == mrzRows[0].length();
+	public final boolean isFormatOf(final String[] mrzRows) {
+		return getRows() == mrzRows.length && getColumns() == mrzRows[0].length() && mrzRows[0].startsWith(prefix);
 	}
 
 	/**
@@ -141,35 +132,25 @@ public enum MrzFormat {
 	 *
 	 * @param mrz the MRZ string.
 	 * @return the format, never null.
-	 * @throws MrzParseException could not parse MRZ
+	 * @throws MrzParseException could not parse MRZ, or the MRZ is of a custom layout, see {@link MrzFormatRegistry#get(String)}
 	 */
 	public static final MrzFormat get(final String mrz) throws MrzParseException {
-		final String[] rows = mrz.split("\n");
-		final int cols = rows[0].length();
-		for (int i = 1; i < rows.length; i++) {
-			if (rows[i].length() != cols) {
-				throw new MrzParseException("Different row lengths: 0: " + cols + " and " + i + ": " + rows[i].length(), mrz, new MrzRange(0, 0, 0), null);
-			}
-		}
-		for (final MrzFormat f : values()) {
-			if (f.isFormatOf(rows)) {
-				return f;
-			}
+		final MrzLayout layout = MrzFormatRegistry.get(mrz);
+		if (!(layout instanceof MrzFormat)) {
+			throw new MrzParseException("Not a built-in format: " + layout.name(), mrz, new MrzRange(0, 0, 0), null);
 		}
-		throw new MrzParseException("Unknown format / unsupported number of cols/rows: " + cols + "/" + rows.length, mrz, new MrzRange(0, 0, 0), null);
+		return (MrzFormat) layout;
 	}
 
 	/**
-	 * Creates new record instance with this type.
+	 * Creates new record instance with this type. Records are created with a constructor reference rather than reflection, so no reflection
+	 * metadata is needed in a native image.
 	 *
 	 * @return never null record instance.
 	 */
+	@Override
 	public final MrzRecord newRecord() {
-		try {
-			return getRecordClass().newInstance();
-		} catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
+		return recordFactory.get();
 	}
 
 }
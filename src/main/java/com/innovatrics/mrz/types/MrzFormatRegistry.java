@@ -0,0 +1,346 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzRange;
+import com.innovatrics.mrz.jfr.DetectEvent;
+import com.innovatrics.mrz.jfr.MrzEvents;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the {@link MrzLayout layouts} the parser detects, the built-in {@link MrzFormat} constants and the custom ones.
+ * <p>
+ * Every layout is keyed on its rows, columns and prefix, packed into a <code>long</code>. The keys are compiled into an open addressing hash
+ * table, together with the prefix lengths registered per dimensions. Detection looks up the dimensions, then the first row with each of
+ * their prefix lengths, the longest first, and takes the first layout found: at most {@value #MAX_PREFIX_LENGTH} + 2 lookups however many
+ * layouts are registered, and the longest prefix wins.
+ * Registering rebuilds the table and publishes it atomically.
+ * </p>
+ * <p>
+ * Custom layouts can be removed again with {@link #unregister(MrzLayout)}. Custom layouts found by the {@link ServiceLoader} are registered when
+ * the class is initialized. A provider that fails to load or to
+ * register is logged and skipped, the other layouts are still detected. Lookups are lock-free and thread safe.
+ * </p>
+ * <pre>
+ * MrzFormatRegistry.register(NationalId.INSTANCE);
+ * final MrzRecord record = MrzParser.parse(mrz);
+ * </pre>
+ */
+public final class MrzFormatRegistry {
+
+	/**
+	 * The maximum length of a prefix.
+	 */
+	public static final int MAX_PREFIX_LENGTH = 8;
+
+	private static final int MAX_ROWS = 15;
+	private static final int MAX_COLUMNS = 255;
+
+	private static final Logger LOG = LoggerFactory.getLogger(MrzFormatRegistry.class);
+
+	private static volatile Dispatch dispatch = new Dispatch(new MrzLayout[0]);
+
+	static {
+		for (MrzFormat format : MrzFormat.values()) {
+			register(format);
+		}
+		registerAll(ServiceLoader.load(MrzLayout.class).iterator());
+	}
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private MrzFormatRegistry() {
+		// Do nothing
+	}
+
+	/**
+	 * Adds a layout to the detected layouts.
+	 *
+	 * @param layout the layout
+	 * @throws IllegalArgumentException if the layout is not valid or a layout with the same dimensions and prefix is registered
+	 */
+	public static synchronized void register(final MrzLayout layout) {
+		if (layout.getRows() <= 0 || layout.getRows() > MAX_ROWS) {
+			throw new IllegalArgumentException("Parameter layout: invalid rows " + layout.getRows() + " of " + layout.name() + ": not in 1.." + MAX_ROWS);
+		}
+		if (layout.getColumns() <= 0 || layout.getColumns() > MAX_COLUMNS) {
+			throw new IllegalArgumentException("Parameter layout: invalid columns " + layout.getColumns() + " of " + layout.name() + ": not in 1.."
+					+ MAX_COLUMNS);
+		}
+		final String prefix = layout.getPrefix();
+		if (prefix.length() > Math.min(MAX_PREFIX_LENGTH, layout.getColumns()) || packChars(prefix, prefix.length()) < 0) {
+			throw new IllegalArgumentException("Parameter layout: invalid prefix " + prefix + " of " + layout.name() + ": not up to "
+					+ MAX_PREFIX_LENGTH + " MRZ characters");
+		}
+		final Dispatch current = dispatch;
+		final MrzLayout existing = current.find(key(layout));
+		if (existing != null) {
+			throw new IllegalArgumentException("Parameter layout: invalid value " + layout.name() + ": same dimensions and prefix as "
+					+ existing.name());
+		}
+		final MrzLayout[] layouts = Arrays.copyOf(current.layouts, current.layouts.length + 1);
+		layouts[layouts.length - 1] = layout;
+		dispatch = new Dispatch(layouts);
+	}
+
+	/**
+	 * Removes a custom layout from the detected layouts. Like {@link #register(MrzLayout)}, it rebuilds the table and publishes it atomically.
+	 *
+	 * @param layout the custom layout
+	 * @return true if the layout was registered and is removed, false if it was not registered
+	 * @throws IllegalArgumentException if the layout is a built-in {@link MrzFormat}
+	 */
+	public static synchronized boolean unregister(final MrzLayout layout) {
+		if (layout instanceof MrzFormat) {
+			throw new IllegalArgumentException("Parameter layout: invalid value " + layout.name() + ": built-in formats can not be unregistered");
+		}
+		final MrzLayout[] current = dispatch.layouts;
+		final List<MrzLayout> kept = new ArrayList<>(current.length);
+		for (MrzLayout registered : current) {
+			if (registered != layout) {
+				kept.add(registered);
+			}
+		}
+		if (kept.size() == current.length) {
+			return false;
+		}
+		dispatch = new Dispatch(kept.toArray(new MrzLayout[0]));
+		return true;
+	}
+
+	/**
+	 * Registers the layouts of the providers, logging and skipping the ones that fail to load or to register.
+	 *
+	 * @param providers the providers
+	 */
+	static void registerAll(final Iterator<MrzLayout> providers) {
+		while (true) {
+			final MrzLayout layout;
+			try {
+				if (!providers.hasNext()) {
+					return;
+				}
+				layout = providers.next();
+			} catch (ServiceConfigurationError ex) {
+				// The service loader goes on with the next provider
+				LOG.error("Failed to load MRZ layout provider", ex);
+				continue;
+			}
+			try {
+				register(layout);
+			} catch (RuntimeException ex) {
+				LOG.error("Failed to register MRZ layout provider " + layout.getClass().getName(), ex);
+			}
+		}
+	}
+
+	/**
+	 * @return the registered layouts, in order of registration
+	 */
+	public static List<MrzLayout> getLayouts() {
+		return Collections.unmodifiableList(Arrays.asList(dispatch.layouts));
+	}
+
+	/**
+	 * Detects the layout of an MRZ.
+	 *
+	 * @param mrz the MRZ string.
+	 * @return the layout, never null.
+	 * @throws MrzParseException could not parse MRZ
+	 */
+	public static MrzLayout get(final String mrz) throws MrzParseException {
+		if (!MrzEvents.AVAILABLE) {
+			return detect(mrz);
+		}
+		final DetectEvent event = new DetectEvent();
+		event.begin();
+		MrzLayout layout = null;
+		try {
+			layout = detect(mrz);
+			return layout;
+		} finally {
+			event.complete(layout, mrz.length(), layout == null ? MrzEvents.ERROR : MrzEvents.VALID);
+		}
+	}
+
+	/**
+	 * Detects the layout of an MRZ split into rows.
+	 *
+	 * @param rows the rows of the MRZ
+	 * @return the layout, or null if no layout matches
+	 */
+	public static MrzLayout find(final String[] rows) {
+		return dispatch.find(rows.length, rows[0]);
+	}
+
+	private static MrzLayout detect(final String mrz) throws MrzParseException {
+		final String[] rows = mrz.split("\n");
+		final int cols = rows[0].length();
+		for (int i = 1; i < rows.length; i++) {
+			if (rows[i].length() != cols) {
+				throw new MrzParseException("Different row lengths: 0: " + cols + " and " + i + ": " + rows[i].length(), mrz, new MrzRange(0, 0, 0), null);
+			}
+		}
+		final MrzLayout layout = find(rows);
+		if (layout == null) {
+			throw new MrzParseException("Unknown format / unsupported number of cols/rows: " + cols + "/" + rows.length, mrz, new MrzRange(0, 0, 0), null);
+		}
+		return layout;
+	}
+
+	private static long key(final MrzLayout layout) {
+		final String prefix = layout.getPrefix();
+		return key(layout.getRows(), layout.getColumns(), prefix.length(), packChars(prefix, prefix.length()));
+	}
+
+	/**
+	 * Packs the dimensions and prefix: 4 bits of rows, 8 bits of columns, 4 bits of prefix length and 6 bits per prefix character.
+	 */
+	private static long key(final int rows, final int columns, final int prefixLength, final long chars) {
+		return (long) rows << 60 | (long) columns << 52 | (long) prefixLength << 48 | chars;
+	}
+
+	private static long lengthKey(final int rows, final int columns) {
+		return key(rows, columns, 0xF, 0);
+	}
+
+	/**
+	 * @return the first characters packed at 6 bits each, the first character in the lowest bits, or -1 if one is not an MRZ character
+	 */
+	private static long packChars(final String text, final int length) {
+		long chars = 0;
+		for (int i = 0; i < length; i++) {
+			final int code = code(text.charAt(i));
+			if (code < 0) {
+				return -1;
+			}
+			chars |= (long) code << (6 * i);
+		}
+		return chars;
+	}
+
+	private static int code(final char c) {
+		if (c == '<') {
+			return 0;
+		}
+		if (c >= '0' && c <= '9') {
+			return c - '0' + 1;
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 11;
+		}
+		return -1;
+	}
+
+	/**
+	 * The compiled hash table of the layouts. Immutable.
+	 */
+	private static final class Dispatch {
+
+		private final MrzLayout[] layouts;
+		private final long[] keys;
+		private final MrzLayout[] values;
+		private final int mask;
+		/**
+		 * The bit set of the prefix lengths registered per dimensions, keyed like the layouts with the prefix length bits all set.
+		 */
+		private final long[] lengthKeys;
+		private final int[] lengths;
+
+		private Dispatch(final MrzLayout[] layouts) {
+			this.layouts = layouts;
+			final int capacity = Integer.highestOneBit(Math.max(1, layouts.length) * 4 - 1) << 1;
+			keys = new long[capacity];
+			values = new MrzLayout[capacity];
+			mask = capacity - 1;
+			lengthKeys = new long[capacity];
+			lengths = new int[capacity];
+			for (MrzLayout layout : layouts) {
+				final long key = key(layout);
+				int slot = slot(key);
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = layout;
+				final long lengthKey = lengthKey(layout.getRows(), layout.getColumns());
+				slot = slot(lengthKey);
+				while (lengths[slot] != 0 && lengthKeys[slot] != lengthKey) {
+					slot = (slot + 1) & mask;
+				}
+				lengthKeys[slot] = lengthKey;
+				lengths[slot] |= 1 << layout.getPrefix().length();
+			}
+		}
+
+		private MrzLayout find(final int rows, final String firstRow) {
+			final int columns = firstRow.length();
+			if (rows > MAX_ROWS || columns > MAX_COLUMNS) {
+				return null;
+			}
+			int prefixLengths = lengths(lengthKey(rows, columns));
+			if (prefixLengths == 0) {
+				return null;
+			}
+			final int length = 31 - Integer.numberOfLeadingZeros(prefixLengths);
+			long chars = 0;
+			for (int i = 0; i < length; i++) {
+				final int code = code(firstRow.charAt(i));
+				if (code < 0) {
+					// Longer prefixes can not match
+					prefixLengths &= (1 << (i + 1)) - 1;
+					break;
+				}
+				chars |= (long) code << (6 * i);
+			}
+			while (prefixLengths != 0) {
+				final int prefixLength = 31 - Integer.numberOfLeadingZeros(prefixLengths);
+				prefixLengths &= ~(1 << prefixLength);
+				final long prefix = prefixLength == 0 ? 0 : chars & (-1L >>> (64 - 6 * prefixLength));
+				final MrzLayout layout = find(key(rows, columns, prefixLength, prefix));
+				if (layout != null) {
+					return layout;
+				}
+			}
+			return null;
+		}
+
+		private int lengths(final long lengthKey) {
+			int slot = slot(lengthKey);
+			while (lengths[slot] != 0) {
+				if (lengthKeys[slot] == lengthKey) {
+					return lengths[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			return 0;
+		}
+
+		private MrzLayout find(final long key) {
+			int slot = slot(key);
+			while (values[slot] != null) {
+				if (keys[slot] == key) {
+					return values[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			return null;
+		}
+
+		private int slot(final long key) {
+			long hash = key * 0x9e3779b97f4a7c15L;
+			hash ^= hash >>> 32;
+			return (int) hash & mask;
+		}
+
+	}
+
+}
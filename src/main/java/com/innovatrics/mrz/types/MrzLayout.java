@@ -0,0 +1,58 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzRecord;
+import java.io.Serializable;
+
+/**
+ * The layout of an MRZ format: its dimensions, the characters it starts with and the record type decoding it.
+ * <p>
+ * The built-in layouts are the {@link MrzFormat} constants. Custom layouts, e.g. national ID cards, are added with
+ * {@link MrzFormatRegistry#register(MrzLayout)} or registered as a {@link java.util.ServiceLoader} provider of this interface. A layout is
+ * detected when the MRZ has its number of rows and columns and the first row starts with its prefix, the layout with the longest matching
+ * prefix wins. Records of a custom layout extend {@link MrzRecord}, pass the layout to its constructor and decode their fields in
+ * {@code fromMrz(MrzParser)}.
+ * </p>
+ * <p>
+ * Layouts are part of the records and serialized with them, implement them as enums or singletons resolving to the registered instance.
+ * </p>
+ * <pre>
+ * public enum NationalId implements MrzLayout {
+ *   INSTANCE;
+ *   public int getRows() { return 2; }
+ *   public int getColumns() { return 36; }
+ *   public String getPrefix() { return "IDXYZ"; }
+ *   public MrzRecord newRecord() { return new NationalIdRecord(); }
+ * }
+ * </pre>
+ */
+public interface MrzLayout extends Serializable {
+
+	/**
+	 * @return the name of the layout, used in events and messages
+	 */
+	String name();
+
+	/**
+	 * @return the number of rows
+	 */
+	int getRows();
+
+	/**
+	 * @return the number of characters per row
+	 */
+	int getColumns();
+
+	/**
+	 * @return the MRZ characters the first row starts with, at most {@value MrzFormatRegistry#MAX_PREFIX_LENGTH}, empty to match any MRZ of the
+	 * dimensions not matched by a longer prefix
+	 */
+	String getPrefix();
+
+	/**
+	 * Creates a new record of this layout, ready to decode an MRZ with {@link MrzRecord#fromMrz(String)}.
+	 *
+	 * @return never null record instance.
+	 */
+	MrzRecord newRecord();
+
+}
@@ -0,0 +1,25 @@
+/**
+ * MRZ Record Parser.
+ * <p>
+ * Compiled for Java 11 and later into <code>META-INF/versions/11</code> of the multi-release jar, the library itself targets Java 8. The module
+ * needs only <code>java.base</code> and the SLF4J API, so a jlink runtime of an application parsing MRZs does not include
+ * <code>java.desktop</code>. Java Flight Recorder events are only emitted when <code>jdk.jfr</code> is resolved, e.g. with
+ * <code>--add-modules jdk.jfr</code>.
+ * </p>
+ */
+module com.innovatrics.mrz {
+	requires org.slf4j;
+	requires static jdk.jfr;
+
+	exports com.innovatrics.mrz;
+	exports com.innovatrics.mrz.generator;
+	exports com.innovatrics.mrz.jfr;
+	exports com.innovatrics.mrz.metrics;
+	exports com.innovatrics.mrz.records;
+	exports com.innovatrics.mrz.screening;
+	exports com.innovatrics.mrz.store;
+	exports com.innovatrics.mrz.types;
+
+	uses com.innovatrics.mrz.metrics.MrzMetrics;
+	uses com.innovatrics.mrz.types.MrzLayout;
+}
@@ -0,0 +1,40 @@
+package com.innovatrics.mrz;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzCli}.
+ */
+public class MrzCliTest {
+
+	private static final String MRZ = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+	private static final String INVALID_MRZ = "I<SVKNOVAK<<JAN<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n123456";
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+	@Test
+	public void testArguments() throws MrzParseException {
+		Assert.assertEquals(0, run("", MRZ.replace("\n", "\\n")));
+		Assert.assertEquals(MrzParser.parse(MRZ) + System.lineSeparator(), out.toString());
+		Assert.assertEquals(0, err.size());
+	}
+
+	@Test
+	public void testInput() throws MrzParseException {
+		Assert.assertEquals(1, run("\n" + MRZ + "\n\n  \n" + INVALID_MRZ + "\n\n" + MRZ));
+		final String record = MrzParser.parse(MRZ).toString();
+		Assert.assertEquals(record + System.lineSeparator() + record + System.lineSeparator(), out.toString());
+		Assert.assertTrue(err.toString().startsWith("Parse failed: "));
+	}
+
+	private int run(final String input, final String... args) {
+		return MrzCli.run(args, new BufferedReader(new StringReader(input)), new PrintStream(out, true), new PrintStream(err, true));
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.types.MrzDate;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzFingerprint}.
+ */
+public class MrzFingerprintTest {
+
+	private static final String MRZ = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+
+	@Test
+	public void testStable() throws MrzParseException {
+		Assert.assertEquals(5905892858672112001L, MrzFingerprint.of(MrzParser.parse(MRZ)));
+	}
+
+	@Test
+	public void testFields() throws MrzParseException {
+		final MrzRecord record = MrzParser.parse(MRZ);
+		Assert.assertEquals(MrzFingerprint.of(record), MrzFingerprint.of('P', '<', "CZE", "99003853", new MrzDate(11, 1, 1), new MrzDate(12, 7, 4)));
+		Assert.assertNotEquals(MrzFingerprint.of(record), MrzFingerprint.of('P', '<', "CZE", "99003854", new MrzDate(11, 1, 1), new MrzDate(12, 7, 4)));
+		Assert.assertNotEquals(MrzFingerprint.of(record), MrzFingerprint.of('P', '<', "SVK", "99003853", new MrzDate(11, 1, 1), new MrzDate(12, 7, 4)));
+		Assert.assertNotEquals(MrzFingerprint.of(record), MrzFingerprint.of('P', '<', "CZE", "99003853", new MrzDate(11, 1, 2), new MrzDate(12, 7, 4)));
+		Assert.assertNotEquals(MrzFingerprint.of(record), MrzFingerprint.of('P', '<', "CZE", "99003853", new MrzDate(11, 1, 1), null));
+		Assert.assertNotEquals(MrzFingerprint.of(record), MrzFingerprint.of('I', '<', "CZE", "99003853", new MrzDate(11, 1, 1), new MrzDate(12, 7, 4)));
+		Assert.assertNotEquals(MrzFingerprint.of('P', '<', "CZE", "1", null, null), MrzFingerprint.of('P', '<', "CZE1", "", null, null));
+	}
+
+	@Test
+	public void testRecord() throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(9);
+		generator.setInvalidCheckDigitRate(0.2);
+		for (int i = 0; i < 1000; i++) {
+			final MrzRecord record = MrzParser.parse(generator.generate(i));
+			Assert.assertEquals(MrzFingerprint.of(record), record.getFingerprint());
+		}
+		final MrzRecord record = MrzParser.parse(MRZ);
+		final long fingerprint = record.getFingerprint();
+		record.setDocumentNumber("99003854");
+		Assert.assertNotEquals(fingerprint, record.getFingerprint());
+		Assert.assertEquals(MrzFingerprint.of(record), record.getFingerprint());
+	}
+
+	@Test
+	public void testRawAndParsed() {
+		Assert.assertEquals(MrzFingerprint.hash("AB, C D"), MrzFingerprint.hash("AB<<C<D<<<"));
+		Assert.assertEquals(MrzFingerprint.hash("D"), MrzFingerprint.hash("D<<"));
+		Assert.assertEquals(MrzFingerprint.hash(""), MrzFingerprint.hash("<<<"));
+	}
+
+}
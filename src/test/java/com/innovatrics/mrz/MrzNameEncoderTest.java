@@ -0,0 +1,44 @@
+package com.innovatrics.mrz;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzNameEncoder}.
+ */
+public class MrzNameEncoderTest {
+
+	@Test
+	public void testEncodeToBuffer() {
+		final MrzNameEncoder encoder = new MrzNameEncoder();
+		final char[] buffer = new char[48];
+		Assert.assertEquals(19, encoder.encode("Herbert", "Frank", 17, buffer, 2));
+		Assert.assertEquals("HERBERT<<FRANK<<<", new String(buffer, 2, 17));
+		// Reuse the encoder for a name that must be truncated
+		Assert.assertEquals(31, encoder.encode("Nilavadhanananda", "Chayapa Dejthamrong Krasuang", 31, buffer, 0));
+		Assert.assertEquals("NILAVADHANANANDA<<CHAYAPA<DEJ<K", new String(buffer, 0, 31));
+	}
+
+	@Test
+	public void testManyParts() {
+		final StringBuilder given = new StringBuilder();
+		for (int i = 0; i < 12; i++) {
+			given.append("Name ");
+		}
+		Assert.assertEquals("SMITH<<NA<N<N<N<N<N<N<N<N<N<N<N", new MrzNameEncoder().encode("Smith", given.toString(), 31));
+	}
+
+	@Test
+	public void testEmptyPart() {
+		// The apostrophe transliterates to nothing, leaving an empty part that stays empty when truncating
+		Assert.assertEquals("NOVAK<<JAN<<PETER<<<<<<<<<<<<<", new MrzNameEncoder().encode("Novak", "Jan ' Peter", 30));
+		Assert.assertEquals("NOV<<J<<P", new MrzNameEncoder().encode("Novak", "Jan ' Peter", 9));
+		Assert.assertEquals("N<<J<<P", MrzParser.nameToMrz("Novak", "Jan ' Peter", 7));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCannotTruncate() {
+		new MrzNameEncoder().encode("A B C D", "E F G H", 8);
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.generator.MrzGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzParseCache}.
+ */
+public class MrzParseCacheTest {
+
+	private static final String CZECH_PASSPORT = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+
+	@Test
+	public void testHit() throws MrzParseException {
+		final MrzParseCache cache = new MrzParseCache(100);
+		final MrzRecord record = cache.parse(CZECH_PASSPORT);
+		Assert.assertTrue(record.isFrozen());
+		Assert.assertSame(record, cache.parse(" " + CZECH_PASSPORT.replace("\n", " \r\n\n") + "\n"));
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(0.5, cache.getHitRate(), 0);
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFrozen() throws MrzParseException {
+		new MrzParseCache(1).parse(CZECH_PASSPORT).setSurname("CHANGED");
+	}
+
+	@Test
+	public void testInvalidNotCached() {
+		final MrzParseCache cache = new MrzParseCache(10);
+		try {
+			cache.parse("P<CZE\nSPECIMEN");
+			Assert.fail("Expected MrzParseException");
+		} catch (MrzParseException ex) {
+			// Expected
+		}
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testEviction() throws MrzParseException {
+		final MrzParseCache cache = new MrzParseCache(16);
+		final MrzGenerator generator = new MrzGenerator(1);
+		for (int i = 0; i < 100; i++) {
+			cache.parse(generator.generate(i));
+		}
+		Assert.assertTrue(cache.size() <= 16);
+		Assert.assertEquals(100 - cache.size(), cache.getEvictionCount());
+	}
+
+	@Test
+	public void testByteLimit() throws MrzParseException {
+		// 16 segments, each with room for a single passport
+		final MrzParseCache cache = new MrzParseCache(1000, 16 * (MrzParseCache.RECORD_BYTES + 2 * 89));
+		final MrzGenerator generator = new MrzGenerator(1);
+		for (int i = 0; i < 100; i++) {
+			cache.parse(generator.generate(i));
+		}
+		Assert.assertTrue(cache.size() <= 16);
+		Assert.assertEquals(100 - cache.size(), cache.getEvictionCount());
+	}
+
+	@Test
+	public void testNormalize() {
+		Assert.assertSame(CZECH_PASSPORT, MrzParseCache.normalize(CZECH_PASSPORT));
+		Assert.assertEquals("AB\nCD", MrzParseCache.normalize("\n  AB \r\n\n\tCD\n"));
+	}
+
+}
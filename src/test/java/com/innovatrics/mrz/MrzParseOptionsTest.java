@@ -0,0 +1,66 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.generator.MrzGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzParseOptions}.
+ */
+public class MrzParseOptionsTest {
+
+	private static final String MRZ = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+	private static final String INVALID_CHECK_DIGITS = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<2CZE1101013M1207041110101111<<<<<95";
+	private static final String INVALID_CHARACTER = "P<CZESPECIMEN<<VZ*R<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+
+	@Test
+	public void testSameFields() throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(49);
+		for (int i = 0; i < 1000; i++) {
+			final String mrz = generator.generate(i);
+			final MrzRecord strict = MrzParser.parse(mrz, MrzParseOptions.STRICT);
+			final MrzRecord trusted = MrzParser.parse(mrz, MrzParseOptions.TRUSTED);
+			Assert.assertEquals(strict.toString(), trusted.toString());
+			Assert.assertEquals(strict.getFingerprint(), trusted.getFingerprint());
+			Assert.assertTrue(trusted.isValidDocumentNumber() && trusted.isValidDateOfBirth() && trusted.isValidExpirationDate()
+					&& trusted.isValidComposite());
+		}
+	}
+
+	@Test
+	public void testCheckDigitsNotVerified() throws MrzParseException {
+		final MrzRecord strict = MrzParser.parse(INVALID_CHECK_DIGITS);
+		Assert.assertFalse(strict.isValidDocumentNumber());
+		Assert.assertFalse(strict.isValidDateOfBirth());
+		Assert.assertFalse(strict.isValidExpirationDate());
+		Assert.assertFalse(strict.isValidComposite());
+		final MrzRecord trusted = MrzParser.parse(INVALID_CHECK_DIGITS, MrzParseOptions.TRUSTED);
+		Assert.assertTrue(trusted.isValidDocumentNumber());
+		Assert.assertTrue(trusted.isValidDateOfBirth());
+		Assert.assertTrue(trusted.isValidExpirationDate());
+		Assert.assertTrue(trusted.isValidComposite());
+		Assert.assertEquals(strict.toString(), trusted.toString());
+	}
+
+	@Test
+	public void testCharactersNotValidated() throws MrzParseException {
+		try {
+			MrzParser.parse(INVALID_CHARACTER, MrzParseOptions.STRICT);
+			Assert.fail("Expected invalid character");
+		} catch (MrzParseException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Invalid character"));
+		}
+		Assert.assertEquals("VZ*R", MrzParser.parse(INVALID_CHARACTER, MrzParseOptions.TRUSTED).getGivenNames());
+	}
+
+	@Test
+	public void testPerCall() throws MrzParseException {
+		MrzParser.parse(INVALID_CHECK_DIGITS, MrzParseOptions.TRUSTED);
+		Assert.assertFalse(MrzParser.parse(INVALID_CHECK_DIGITS).isValidComposite());
+		Assert.assertTrue(MrzParser.parse(MRZ).isValidComposite());
+		final MrzRecord record = MrzParser.parse(MRZ).getFormat().newRecord();
+		record.fromMrz(INVALID_CHECK_DIGITS);
+		Assert.assertFalse(record.isValidComposite());
+	}
+
+}
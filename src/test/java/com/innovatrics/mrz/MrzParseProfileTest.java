@@ -0,0 +1,113 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.types.MrzFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzParseProfile}.
+ */
+public class MrzParseProfileTest {
+
+	private static final String CZECH_PASSPORT = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+
+	@Test
+	public void testStages() throws MrzParseException {
+		final MrzParseProfile profile = new MrzParseProfile();
+		final MrzRecord record = MrzParser.parse(CZECH_PASSPORT, profile);
+		Assert.assertEquals("SPECIMEN", record.getSurname());
+		Assert.assertEquals(MrzFormat.PASSPORT, profile.getFormat());
+		Assert.assertEquals(MrzParseProfile.Stage.SPLIT_ROWS, profile.getStage(0));
+		Assert.assertEquals(MrzParseProfile.Stage.DETECT_FORMAT, profile.getStage(1));
+		Assert.assertEquals(MrzParseProfile.Stage.NEW_RECORD, profile.getStage(2));
+		int splits = 0;
+		int detections = 0;
+		int names = 0;
+		int checkDigits = 0;
+		int fields = 0;
+		long sum = 0;
+		for (int i = 0; i < profile.getStageCount(); i++) {
+			sum += profile.getStageNanos(i);
+			switch (profile.getStage(i)) {
+				case SPLIT_ROWS:
+					splits++;
+					break;
+				case DETECT_FORMAT:
+					detections++;
+					break;
+				case NAME:
+					names++;
+					Assert.assertEquals("5-44,0", profile.getStageName(i));
+					break;
+				case CHECK_DIGIT:
+					checkDigits++;
+					break;
+				case FIELD:
+					fields++;
+					break;
+				default:
+					break;
+			}
+		}
+		Assert.assertEquals(1, splits);
+		Assert.assertEquals(1, detections);
+		// the name parts are not recorded separately
+		Assert.assertEquals(1, names);
+		Assert.assertEquals(5, checkDigits);
+		// issuing country, document number, nationality, date of birth, sex, expiration date, personal number
+		Assert.assertEquals(7, fields);
+		Assert.assertEquals(profile.getTotalNanos(), sum + profile.getOtherNanos());
+		Assert.assertTrue(profile.getNanos(MrzParseProfile.Stage.CHECK_DIGIT) > 0);
+		Assert.assertTrue(profile.toString().contains("CHECK_DIGIT passport number: "));
+	}
+
+	@Test
+	public void testReuse() throws MrzParseException {
+		final MrzParseProfile profile = new MrzParseProfile();
+		MrzParser.parse(CZECH_PASSPORT, profile);
+		final int count = profile.getStageCount();
+		MrzParser.parse(CZECH_PASSPORT, profile);
+		Assert.assertEquals(count, profile.getStageCount());
+		// Not profiled
+		MrzParser.parse(CZECH_PASSPORT);
+		Assert.assertEquals(count, profile.getStageCount());
+	}
+
+	@Test
+	public void testAggregate() throws MrzParseException {
+		final MrzParseProfile profile = new MrzParseProfile();
+		final MrzParseProfile total = new MrzParseProfile();
+		long checkDigitNanos = 0;
+		long totalNanos = 0;
+		for (int i = 0; i < 3; i++) {
+			MrzParser.parse(CZECH_PASSPORT, profile);
+			checkDigitNanos += profile.getNanos(MrzParseProfile.Stage.CHECK_DIGIT);
+			totalNanos += profile.getTotalNanos();
+			total.add(profile);
+		}
+		Assert.assertEquals(3, total.getParseCount());
+		Assert.assertEquals(MrzFormat.PASSPORT, total.getFormat());
+		Assert.assertEquals(profile.getStageCount(), total.getStageCount());
+		Assert.assertEquals(checkDigitNanos, total.getNanos(MrzParseProfile.Stage.CHECK_DIGIT));
+		Assert.assertEquals(totalNanos, total.getTotalNanos());
+		MrzParser.parse("CIUTOD231458907A123X5328434D23\n3407127M9507122UTO<<<<<<<<<<<6\nSTEVENSON<<PETER<<<<<<<<<<<<<<", profile);
+		total.add(profile);
+		Assert.assertEquals(4, total.getParseCount());
+		Assert.assertNull(total.getFormat());
+	}
+
+	@Test
+	public void testInvalid() {
+		final MrzParseProfile profile = new MrzParseProfile();
+		try {
+			MrzParser.parse("P<CZE\nSPECIMEN", profile);
+			Assert.fail("Expected MrzParseException");
+		} catch (MrzParseException ex) {
+			// Expected
+		}
+		Assert.assertNull(profile.getFormat());
+		Assert.assertEquals(1, profile.getStageCount());
+		Assert.assertEquals(MrzParseProfile.Stage.SPLIT_ROWS, profile.getStage(0));
+	}
+
+}
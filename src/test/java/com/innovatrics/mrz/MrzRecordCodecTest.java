@@ -0,0 +1,121 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzRecordCodec}.
+ */
+public class MrzRecordCodecTest {
+
+	private static List<MrzRecord> records(final int count) throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(7);
+		generator.setInvalidCheckDigitRate(0.3);
+		final List<MrzRecord> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			records.add(MrzParser.parse(generator.generate(i)));
+		}
+		return records;
+	}
+
+	private static void assertSame(final MrzRecord expected, final MrzRecord actual) {
+		Assert.assertEquals(expected.getFormat(), actual.getFormat());
+		Assert.assertEquals(expected.toString(), actual.toString());
+		Assert.assertEquals(expected.toMrz(), actual.toMrz());
+		Assert.assertEquals(expected.getRawMrz().trim(), actual.getRawMrz());
+		Assert.assertEquals(expected.isValidDocumentNumber(), actual.isValidDocumentNumber());
+		Assert.assertEquals(expected.isValidDateOfBirth(), actual.isValidDateOfBirth());
+		Assert.assertEquals(expected.isValidExpirationDate(), actual.isValidExpirationDate());
+		Assert.assertEquals(expected.isValidComposite(), actual.isValidComposite());
+	}
+
+	@Test
+	public void testEncodedLength() throws MrzParseException {
+		Assert.assertEquals(67, MrzRecordCodec.getEncodedLength(MrzFormat.PASSPORT));
+		Assert.assertEquals(69, MrzRecordCodec.getEncodedLength(MrzFormat.MRTD_TD1));
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		Assert.assertEquals(67, new MrzRecordCodec().encode(record).length);
+	}
+
+	@Test
+	public void testRoundTrip() throws MrzParseException {
+		final MrzRecordCodec codec = new MrzRecordCodec();
+		boolean invalid = false;
+		for (MrzRecord record : records(500)) {
+			final byte[] bytes = codec.encode(record);
+			Assert.assertEquals(MrzRecordCodec.getEncodedLength(record.getFormat()), bytes.length);
+			assertSame(record, codec.decode(bytes));
+			invalid |= !record.isValidDocumentNumber() || !record.isValidComposite();
+		}
+		Assert.assertTrue(invalid);
+	}
+
+	@Test
+	public void testRawMrz() throws MrzParseException {
+		final MrzRecordCodec codec = new MrzRecordCodec();
+		// Single name, can not be written back by the record
+		final String singleName = "P<UTOERIKSSON<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\nL898902C<3UTO6908061F9406236ZE184226B<<<<<14";
+		// Invalid document number check digit
+		final String invalid = "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C<4UTO6908061F9406236ZE184226B<<<<<14";
+		for (String mrz : new String[]{singleName, invalid}) {
+			final MrzRecord record = MrzParser.parse(mrz);
+			final MrzRecord decoded = codec.decode(codec.encode(record));
+			Assert.assertEquals(mrz, decoded.getRawMrz());
+			Assert.assertEquals(record.toString(), decoded.toString());
+			Assert.assertEquals(record.isValidDocumentNumber(), decoded.isValidDocumentNumber());
+			Assert.assertEquals(record.isValidComposite(), decoded.isValidComposite());
+		}
+		Assert.assertEquals("", MrzParser.parse(singleName).getSurname());
+		Assert.assertFalse(MrzParser.parse(invalid).isValidDocumentNumber());
+	}
+
+	@Test
+	public void testModified() throws MrzParseException {
+		final MrzRecordCodec codec = new MrzRecordCodec();
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		Assert.assertNotNull(record.getRawMrz());
+		record.setDocumentNumber("AB1234567");
+		record.setSurname("CHANGED");
+		Assert.assertNull(record.getRawMrz());
+		final MrzRecord decoded = codec.decode(codec.encode(record));
+		Assert.assertEquals("AB1234567", decoded.getDocumentNumber());
+		Assert.assertEquals("CHANGED", decoded.getSurname());
+		Assert.assertEquals("VZOR", decoded.getGivenNames());
+		Assert.assertEquals(record.toMrz().trim(), decoded.getRawMrz());
+	}
+
+	@Test
+	public void testStream() throws IOException, MrzParseException {
+		final List<MrzRecord> records = records(2000);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final MrzRecordCodec codec = new MrzRecordCodec();
+		Assert.assertEquals(records.size(), codec.writeAll(records, Channels.newChannel(out)));
+		final List<MrzRecord> decoded = new ArrayList<>();
+		Assert.assertEquals(records.size(), codec.readAll(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), decoded::add));
+		Assert.assertEquals(records.size(), decoded.size());
+		for (int i = 0; i < records.size(); i++) {
+			assertSame(records.get(i), decoded.get(i));
+		}
+	}
+
+	@Test(expected = EOFException.class)
+	public void testTruncatedStream() throws IOException, MrzParseException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final MrzRecordCodec codec = new MrzRecordCodec();
+		codec.writeAll(records(3), Channels.newChannel(out));
+		final byte[] bytes = out.toByteArray();
+		codec.readAll(Channels.newChannel(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))), record -> {
+		});
+	}
+
+}
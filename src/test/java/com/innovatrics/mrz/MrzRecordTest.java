@@ -0,0 +1,78 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.records.MRP;
+import com.innovatrics.mrz.records.MrtdTd1;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzRecord}.
+ */
+public class MrzRecordTest {
+
+	private static final String PASSPORT = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+	private static final String TD1 = "CIUTOD231458907A123X5328434D23\n3407127M9507122UTO<<<<<<<<<<<6\nSTEVENSON<<PETER<<<<<<<<<<<<<<";
+
+	/**
+	 * The passport serialized by release 0.8.
+	 */
+	private static final String SERIALIZED_PASSPORT = "rO0ABXNyAB9jb20uaW5ub3ZhdHJpY3MubXJ6LnJlY29yZHMuTVJQAAAAAAAAAAECAAJaABN2YWxpZFBlcnNvbmFsTnVtYmVyTAAOcGVyc29uYWxOdW1iZXJ0ABJMamF2YS9sYW5nL1N0cmluZzt4cgAdY29tLmlubm92YXRyaWNzLm1yei5NcnpSZWNvcmS+x4nEzXP7hQIAEUMABWNvZGUxQwAFY29kZTJaAA52YWxpZENvbXBvc2l0ZVoAEHZhbGlkRGF0ZU9mQmlydGhaABN2YWxpZERvY3VtZW50TnVtYmVyWgATdmFsaWRFeHBpcmF0aW9uRGF0ZUwABGNvZGV0ACtMY29tL2lubm92YXRyaWNzL21yei90eXBlcy9NcnpEb2N1bWVudENvZGU7TAALZGF0ZU9mQmlydGh0ACNMY29tL2lubm92YXRyaWNzL21yei90eXBlcy9NcnpEYXRlO0wADmRvY3VtZW50TnVtYmVycQB+AAFMAA5leHBpcmF0aW9uRGF0ZXEAfgAETAAGZm9ybWF0dAAlTGNvbS9pbm5vdmF0cmljcy9tcnovdHlwZXMvTXJ6Rm9ybWF0O0wACmdpdmVuTmFtZXNxAH4AAUwADmlzc3VpbmdDb3VudHJ5cQB+AAFMAAtuYXRpb25hbGl0eXEAfgABTAAKcmVjb3JkTmFtZXEAfgABTAADc2V4dAAiTGNvbS9pbm5vdmF0cmljcy9tcnovdHlwZXMvTXJ6U2V4O0wAB3N1cm5hbWVxAH4AAXhwAFAAPAEBAQF+cgApY29tLmlubm92YXRyaWNzLm1yei50eXBlcy5NcnpEb2N1bWVudENvZGUAAAAAAAAAABIAAHhyAA5qYXZhLmxhbmcuRW51bQAAAAAAAAAAEgAAeHB0AAhQQVNTUE9SVHNyACFjb20uaW5ub3ZhdHJpY3MubXJ6LnR5cGVzLk1yekRhdGUAAAAAAAAAAQIABVoACWRhdGVWYWxpZEkAA2RheUkABW1vbnRoSQAEeWVhckwAA21yenEAfgABeHABAAAAAQAAAAEAAAALdAAGMTEwMTAxdAAIOTkwMDM4NTNzcQB+AAwBAAAABAAAAAcAAAAMdAAGMTIwNzA0fnIAI2NvbS5pbm5vdmF0cmljcy5tcnoudHlwZXMuTXJ6Rm9ybWF0AAAAAAAAAAASAAB4cQB+AAl0AAhQQVNTUE9SVHQABFZaT1J0AANDWkV0AANDWkV0AANNUlB+cgAgY29tLmlubm92YXRyaWNzLm1yei50eXBlcy5NcnpTZXgAAAAAAAAAABIAAHhxAH4ACXQABE1BTEV0AAhTUEVDSU1FTgF0AAkxMTAxMDExMTE=";
+
+	/**
+	 * The TD1 card serialized by release 0.8.
+	 */
+	private static final String SERIALIZED_TD1 = "rO0ABXNyACNjb20uaW5ub3ZhdHJpY3MubXJ6LnJlY29yZHMuTXJ0ZFRkMQAAAAAAAAABAgABTAAJb3B0aW9uYWwydAASTGphdmEvbGFuZy9TdHJpbmc7eHIAJWNvbS5pbm5vdmF0cmljcy5tcnouTXJ6UmVjb3JkT3B0aW9uYWwKFsQpjJed8gIAAUwACG9wdGlvbmFscQB+AAF4cgAdY29tLmlubm92YXRyaWNzLm1yei5NcnpSZWNvcmS+x4nEzXP7hQIAEUMABWNvZGUxQwAFY29kZTJaAA52YWxpZENvbXBvc2l0ZVoAEHZhbGlkRGF0ZU9mQmlydGhaABN2YWxpZERvY3VtZW50TnVtYmVyWgATdmFsaWRFeHBpcmF0aW9uRGF0ZUwABGNvZGV0ACtMY29tL2lubm92YXRyaWNzL21yei90eXBlcy9NcnpEb2N1bWVudENvZGU7TAALZGF0ZU9mQmlydGh0ACNMY29tL2lubm92YXRyaWNzL21yei90eXBlcy9NcnpEYXRlO0wADmRvY3VtZW50TnVtYmVycQB+AAFMAA5leHBpcmF0aW9uRGF0ZXEAfgAFTAAGZm9ybWF0dAAlTGNvbS9pbm5vdmF0cmljcy9tcnovdHlwZXMvTXJ6Rm9ybWF0O0wACmdpdmVuTmFtZXNxAH4AAUwADmlzc3VpbmdDb3VudHJ5cQB+AAFMAAtuYXRpb25hbGl0eXEAfgABTAAKcmVjb3JkTmFtZXEAfgABTAADc2V4dAAiTGNvbS9pbm5vdmF0cmljcy9tcnovdHlwZXMvTXJ6U2V4O0wAB3N1cm5hbWVxAH4AAXhwAEMASQEBAQF+cgApY29tLmlubm92YXRyaWNzLm1yei50eXBlcy5NcnpEb2N1bWVudENvZGUAAAAAAAAAABIAAHhyAA5qYXZhLmxhbmcuRW51bQAAAAAAAAAAEgAAeHB0AAZUWVBFX0NzcgAhY29tLmlubm92YXRyaWNzLm1yei50eXBlcy5NcnpEYXRlAAAAAAAAAAECAAVaAAlkYXRlVmFsaWRJAANkYXlJAAVtb250aEkABHllYXJMAANtcnpxAH4AAXhwAQAAAAwAAAAHAAAAInQABjM0MDcxMnQACUQyMzE0NTg5MHNxAH4ADQEAAAAMAAAABwAAAF90AAY5NTA3MTJ+cgAjY29tLmlubm92YXRyaWNzLm1yei50eXBlcy5NcnpGb3JtYXQAAAAAAAAAABIAAHhxAH4ACnQACE1SVERfVEQxdAAFUEVURVJ0AANVVE90AANVVE90AAhNUlRELVREMX5yACBjb20uaW5ub3ZhdHJpY3MubXJ6LnR5cGVzLk1yelNleAAAAAAAAAAAEgAAeHEAfgAKdAAETUFMRXQACVNURVZFTlNPTnQAD0ExMjNYNTMyODQzNEQyM3QAAA==";
+
+	@Test
+	public void testSerializedForm() throws IOException, ClassNotFoundException, MrzParseException {
+		final MRP passport = (MRP) deserialize(SERIALIZED_PASSPORT);
+		Assert.assertSame(MrzFormat.PASSPORT, passport.getFormat());
+		Assert.assertSame(MrzFormat.PASSPORT, passport.getLayout());
+		Assert.assertEquals(MrzParser.parse(PASSPORT).toString(), passport.toString());
+		Assert.assertEquals(MrzParser.parse(PASSPORT).getFingerprint(), passport.getFingerprint());
+		Assert.assertTrue(passport.isValidComposite());
+		Assert.assertNull(passport.getRawMrz());
+		final MrtdTd1 td1 = (MrtdTd1) deserialize(SERIALIZED_TD1);
+		Assert.assertSame(MrzFormat.MRTD_TD1, td1.getLayout());
+		Assert.assertEquals(MrzParser.parse(TD1).toString(), td1.toString());
+		Assert.assertEquals("A123X5328434D23", td1.getOptional());
+	}
+
+	@Test
+	public void testFromMrzOverride() throws MrzParseException {
+		final CzechPassport passport = new CzechPassport();
+		passport.fromMrz(PASSPORT);
+		Assert.assertEquals("99003853", passport.getDocumentNumber());
+		Assert.assertEquals("SPECIMEN", passport.getSurname());
+		Assert.assertEquals("CZE", passport.issuer);
+	}
+
+	private static Object deserialize(final String base64) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)))) {
+			return in.readObject();
+		}
+	}
+
+	/**
+	 * A record type decoding an extra field in {@link MrzRecord#fromMrz(String)}, as before {@link MrzRecord#fromMrz(MrzParser)}.
+	 */
+	private static final class CzechPassport extends MRP {
+
+		private static final long serialVersionUID = 1L;
+
+		private String issuer;
+
+		@Override
+		public void fromMrz(final String mrz) throws MrzParseException {
+			super.fromMrz(mrz);
+			issuer = new MrzParser(mrz).parseString(new MrzRange(2, 5, 0));
+		}
+
+	}
+
+}
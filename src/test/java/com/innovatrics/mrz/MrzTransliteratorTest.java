@@ -0,0 +1,59 @@
+package com.innovatrics.mrz;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzTransliterator}.
+ */
+public class MrzTransliteratorTest {
+
+	@Test
+	public void testLatin() {
+		// č = č, Ł = Ł, Þ = Þ, œ = œ
+		Assert.assertEquals("CACACA<<<<<", MrzParser.toMrz("čačača", 11));
+		Assert.assertEquals("LODZ", MrzParser.toMrz("Łodź", -1));
+		Assert.assertEquals("THORA", MrzParser.toMrz("Þora", -1));
+		Assert.assertEquals("COEUR", MrzParser.toMrz("cœur", -1));
+	}
+
+	@Test
+	public void testCyrillic() {
+		// Щукин, Йордан, Ёлкин, Объедкова
+		Assert.assertEquals("SHCHUKIN", MrzParser.toMrz("Щукин", -1));
+		Assert.assertEquals("IORDAN", MrzParser.toMrz("Йордан", -1));
+		Assert.assertEquals("ELKIN", MrzParser.toMrz("Ёлкин", -1));
+		Assert.assertEquals("OBIEEDKOVA", MrzParser.toMrz("Объедкова", -1));
+	}
+
+	@Test
+	public void testGreek() {
+		// Χρήστος, Ψυχάρης
+		Assert.assertEquals("CHRISTOS", MrzParser.toMrz("Χρήστος", -1));
+		Assert.assertEquals("PSYCHARIS", MrzParser.toMrz("Ψυχάρης", -1));
+	}
+
+	@Test
+	public void testArabic() {
+		// محمد, خالد
+		Assert.assertEquals("MXHMD", MrzParser.toMrz("محمد", -1));
+		Assert.assertEquals("XKHALD", MrzParser.toMrz("خالد", -1));
+	}
+
+	@Test
+	public void testBuffer() {
+		final char[] buffer = new char[12];
+		Assert.assertEquals(5, MrzTransliterator.transliterate("ab", buffer, 2, 3));
+		Assert.assertEquals(11, MrzTransliterator.transliterate("Щукин", buffer, 5, 6));
+		Assert.assertEquals("AB<SHCHUK", new String(buffer, 2, 9));
+		Assert.assertEquals(12, MrzTransliterator.transliterate(null, buffer, 11, 1));
+		Assert.assertEquals('<', buffer[11]);
+	}
+
+	@Test
+	public void testSupplementary() {
+		// U+1F600 (emoji) is not valid in a MRZ and is removed
+		Assert.assertEquals("AB<<", MrzParser.toMrz("A😀B", 4));
+	}
+
+}
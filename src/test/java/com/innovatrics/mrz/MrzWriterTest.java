@@ -0,0 +1,81 @@
+package com.innovatrics.mrz;
+
+import com.innovatrics.mrz.records.MRP;
+import com.innovatrics.mrz.types.MrzDate;
+import com.innovatrics.mrz.types.MrzSex;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzWriter}.
+ */
+public class MrzWriterTest {
+
+	private static final String MRZ = "I<SVKNOVAK<<JAN<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n123456<AA5SVK8110251M1801020749313<<<<<<<<70\n";
+
+	@Test
+	public void testWriteTargets() throws IOException {
+		final MrzWriter writer = new MrzWriter().write(createRecord("123456 AA"));
+		Assert.assertEquals(MRZ, writer.toString());
+		Assert.assertEquals(MRZ.length(), writer.length());
+
+		final char[] chars = new char[MRZ.length() + 1];
+		Assert.assertEquals(MRZ.length() + 1, writer.getChars(chars, 1));
+		Assert.assertEquals(MRZ, new String(chars, 1, MRZ.length()));
+
+		final ByteBuffer bytes = ByteBuffer.allocate(MRZ.length());
+		writer.writeTo(bytes);
+		Assert.assertEquals(MRZ, new String(bytes.array(), StandardCharsets.US_ASCII));
+
+		final StringBuilder sb = new StringBuilder("x");
+		writer.writeTo(sb);
+		Assert.assertEquals("x" + MRZ, sb.toString());
+	}
+
+	@Test
+	public void testReuse() throws MrzParseException {
+		final MrzWriter writer = new MrzWriter();
+		writer.write(createRecord("123456 AA"));
+		final MRP record = (MRP) MrzParser.parse(writer.write(createRecord("XY987654")).toString());
+		Assert.assertEquals("XY987654", record.getDocumentNumber());
+		Assert.assertTrue(record.isValidDocumentNumber());
+		Assert.assertTrue(record.isValidComposite());
+	}
+
+	@Test
+	public void testWriteAll() throws IOException {
+		final Path file = Files.createTempFile("mrz", ".txt");
+		try {
+			final long count = MrzWriter.writeAll(IntStream.range(0, 1000).mapToObj(i -> createRecord("D" + i)), file);
+			Assert.assertEquals(1000, count);
+			final String[] records = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).split("\n\n");
+			Assert.assertEquals(1000, records.length);
+			Assert.assertEquals(createRecord("D999").toMrz(), records[999] + "\n");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static MRP createRecord(final String documentNumber) {
+		final MRP r = new MRP();
+		r.setCode1('I');
+		r.setCode2('<');
+		r.setIssuingCountry("SVK");
+		r.setNationality("SVK");
+		r.setPersonalNumber("749313");
+		r.setDocumentNumber(documentNumber);
+		r.setExpirationDate(new MrzDate(18, 1, 2));
+		r.setDateOfBirth(new MrzDate(81, 10, 25));
+		r.setSex(MrzSex.MALE);
+		r.setSurname("NOVAK");
+		r.setGivenNames("JAN");
+		return r;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.innovatrics.mrz.generator;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzGenerator}.
+ */
+public class MrzGeneratorTest {
+
+	@Test
+	public void testReproducible() {
+		final List<String> first = new MrzGenerator(42).stream(500).collect(Collectors.toList());
+		final List<String> parallel = new MrzGenerator(42).stream(500).parallel().collect(Collectors.toList());
+		Assert.assertEquals(first, parallel);
+		Assert.assertNotEquals(first, new MrzGenerator(43).stream(500).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testValidRecords() throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(1);
+		final Set<MrzFormat> formats = EnumSet.noneOf(MrzFormat.class);
+		for (long i = 0; i < 2000; i++) {
+			final MrzRecord record = MrzParser.parse(generator.generate(i));
+			formats.add(record.getFormat());
+			Assert.assertTrue(record.toString(), isValid(record));
+		}
+		Assert.assertEquals(EnumSet.allOf(MrzFormat.class), formats);
+	}
+
+	@Test
+	public void testInvalidCheckDigits() throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(1);
+		generator.setInvalidCheckDigitRate(1);
+		generator.setFormatWeight(MrzFormat.MRV_VISA_A, 0);
+		generator.setFormatWeight(MrzFormat.PASSPORT, 3);
+		for (long i = 0; i < 2000; i++) {
+			final MrzRecord record = MrzParser.parse(generator.generate(i));
+			Assert.assertNotEquals(MrzFormat.MRV_VISA_A, record.getFormat());
+			Assert.assertFalse(record.toString(), isValid(record));
+		}
+	}
+
+	@Test
+	public void testNameLength() throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(7);
+		generator.setFormatWeight(MrzFormat.FRENCH_ID, 0);
+		generator.setNameLength(60, 80);
+		for (long i = 0; i < 200; i++) {
+			Assert.assertNotNull(MrzParser.parse(generator.generate(i)).getSurname());
+		}
+	}
+
+	@Test
+	public void testInvalidRates() {
+		final MrzGenerator generator = new MrzGenerator(1);
+		for (double rate : new double[]{-0.1, 1.5, Double.NaN}) {
+			try {
+				generator.setInvalidCheckDigitRate(rate);
+				Assert.fail("Expected IllegalArgumentException");
+			} catch (IllegalArgumentException ex) {
+				// Expected
+			}
+			try {
+				generator.setOcrNoiseRate(rate);
+				Assert.fail("Expected IllegalArgumentException");
+			} catch (IllegalArgumentException ex) {
+				// Expected
+			}
+		}
+		generator.setInvalidCheckDigitRate(1);
+		generator.setOcrNoiseRate(0);
+		Assert.assertEquals(1, generator.getInvalidCheckDigitRate(), 0);
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		final MrzGenerator generator = new MrzGenerator(5);
+		generator.setOcrNoiseRate(0.05);
+		final Path file = Files.createTempFile("mrz", ".txt");
+		try {
+			generator.write(file, 100);
+			final String[] records = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).split("\n\n");
+			Assert.assertEquals(100, records.length);
+			Assert.assertEquals(generator.generate(10), records[10] + "\n");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static boolean isValid(final MrzRecord record) {
+		return record.isValidDocumentNumber() && record.isValidDateOfBirth() && record.isValidExpirationDate() && record.isValidComposite();
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.innovatrics.mrz.generator;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.metrics.StripedMrzMetrics;
+import com.innovatrics.mrz.types.MrzFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzWarmUp}.
+ */
+public class MrzWarmUpTest {
+
+	@Test
+	public void testIterationBudget() {
+		final MrzWarmUp warmUp = new MrzWarmUp();
+		warmUp.setCorpusSize(10);
+		warmUp.setPlateauRounds(1000);
+		warmUp.setMaxIterations(200);
+		final MrzWarmUp.Result result = warmUp.run();
+		// Rounds of 7 formats * 10 MRZs, the budget is checked between rounds
+		Assert.assertEquals(3, result.getRounds());
+		Assert.assertEquals(210, result.getIterations());
+		Assert.assertFalse(result.isPlateaued());
+		Assert.assertFalse(warmUp.isPlateaued());
+		Assert.assertTrue(result.getThroughput() > 0);
+		Assert.assertTrue(result.getBestThroughput() >= result.getThroughput());
+	}
+
+	@Test
+	public void testPlateau() {
+		final MrzWarmUp warmUp = new MrzWarmUp();
+		warmUp.setCorpusSize(50);
+		// Any round not 1000 times faster than the best one counts as stable
+		warmUp.setPlateauTolerance(1000);
+		warmUp.setPlateauRounds(3);
+		final MrzWarmUp.Result result = warmUp.run();
+		Assert.assertTrue(result.isPlateaued());
+		Assert.assertTrue(warmUp.isPlateaued());
+		Assert.assertEquals(4, result.getRounds());
+	}
+
+	@Test
+	public void testNotReported() throws MrzNotFoundException, MrzParseException {
+		final StripedMrzMetrics metrics = new StripedMrzMetrics();
+		MrzMetricsRegistry.setMetrics(metrics);
+		try {
+			final MrzWarmUp warmUp = new MrzWarmUp();
+			warmUp.setCorpusSize(10);
+			warmUp.setMaxIterations(100);
+			warmUp.run();
+			for (MrzFormat format : MrzFormat.values()) {
+				Assert.assertEquals(0, metrics.getParseCount(format));
+			}
+			Assert.assertEquals(0, metrics.getFinderHitCount());
+			Assert.assertFalse(MrzMetricsRegistry.isSuppressed());
+			MrzFinderUtil.findMrz("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+			Assert.assertEquals(1, metrics.getFinderHitCount());
+		} finally {
+			MrzMetricsRegistry.setMetrics(null);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPlateauRounds() {
+		new MrzWarmUp().setPlateauRounds(0);
+	}
+
+}
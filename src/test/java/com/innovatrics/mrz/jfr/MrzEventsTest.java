@@ -0,0 +1,85 @@
+package com.innovatrics.mrz.jfr;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the Java Flight Recorder events.
+ */
+public class MrzEventsTest {
+
+	private static final String GERMAN_PASSPORT = "P<D<<MUSTERMANN<<ERIKA<<<<<<<<<<<<<<<<<<<<<<\nC01X01R741D<<6408125F2010315<<<<<<<<<<<<<<<9";
+
+	@Test
+	public void testEvents() throws IOException, MrzParseException, MrzNotFoundException {
+		Assert.assertTrue(MrzEvents.AVAILABLE);
+		final List<RecordedEvent> events = new ArrayList<>();
+		final File file = File.createTempFile("mrz", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				recording.enable("com.innovatrics.mrz.Find");
+				recording.enable("com.innovatrics.mrz.Detect");
+				recording.enable("com.innovatrics.mrz.Parse");
+				recording.enable("com.innovatrics.mrz.CheckDigit");
+				recording.start();
+				MrzParser.parse(GERMAN_PASSPORT);
+				MrzFinderUtil.findMrz("Passport\n" + GERMAN_PASSPORT);
+				recording.stop();
+				recording.dump(file.toPath());
+			}
+			events.addAll(RecordingFile.readAllEvents(file.toPath()));
+		} finally {
+			file.delete();
+		}
+		final RecordedEvent parse = find(events, "com.innovatrics.mrz.Parse", null);
+		Assert.assertEquals("PASSPORT", parse.getString("format"));
+		Assert.assertEquals(GERMAN_PASSPORT.length(), parse.getInt("inputLength"));
+		Assert.assertEquals(MrzEvents.INVALID, parse.getString("outcome"));
+		final RecordedEvent composite = find(events, "com.innovatrics.mrz.CheckDigit", "mrz");
+		Assert.assertEquals(MrzEvents.INVALID, composite.getString("outcome"));
+		final RecordedEvent birth = find(events, "com.innovatrics.mrz.CheckDigit", "date of birth");
+		Assert.assertEquals(MrzEvents.VALID, birth.getString("outcome"));
+		Assert.assertEquals(MrzEvents.VALID, find(events, "com.innovatrics.mrz.Detect", null).getString("outcome"));
+		Assert.assertEquals("PASSPORT", find(events, "com.innovatrics.mrz.Find", null).getString("format"));
+	}
+
+	@Test
+	public void testDisabledByDefault() throws IOException, MrzParseException {
+		final File file = File.createTempFile("mrz", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				recording.start();
+				MrzParser.parse(GERMAN_PASSPORT);
+				recording.stop();
+				recording.dump(file.toPath());
+			}
+			for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+				Assert.assertFalse(event.getEventType().getName().startsWith("com.innovatrics.mrz."));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static RecordedEvent find(final List<RecordedEvent> events, final String name, final String field) {
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals(name) && (field == null || field.equals(event.getString("field")))) {
+				return event;
+			}
+		}
+		Assert.fail("Event not recorded: " + name + " " + field);
+		return null;
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.innovatrics.mrz.metrics;
+
+import com.innovatrics.mrz.MrzFinderUtil;
+import com.innovatrics.mrz.MrzNotFoundException;
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.records.MRP;
+import com.innovatrics.mrz.types.MrzFormat;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StripedMrzMetrics}.
+ */
+public class StripedMrzMetricsTest {
+
+	private static final String CZECH_PASSPORT = "P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94";
+	private static final String GERMAN_PASSPORT = "P<D<<MUSTERMANN<<ERIKA<<<<<<<<<<<<<<<<<<<<<<\nC01X01R741D<<6408125F2010315<<<<<<<<<<<<<<<9";
+
+	private final StripedMrzMetrics metrics = new StripedMrzMetrics();
+
+	@Before
+	public void setUp() {
+		MrzMetricsRegistry.setMetrics(metrics);
+	}
+
+	@After
+	public void tearDown() {
+		MrzMetricsRegistry.setMetrics(null);
+	}
+
+	@Test
+	public void testParse() throws MrzParseException {
+		MrzParser.parse(CZECH_PASSPORT);
+		MrzParser.parse(GERMAN_PASSPORT);
+		try {
+			MrzParser.parse("P<CZE\nSPECIMEN");
+			Assert.fail("Expected MrzParseException");
+		} catch (MrzParseException ex) {
+			// Expected
+		}
+		Assert.assertEquals(2, metrics.getParseCount(MrzFormat.PASSPORT));
+		Assert.assertEquals(0, metrics.getParseFailureCount(MrzFormat.PASSPORT));
+		Assert.assertEquals(1, metrics.getParseFailureCount(null));
+		Assert.assertEquals(1, metrics.getCheckDigitFailureCount(MrzFormat.PASSPORT, CheckDigitField.COMPOSITE));
+		Assert.assertEquals(0, metrics.getCheckDigitFailureCount(MrzFormat.PASSPORT, CheckDigitField.DATE_OF_BIRTH));
+		long total = 0;
+		for (long count : metrics.getLatencyHistogram(MrzFormat.PASSPORT)) {
+			total += count;
+		}
+		Assert.assertEquals(2, total);
+		metrics.reset();
+		Assert.assertEquals(0, metrics.getParseCount(MrzFormat.PASSPORT));
+	}
+
+	@Test
+	public void testRecordDecoder() throws MrzParseException {
+		new MRP().fromMrz(CZECH_PASSPORT);
+		new MRP().fromMrz(GERMAN_PASSPORT);
+		Assert.assertEquals(0, metrics.getParseCount(MrzFormat.PASSPORT));
+		Assert.assertEquals(1, metrics.getCheckDigitFailureCount(MrzFormat.PASSPORT, CheckDigitField.COMPOSITE));
+		Assert.assertEquals(0, metrics.getCheckDigitFailureCount(MrzFormat.PASSPORT, CheckDigitField.DOCUMENT_NUMBER));
+	}
+
+	@Test
+	public void testFinder() throws MrzParseException {
+		try {
+			MrzFinderUtil.findMrz("no MRZ here");
+			Assert.fail("Expected MrzNotFoundException");
+		} catch (MrzNotFoundException ex) {
+			// Expected
+		}
+		try {
+			MrzFinderUtil.findMrz("Passport\n" + CZECH_PASSPORT + "\n");
+		} catch (MrzNotFoundException ex) {
+			Assert.fail("MRZ not found");
+		}
+		Assert.assertEquals(1, metrics.getFinderHitCount());
+		Assert.assertEquals(1, metrics.getFinderMissCount());
+	}
+
+	@Test
+	public void testBucket() {
+		Assert.assertEquals(0, StripedMrzMetrics.bucket(0));
+		Assert.assertEquals(0, StripedMrzMetrics.bucket(1));
+		Assert.assertEquals(10, StripedMrzMetrics.bucket(1024));
+		Assert.assertEquals(10, StripedMrzMetrics.bucket(2047));
+		Assert.assertEquals(StripedMrzMetrics.BUCKETS - 1, StripedMrzMetrics.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		MrzMetricsRegistry.setMetrics(null);
+		Assert.assertFalse(MrzMetricsRegistry.getMetrics().isEnabled());
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link MrzDocumentFilter}.
+ */
+public class MrzDocumentFilterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path list(final int count) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			lines.add("CZE,L" + i + ",P");
+		}
+		lines.add("");
+		lines.add("CZE,99003853<,P");
+		final Path file = folder.newFile("list.csv").toPath();
+		Files.write(file, lines, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	@Test
+	public void testBuild() throws IOException, MrzParseException {
+		final MrzDocumentFilter filter = MrzDocumentFilter.build(list(20000), MrzDocumentFilter.DEFAULT_BITS_PER_ENTRY);
+		Assert.assertEquals(20001, filter.getEntryCount());
+		Assert.assertEquals(20001L * 10 / 512 * 64 + 64, filter.getSizeInBytes());
+		for (int i = 0; i < 20000; i++) {
+			Assert.assertTrue(filter.mightContain("CZE", "L" + i, 'P'));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 20000; i++) {
+			if (filter.mightContain("SVK", "L" + i, 'P') || filter.mightContain("CZE", "L" + i, 'I')) {
+				falsePositives++;
+			}
+		}
+		Assert.assertTrue("False positives: " + falsePositives, falsePositives < 1000);
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		Assert.assertTrue(filter.mightContain(record));
+		Assert.assertTrue(filter.mightContain("CZE", "99003853 ", 'P'));
+	}
+
+	@Test
+	public void testWriteAndMap() throws IOException {
+		final MrzDocumentFilter filter = MrzDocumentFilter.build(list(5000), 12);
+		final Path file = folder.newFile("list.bloom").toPath();
+		filter.write(file);
+		final MrzDocumentFilter mapped = MrzDocumentFilter.map(file);
+		Assert.assertEquals(filter.getEntryCount(), mapped.getEntryCount());
+		Assert.assertEquals(filter.getSizeInBytes(), mapped.getSizeInBytes());
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertEquals(filter.mightContain("CZE", "L" + i, 'P'), mapped.mightContain("CZE", "L" + i, 'P'));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMapInvalidFile() throws IOException {
+		final Path file = folder.newFile("invalid.bloom").toPath();
+		Files.write(file, new byte[64]);
+		MrzDocumentFilter.map(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidLine() throws IOException {
+		final Path file = folder.newFile("invalid.csv").toPath();
+		Files.write(file, "CZE;123;P\n".getBytes(StandardCharsets.UTF_8));
+		MrzDocumentFilter.build(file, 10);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzDuplicateDetector}.
+ */
+public class MrzDuplicateDetectorTest {
+
+	@Test
+	public void testRecord() throws MrzParseException {
+		final MrzDuplicateDetector detector = new MrzDuplicateDetector(100);
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		Assert.assertFalse(detector.isDuplicate(record));
+		Assert.assertTrue(detector.isDuplicate(MrzParser.parse(
+				"P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94")));
+		Assert.assertFalse(detector.isDuplicate(MrzParser.parse(
+				"P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003854<1CZE1101018M1207046110101111<<<<<94")));
+		Assert.assertEquals(1, detector.getDuplicateCount());
+		Assert.assertEquals(2, detector.size());
+		detector.clear();
+		Assert.assertFalse(detector.isDuplicate(record));
+	}
+
+	@Test
+	public void testCountWindow() {
+		final MrzDuplicateDetector detector = new MrzDuplicateDetector(3);
+		Assert.assertFalse(detector.isDuplicate(1, 0));
+		Assert.assertFalse(detector.isDuplicate(2, 0));
+		Assert.assertFalse(detector.isDuplicate(3, 0));
+		Assert.assertTrue(detector.isDuplicate(1, 0));
+		Assert.assertFalse(detector.isDuplicate(4, 0));
+		Assert.assertFalse(detector.isDuplicate(5, 0));
+		Assert.assertFalse(detector.isDuplicate(6, 0));
+		Assert.assertFalse(detector.isDuplicate(1, 0));
+	}
+
+	@Test
+	public void testTimeWindow() {
+		final MrzDuplicateDetector detector = new MrzDuplicateDetector(100, 1000);
+		Assert.assertFalse(detector.isDuplicate(1, 0));
+		Assert.assertTrue(detector.isDuplicate(1, 999));
+		Assert.assertTrue(detector.isDuplicate(1, 1998));
+		Assert.assertFalse(detector.isDuplicate(1, 2998));
+	}
+
+	@Test
+	public void testAgainstReference() {
+		final Random random = new Random(5);
+		final int window = 50;
+		final MrzDuplicateDetector detector = new MrzDuplicateDetector(window);
+		final Deque<Long> recent = new ArrayDeque<>();
+		for (int i = 0; i < 100000; i++) {
+			final long fingerprint = random.nextInt(200);
+			Assert.assertEquals(recent.contains(fingerprint), detector.isDuplicate(fingerprint, i));
+			recent.addLast(fingerprint);
+			if (recent.size() > window) {
+				recent.removeFirst();
+			}
+			Assert.assertTrue(detector.size() <= window);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.innovatrics.mrz.screening;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.types.MrzDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzWatchlist}.
+ */
+public class MrzWatchlistTest {
+
+	private static List<String> ids(final List<MrzWatchlist.Match> matches) {
+		final List<String> ids = new ArrayList<>();
+		for (MrzWatchlist.Match match : matches) {
+			ids.add(match.getEntry().getId());
+		}
+		return ids;
+	}
+
+	@Test
+	public void testNormalize() {
+		Assert.assertEquals("SPECIMEN<<VZOR", MrzWatchlist.normalize("Specimen", "Vzor"));
+		Assert.assertEquals("SHCHUKIN<<IVAN", MrzWatchlist.normalize("Щукин", " Ivan "));
+		Assert.assertEquals("DE<LA<CRUZ", MrzWatchlist.normalize("de la Cruz", null));
+	}
+
+	@Test
+	public void testScreen() throws MrzParseException {
+		final MrzWatchlist watchlist = new MrzWatchlist(Arrays.asList(
+				new MrzWatchlistEntry("1", "Specimen", "Vzor", null, null),
+				new MrzWatchlistEntry("2", "Specimen", "Vzorek", new MrzDate(11, 1, 1), "CZE"),
+				new MrzWatchlistEntry("3", "Specimen", "Vzor", new MrzDate(80, 1, 1), null),
+				new MrzWatchlistEntry("4", "Specimen", "Vzor", null, "SVK"),
+				new MrzWatchlistEntry("5", "Specimen", "Vzor", new MrzDate(11, -1, -1), "cze"),
+				new MrzWatchlistEntry("6", "Smith", "John", null, null)));
+		Assert.assertEquals(6, watchlist.size());
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		final List<MrzWatchlist.Match> matches = watchlist.screen(record);
+		Assert.assertEquals(Arrays.asList("1", "5", "2"), ids(matches));
+		Assert.assertEquals(1.0, matches.get(0).getScore(), 0);
+		Assert.assertTrue(matches.get(2).getScore() < 1.0);
+		watchlist.setThreshold(1);
+		Assert.assertEquals(Arrays.asList("1", "5"), ids(watchlist.screen(record)));
+		Assert.assertTrue(watchlist.screen("", null, null, null).isEmpty());
+	}
+
+	@Test
+	public void testTransliteration() {
+		final MrzWatchlist watchlist = new MrzWatchlist(Arrays.asList(
+				new MrzWatchlistEntry("1", "Щукин", "Иван", null, null),
+				new MrzWatchlistEntry("2", "Müller", "Hans", null, null)));
+		Assert.assertEquals(Arrays.asList("1"), ids(watchlist.screen("SHCHUKIN", "IVAN", null, null)));
+		Assert.assertEquals(Arrays.asList("1"), ids(watchlist.screen("SCHUKIN", "IVAN", null, null)));
+		Assert.assertEquals(Arrays.asList("2"), ids(watchlist.screen("MULLER", "HANS", null, null)));
+		Assert.assertEquals(Arrays.asList("2"), ids(watchlist.screen("MUELLER", "HANS", null, null)));
+	}
+
+	@Test
+	public void testRebuild() {
+		final List<MrzWatchlistEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			entries.add(new MrzWatchlistEntry(Integer.toString(i), "Specimen", "Vzor", null, null));
+		}
+		Assert.assertEquals(50, new MrzWatchlist(entries).screen("SPECIMEN", "VZOR", null, null).size());
+		// A smaller watchlist reuses the counts of the larger one
+		final MrzWatchlist rebuilt = new MrzWatchlist(entries.subList(0, 3));
+		Assert.assertEquals(Arrays.asList("0", "1", "2"), ids(rebuilt.screen("SPECIMEN", "VZOR", null, null)));
+		Assert.assertEquals(Arrays.asList("0", "1", "2"), ids(rebuilt.screen("SPECIMEN", "VZOR", null, null)));
+	}
+
+	@Test
+	public void testLargeWatchlist() {
+		final Random random = new Random(1);
+		final List<MrzWatchlistEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			entries.add(new MrzWatchlistEntry(Integer.toString(i), name(random, 5 + random.nextInt(6)), name(random, 3 + random.nextInt(6)),
+					null, null));
+		}
+		final MrzWatchlist watchlist = new MrzWatchlist(entries);
+		for (int i = 0; i < 100; i++) {
+			final MrzWatchlistEntry entry = entries.get(random.nextInt(entries.size()));
+			final List<MrzWatchlist.Match> matches = watchlist.screen(entry.getSurname(), entry.getGivenNames(), null, null);
+			Assert.assertTrue(ids(matches).contains(entry.getId()));
+			Assert.assertEquals(1.0, matches.get(0).getScore(), 0);
+		}
+	}
+
+	private static String name(final Random random, final int length) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('A' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.innovatrics.mrz.store;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.types.MrzDate;
+import com.innovatrics.mrz.types.MrzSex;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzColumnStore}.
+ */
+public class MrzColumnStoreTest {
+
+	private static List<MrzRecord> records(final int count) throws MrzParseException {
+		final MrzGenerator generator = new MrzGenerator(11);
+		generator.setInvalidCheckDigitRate(0.2);
+		final List<MrzRecord> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			records.add(MrzParser.parse(generator.generate(i)));
+		}
+		return records;
+	}
+
+	private static int packed(final MrzDate date) {
+		return date == null ? MrzDate.pack(-1, -1, -1) : date.getPacked();
+	}
+
+	@Test
+	public void testAppend() throws MrzParseException {
+		final List<MrzRecord> records = records(1000);
+		final MrzColumnStore store = new MrzColumnStore(16, 64);
+		for (int i = 0; i < records.size(); i++) {
+			Assert.assertEquals(i, store.append(records.get(i)));
+		}
+		Assert.assertEquals(records.size(), store.size());
+		Assert.assertEquals(16 * 64 * (25 + 16), store.getAllocatedBytes());
+		for (int row = 0; row < records.size(); row++) {
+			final MrzRecord record = records.get(row);
+			Assert.assertEquals(record.getFormat(), store.getFormat(row));
+			Assert.assertEquals(record.getCode1(), store.getCode1(row));
+			Assert.assertEquals(record.getCode2(), store.getCode2(row));
+			Assert.assertEquals(record.getSex(), store.getSex(row));
+			Assert.assertEquals(record.getIssuingCountry(), store.getIssuingCountry(row));
+			Assert.assertEquals(record.getNationality(), store.getNationality(row));
+			Assert.assertEquals(packed(record.getDateOfBirth()), store.getDateOfBirth(row));
+			Assert.assertEquals(packed(record.getExpirationDate()), store.getExpirationDate(row));
+			Assert.assertEquals(record.getDocumentNumber(), store.getDocumentNumber(row));
+			Assert.assertEquals(record.getFingerprint(), store.getFingerprint(row));
+			Assert.assertTrue(store.isDocumentNumber(row, record.getDocumentNumber()));
+			Assert.assertFalse(store.isDocumentNumber(row, record.getDocumentNumber() + "1"));
+			Assert.assertEquals(record.isValidDocumentNumber(), store.isValidDocumentNumber(row));
+			Assert.assertEquals(record.isValidDateOfBirth(), store.isValidDateOfBirth(row));
+			Assert.assertEquals(record.isValidExpirationDate(), store.isValidExpirationDate(row));
+			Assert.assertEquals(record.isValidComposite(), store.isValidComposite(row));
+		}
+	}
+
+	@Test
+	public void testFingerprints() throws MrzParseException {
+		final List<MrzRecord> records = records(300);
+		final MrzColumnStore store = new MrzColumnStore(16, 64);
+		records.forEach(store::append);
+		final long[] fingerprints = new long[102];
+		store.getFingerprints(100, fingerprints, 2, 100);
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(records.get(100 + i).getFingerprint(), fingerprints[2 + i]);
+		}
+	}
+
+	@Test
+	public void testScan() throws MrzParseException {
+		final List<MrzRecord> records = records(500);
+		final MrzColumnStore store = new MrzColumnStore(16, 128);
+		records.forEach(store::append);
+		final int from = MrzDate.pack(20, 1, 1);
+		final int to = MrzDate.pack(29, 12, 31);
+		final List<Integer> expected = new ArrayList<>();
+		for (int row = 0; row < records.size(); row++) {
+			final int packed = packed(records.get(row).getExpirationDate());
+			if (MrzDate.compare(packed, from) >= 0 && MrzDate.compare(packed, to) <= 0) {
+				expected.add(row);
+			}
+		}
+		final List<Integer> actual = new ArrayList<>();
+		Assert.assertEquals(expected.size(), store.scanExpirationDate(from, to, actual::add));
+		Assert.assertEquals(expected, actual);
+		final String nationality = records.get(0).getNationality();
+		final long count = records.stream().filter(r -> nationality.equals(r.getNationality())).count();
+		Assert.assertEquals(count, store.scanNationality(nationality, row -> Assert.assertEquals(nationality, store.getNationality(row))));
+		final String documentNumber = records.get(42).getDocumentNumber();
+		Assert.assertTrue(store.scanDocumentNumber(documentNumber, row -> Assert.assertEquals(documentNumber, store.getDocumentNumber(row))) >= 1);
+		final long female = records.stream().filter(r -> r.getSex() == MrzSex.FEMALE).count();
+		Assert.assertEquals(female, store.scan(row -> store.getSex(row) == MrzSex.FEMALE, row -> {
+		}));
+		store.clear();
+		Assert.assertEquals(0, store.size());
+		Assert.assertEquals(0, store.scan(row -> true, row -> {
+		}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRowOutOfRange() {
+		new MrzColumnStore().getFormat(0);
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.innovatrics.mrz.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzDocumentIndex}.
+ */
+public class MrzDocumentIndexTest {
+
+	private static final String[] COUNTRIES = {"CZE", "SVK", "D", "UTO", null};
+
+	private static String documentNumber(final Random random) {
+		final int length = random.nextInt(5) == 0 ? 10 + random.nextInt(6) : 6 + random.nextInt(4);
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(random.nextInt(4) == 0 ? (char) ('A' + random.nextInt(3)) : (char) ('0' + random.nextInt(3)));
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void testFind() {
+		final Random random = new Random(3);
+		final List<String> countries = new ArrayList<>();
+		final List<String> documentNumbers = new ArrayList<>();
+		final MrzDocumentIndex index = new MrzDocumentIndex();
+		for (int i = 0; i < 10000; i++) {
+			final String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+			final String documentNumber = documentNumber(random);
+			countries.add(country);
+			documentNumbers.add(documentNumber);
+			index.add(country, documentNumber, i);
+		}
+		Assert.assertEquals(10000, index.size());
+		for (int i = 0; i < 300; i++) {
+			final String country = countries.get(i);
+			final String documentNumber = documentNumbers.get(i);
+			final String prefix = documentNumber.substring(0, random.nextInt(documentNumber.length() + 1));
+			final List<Integer> exact = new ArrayList<>();
+			final List<Integer> prefixed = new ArrayList<>();
+			for (int j = 0; j < countries.size(); j++) {
+				if (Objects.equals(country, countries.get(j))) {
+					if (documentNumber.equals(documentNumbers.get(j))) {
+						exact.add(j);
+					}
+					if (documentNumbers.get(j).startsWith(prefix)) {
+						prefixed.add(j);
+					}
+				}
+			}
+			final List<Integer> found = new ArrayList<>();
+			Assert.assertEquals(exact.size(), index.find(country, documentNumber, found::add));
+			found.sort(null);
+			Assert.assertEquals(exact, found);
+			found.clear();
+			Assert.assertEquals(prefixed.size(), index.findPrefix(country, prefix, found::add));
+			found.sort(null);
+			Assert.assertEquals(prefixed, found);
+		}
+		Assert.assertEquals(0, index.find("CZE", "XYZ", id -> Assert.fail()));
+	}
+
+	@Test
+	public void testConcurrentAppend() throws Exception {
+		final MrzDocumentIndex index = new MrzDocumentIndex();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			final AtomicInteger misses = new AtomicInteger();
+			for (int t = 0; t < 4; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 20000; i++) {
+						final String documentNumber = thread + "X" + i;
+						index.add("CZE", documentNumber, thread * 20000 + i);
+						if (index.find("CZE", documentNumber, id -> {
+						}) != 1) {
+							misses.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			Assert.assertEquals(0, misses.get());
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertEquals(80000, index.size());
+		Assert.assertEquals(20000, index.findPrefix("CZE", "2X", id -> {
+		}));
+		Assert.assertEquals(11, index.findPrefix("CZE", "1X1000", id -> {
+		}));
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzCountryCode}.
+ */
+public class MrzCountryCodeTest {
+
+	@Test
+	public void testLookup() {
+		Assert.assertEquals("SVK", MrzCountryCode.lookup("P<SVKNAME", 2));
+		Assert.assertEquals("D", MrzCountryCode.lookup("P<D<<NAME", 2));
+		Assert.assertEquals("XXA", MrzCountryCode.lookup("XXA", 0));
+		Assert.assertSame(MrzCountryCode.UTO, MrzCountryCode.lookup("P<UTONAME", 2));
+		Assert.assertNull(MrzCountryCode.lookup("P<QQQNAME", 2));
+		Assert.assertNull(MrzCountryCode.lookup("P<sVKNAME", 2));
+		Assert.assertNull(MrzCountryCode.lookup("SV", 0));
+	}
+
+	@Test
+	public void testCanonical() {
+		final String code = new String("CZE");
+		Assert.assertNotSame(code, MrzCountryCode.canonical(code));
+		Assert.assertSame(MrzCountryCode.canonical("CZE"), MrzCountryCode.canonical(code));
+		Assert.assertSame(MrzCountryCode.lookup("CZE", 0), MrzCountryCode.canonical(code));
+		final String unknown = new String("QQQ");
+		Assert.assertSame(unknown, MrzCountryCode.canonical(unknown));
+		Assert.assertNull(MrzCountryCode.canonical(null));
+	}
+
+	@Test
+	public void testKnown() {
+		Assert.assertTrue(MrzCountryCode.isKnown("DEU"));
+		Assert.assertTrue(MrzCountryCode.isKnown("D"));
+		Assert.assertTrue(MrzCountryCode.isKnown("UNO"));
+		Assert.assertTrue(MrzCountryCode.isKnown("UTO"));
+		Assert.assertFalse(MrzCountryCode.isKnown("QQQ"));
+		Assert.assertFalse(MrzCountryCode.isKnown(""));
+		Assert.assertFalse(MrzCountryCode.isKnown("DEUT"));
+		Assert.assertFalse(MrzCountryCode.isKnown(null));
+	}
+
+	@Test
+	public void testId() {
+		Assert.assertSame(MrzCountryCode.canonical("CZE"), MrzCountryCode.fromId(MrzCountryCode.toId("CZE")));
+		Assert.assertEquals("D", MrzCountryCode.fromId(MrzCountryCode.toId("D")));
+		Assert.assertEquals("QQ", MrzCountryCode.fromId(MrzCountryCode.toId("QQ")));
+		Assert.assertEquals(MrzCountryCode.MAX_ID, MrzCountryCode.toId("ZZZ"));
+		Assert.assertEquals(-1, MrzCountryCode.toId(null));
+		Assert.assertEquals(-1, MrzCountryCode.toId(""));
+		Assert.assertEquals(-1, MrzCountryCode.toId("<"));
+		Assert.assertEquals(-1, MrzCountryCode.toId("C1E"));
+	}
+
+	@Test
+	public void testRecord() throws MrzParseException {
+		final MrzRecord czech = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		final MrzRecord german = MrzParser.parse("P<D<<MUSTERMANN<<ERIKA<<<<<<<<<<<<<<<<<<<<<<\nC01X01R741D<<6408125F2010315<<<<<<<<<<<<<<<9");
+		Assert.assertSame(czech.getIssuingCountry(), czech.getNationality());
+		Assert.assertTrue(czech.isKnownIssuingCountry());
+		Assert.assertEquals("D", german.getIssuingCountry());
+		Assert.assertTrue(german.isKnownNationality());
+		Assert.assertSame(MrzCountryCode.D, german.getIssuingCountry());
+		german.setNationality("QQQ");
+		Assert.assertFalse(german.isKnownNationality());
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRecord;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MrzDateResolver}.
+ */
+public class MrzDateResolverTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+	private static MrzDateResolver resolver() {
+		return new MrzDateResolver(Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+	}
+
+	@Test
+	public void testResolveYear() {
+		final MrzDateResolver resolver = resolver();
+		Assert.assertEquals(2024, resolver.resolveBirthYear(24));
+		Assert.assertEquals(1925, resolver.resolveBirthYear(25));
+		Assert.assertEquals(2000, resolver.resolveBirthYear(0));
+		Assert.assertEquals(2074, resolver.resolveExpiryYear(74));
+		Assert.assertEquals(1975, resolver.resolveExpiryYear(75));
+		resolver.setBirthPivotOffset(10);
+		Assert.assertEquals(2030, resolver.resolveBirthYear(30));
+		Assert.assertEquals(1935, resolver.resolveBirthYear(35));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidOffset() {
+		resolver().setExpiryPivotOffset(100);
+	}
+
+	@Test
+	public void testEpochDay() {
+		final MrzDateResolver resolver = resolver();
+		Assert.assertEquals(TODAY.toEpochDay(), resolver.today());
+		Assert.assertEquals(LocalDate.of(1974, 8, 12), resolver.toBirthDate(new MrzDate(74, 8, 12)));
+		Assert.assertEquals(LocalDate.of(2074, 8, 12), resolver.toExpiryDate(new MrzDate(74, 8, 12)));
+		Assert.assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), resolver.expiryEpochDay(MrzDate.pack(0, 2, 29)));
+		Assert.assertEquals(LocalDate.of(1969, 12, 31).toEpochDay(), resolver.birthEpochDay(MrzDate.pack(69, 12, 31)));
+		Assert.assertEquals(MrzDateResolver.INVALID, resolver.expiryEpochDay(MrzDate.pack(-1, 1, 1)));
+		Assert.assertEquals(MrzDateResolver.INVALID, resolver.expiryEpochDay(MrzDate.pack(10, 13, 1)));
+		Assert.assertNull(resolver.toExpiryDate(new MrzDate(10, 0, 1)));
+		for (int day = -40000; day < 40000; day += 7) {
+			final LocalDate date = LocalDate.ofEpochDay(day);
+			final MrzDateResolver wide = new MrzDateResolver(Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+			wide.setExpiryPivotOffset(day < 0 ? 0 : 99);
+			if (Math.abs(date.getYear() - 1970) < 100 && (day < 0 ? date.getYear() > 1870 : date.getYear() <= 2069)) {
+				Assert.assertEquals(date, wide.toExpiryDate(new MrzDate(date.getYear() % 100, date.getMonthValue(), date.getDayOfMonth())));
+			}
+		}
+	}
+
+	@Test
+	public void testRecord() throws MrzParseException {
+		final MrzRecord record = MrzParser.parse("P<CZESPECIMEN<<VZOR<<<<<<<<<<<<<<<<<<<<<<<<<\n99003853<1CZE1101018M1207046110101111<<<<<94");
+		final MrzDateResolver resolver = resolver();
+		Assert.assertTrue(resolver.isExpired(record));
+		Assert.assertFalse(resolver.isExpired(record, (int) LocalDate.of(2012, 7, 4).toEpochDay()));
+		Assert.assertTrue(resolver.isExpired(record, (int) LocalDate.of(2012, 7, 5).toEpochDay()));
+		Assert.assertTrue(resolver.expiresWithin(record, 30, (int) LocalDate.of(2012, 6, 4).toEpochDay()));
+		Assert.assertFalse(resolver.expiresWithin(record, 29, (int) LocalDate.of(2012, 6, 4).toEpochDay()));
+		Assert.assertFalse(resolver.expiresWithin(record, 30));
+		Assert.assertEquals(13, resolver.getAge(record));
+		Assert.assertEquals(1, resolver.getAge(record, (int) LocalDate.of(2012, 1, 1).toEpochDay()));
+		Assert.assertEquals(0, resolver.getAge(record, (int) LocalDate.of(2011, 12, 31).toEpochDay()));
+		Assert.assertEquals(-1, resolver.getAge(record, (int) LocalDate.of(2010, 1, 1).toEpochDay()));
+	}
+
+	@Test
+	public void testBulk() {
+		final MrzDateResolver resolver = resolver();
+		final int[] dates = {MrzDate.pack(24, 6, 14), MrzDate.pack(24, 6, 15), MrzDate.pack(24, 7, 15), MrzDate.pack(-1, -1, -1)};
+		final boolean[] expired = new boolean[dates.length];
+		resolver.isExpired(dates, resolver.today(), expired);
+		Assert.assertArrayEquals(new boolean[]{true, false, false, true}, expired);
+		final boolean[] expiring = new boolean[dates.length];
+		resolver.expiresWithin(dates, 30, resolver.today(), expiring);
+		Assert.assertArrayEquals(new boolean[]{false, true, true, false}, expiring);
+		final int[] ages = new int[dates.length];
+		resolver.getAges(new int[]{MrzDate.pack(6, 6, 15), MrzDate.pack(6, 6, 16), MrzDate.pack(80, 2, 29), MrzDate.pack(-1, -1, -1)}, resolver.today(), ages);
+		Assert.assertArrayEquals(new int[]{18, 17, 44, -1}, ages);
+	}
+
+	@Test
+	public void testClock() {
+		final MutableClock clock = new MutableClock();
+		final MrzDateResolver resolver = new MrzDateResolver(clock);
+		Assert.assertEquals(0, resolver.today());
+		clock.millis = 86399999;
+		Assert.assertEquals(0, resolver.today());
+		clock.millis = 86400000;
+		Assert.assertEquals(1, resolver.today());
+		clock.millis = 0;
+		Assert.assertEquals(0, resolver.today());
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private long millis;
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(final java.time.ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+	}
+
+}
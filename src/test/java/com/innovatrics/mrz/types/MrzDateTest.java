@@ -18,6 +18,12 @@
  */
 package com.innovatrics.mrz.types;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -76,4 +82,68 @@ public class MrzDateTest {
 		Assert.assertEquals(30, date.getDay());
 		Assert.assertEquals(true, date.isDateValid());
 	}
+
+	@Test
+	public void testParse() {
+		final MrzDate date = MrzDate.parse("X640812Y", 1);
+		Assert.assertSame(date, MrzDate.parse("640812", 0));
+		Assert.assertSame(date, MrzDate.valueOf(64, 8, 12));
+		Assert.assertEquals("640812", date.getMrz());
+		Assert.assertTrue(date.isDateValid());
+		final MrzDate invalid = MrzDate.parse("BB1241", 0);
+		Assert.assertEquals(-1, invalid.getYear());
+		Assert.assertEquals(12, invalid.getMonth());
+		Assert.assertEquals(41, invalid.getDay());
+		Assert.assertEquals("BB1241", invalid.toMrz());
+		Assert.assertFalse(invalid.isDateValid());
+		Assert.assertEquals(-1, MrzDate.parse("64<812", 0).getMonth());
+	}
+
+	@Test
+	public void testPacked() {
+		final int packed = MrzDate.parsePacked("640812", 0);
+		Assert.assertEquals(MrzDate.pack(64, 8, 12), packed);
+		Assert.assertEquals(packed, MrzDate.valueOf(64, 8, 12).getPacked());
+		Assert.assertEquals(64, MrzDate.getYear(packed));
+		Assert.assertEquals(8, MrzDate.getMonth(packed));
+		Assert.assertEquals(12, MrzDate.getDay(packed));
+		Assert.assertSame(MrzDate.valueOf(64, 8, 12), MrzDate.valueOf(packed));
+		Assert.assertTrue(MrzDate.compare(packed, MrzDate.pack(64, 8, 13)) < 0);
+		Assert.assertTrue(MrzDate.compare(packed, MrzDate.pack(63, 12, 31)) > 0);
+		Assert.assertTrue(MrzDate.compare(MrzDate.pack(-1, 1, 1), MrzDate.pack(0, 1, 1)) < 0);
+		Assert.assertEquals(-1, MrzDate.getYear(MrzDate.pack(150, 1, 1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutOfRange() {
+		new MrzDate(2024, 1, 1);
+	}
+
+	@Test
+	public void testSerializedForm() throws IOException, ClassNotFoundException {
+		// Written by the earlier version holding separate year, month and day
+		final String date = "rO0ABXNyACFjb20uaW5ub3ZhdHJpY3MubXJ6LnR5cGVzLk1yekRhdGUAAAAAAAAAAQIABVoACWRhdGVWYWxpZEkAA2RheUkABW1vbnRoSQAEeWVhckwAA21yenQAEkxqYXZhL2xhbmcvU3RyaW5nO3hwAQAAAAwAAAAIAAAAQHQABjY0MDgxMg==";
+		final String invalid = "rO0ABXNyACFjb20uaW5ub3ZhdHJpY3MubXJ6LnR5cGVzLk1yekRhdGUAAAAAAAAAAQIABVoACWRhdGVWYWxpZEkAA2RheUkABW1vbnRoSQAEeWVhckwAA21yenQAEkxqYXZhL2xhbmcvU3RyaW5nO3hwAAAAAAEAAAAM/////3QABkJCMTIwMQ==";
+		Assert.assertSame(MrzDate.valueOf(64, 8, 12), deserialize(Base64.getDecoder().decode(date)));
+		final MrzDate read = (MrzDate) deserialize(Base64.getDecoder().decode(invalid));
+		Assert.assertEquals(new MrzDate(-1, 12, 1), read);
+		Assert.assertEquals("BB1201", read.toMrz());
+		Assert.assertFalse(read.isDateValid());
+		Assert.assertSame(MrzDate.valueOf(64, 8, 12), deserialize(serialize(MrzDate.valueOf(64, 8, 12))));
+		Assert.assertEquals("BB1201", ((MrzDate) deserialize(serialize(read))).toMrz());
+	}
+
+	private static byte[] serialize(final Object value) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		}
+	}
 }
@@ -0,0 +1,326 @@
+package com.innovatrics.mrz.types;
+
+import com.innovatrics.mrz.MrzParseException;
+import com.innovatrics.mrz.MrzParseProfile;
+import com.innovatrics.mrz.MrzParser;
+import com.innovatrics.mrz.MrzRange;
+import com.innovatrics.mrz.MrzRecord;
+import com.innovatrics.mrz.MrzRecordCodec;
+import com.innovatrics.mrz.generator.MrzGenerator;
+import com.innovatrics.mrz.metrics.MrzMetricsRegistry;
+import com.innovatrics.mrz.metrics.StripedMrzMetrics;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MrzFormatRegistry}.
+ */
+public class MrzFormatRegistryTest {
+
+	private static final String CUSTOM_MRZ = "IDXYZNOVAK<<JAN<<<<<<<<<<<<<<<\n1234567897811025M180102<<<<<<<";
+
+	private List<MrzLayout> layouts;
+
+	@Before
+	public void setUp() {
+		layouts = MrzFormatRegistry.getLayouts();
+		MrzFormatRegistry.register(NationalId.INSTANCE);
+	}
+
+	@After
+	public void tearDown() {
+		final Set<MrzLayout> registered = new HashSet<>(MrzFormatRegistry.getLayouts());
+		registered.removeAll(layouts);
+		for (MrzLayout layout : registered) {
+			Assert.assertTrue(MrzFormatRegistry.unregister(layout));
+		}
+		Assert.assertEquals(layouts, MrzFormatRegistry.getLayouts());
+	}
+
+	@Test
+	public void testBuiltInFormats() throws MrzParseException {
+		for (MrzFormat format : MrzFormat.values()) {
+			final MrzGenerator generator = new MrzGenerator(format.ordinal());
+			for (MrzFormat f : MrzFormat.values()) {
+				generator.setFormatWeight(f, f == format ? 1 : 0);
+			}
+			for (int i = 0; i < 100; i++) {
+				final String mrz = generator.generate(i);
+				Assert.assertSame(format, MrzFormatRegistry.get(mrz));
+				Assert.assertSame(format, MrzFormat.get(mrz));
+				Assert.assertTrue(format.isFormatOf(mrz.split("\n")));
+			}
+		}
+		Assert.assertTrue(MrzFormatRegistry.getLayouts().containsAll(Arrays.asList(MrzFormat.values())));
+	}
+
+	@Test
+	public void testLongestPrefix() {
+		Assert.assertSame(MrzFormat.FRENCH_ID, MrzFormatRegistry.find(rows(2, 36, "IDFRA")));
+		Assert.assertSame(MrzFormat.MRTD_TD2, MrzFormatRegistry.find(rows(2, 36, "IDFRB")));
+		Assert.assertSame(MrzFormat.MRV_VISA_B, MrzFormatRegistry.find(rows(2, 36, "V<")));
+		Assert.assertSame(MrzFormat.MRV_VISA_A, MrzFormatRegistry.find(rows(2, 44, "V<")));
+		Assert.assertSame(MrzFormat.PASSPORT, MrzFormatRegistry.find(rows(2, 44, "P<")));
+		Assert.assertSame(MrzFormat.MRTD_TD1, MrzFormatRegistry.find(rows(3, 30, "I<")));
+		Assert.assertSame(MrzFormat.MRTD_TD2, MrzFormatRegistry.find(rows(2, 36, "i*")));
+		Assert.assertNull(MrzFormatRegistry.find(rows(2, 40, "P<")));
+		Assert.assertSame(NationalId.INSTANCE, MrzFormatRegistry.find(rows(2, 30, "IDXYZ")));
+		Assert.assertNull(MrzFormatRegistry.find(rows(2, 30, "IDXY<")));
+	}
+
+	@Test
+	public void testCustomLayout() throws MrzParseException {
+		final MrzRecord record = MrzParser.parse(CUSTOM_MRZ);
+		Assert.assertTrue(record instanceof NationalIdRecord);
+		Assert.assertSame(NationalId.INSTANCE, record.getLayout());
+		Assert.assertNull(record.getFormat());
+		Assert.assertEquals("XYZ", record.getIssuingCountry());
+		Assert.assertEquals("NOVAK", record.getSurname());
+		Assert.assertEquals("123456789", record.getDocumentNumber());
+		Assert.assertTrue(record.isValidDocumentNumber());
+		Assert.assertEquals(new MrzDate(81, 10, 25), record.getDateOfBirth());
+		try {
+			MrzFormat.get(CUSTOM_MRZ);
+			Assert.fail("Expected not a built-in format");
+		} catch (MrzParseException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Not a built-in format"));
+		}
+	}
+
+	@Test
+	public void testFromMrzOverride() throws MrzParseException {
+		final NationalIdRecord record = (NationalIdRecord) MrzParser.parse(CUSTOM_MRZ);
+		Assert.assertEquals("IDXYZ", record.prefix);
+		Assert.assertNull(((NationalIdRecord) MrzParser.parse(CUSTOM_MRZ, new MrzParseProfile())).prefix);
+	}
+
+	@Test
+	public void testCustomLayoutMetrics() throws MrzParseException {
+		final StripedMrzMetrics metrics = new StripedMrzMetrics();
+		MrzMetricsRegistry.setMetrics(metrics);
+		try {
+			MrzParser.parse(CUSTOM_MRZ);
+		} finally {
+			MrzMetricsRegistry.setMetrics(null);
+		}
+		Assert.assertEquals(1, metrics.getParseCount(NationalId.INSTANCE));
+		Assert.assertEquals(0, metrics.getParseCount(null));
+		final MrzParseProfile profile = new MrzParseProfile();
+		MrzParser.parse(CUSTOM_MRZ, profile);
+		Assert.assertSame(NationalId.INSTANCE, profile.getLayout());
+		Assert.assertNull(profile.getFormat());
+	}
+
+	@Test
+	public void testCustomLayoutCodec() throws MrzParseException {
+		final MrzRecord record = MrzParser.parse(CUSTOM_MRZ);
+		try {
+			new MrzRecordCodec().encode(record);
+			Assert.fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException ex) {
+			Assert.assertTrue(ex.getMessage().contains("custom layout INSTANCE"));
+		}
+	}
+
+	@Test
+	public void testManyLayouts() throws MrzParseException {
+		// Layouts of 3 rows of 40 characters with every 2 character prefix
+		final String chars = "<0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+		for (int i = 0; i < chars.length(); i++) {
+			for (int j = 0; j < chars.length(); j++) {
+				MrzFormatRegistry.register(new TestLayout(3, 40, "" + chars.charAt(i) + chars.charAt(j)));
+			}
+		}
+		Assert.assertEquals("K7", MrzFormatRegistry.find(rows(3, 40, "K7")).getPrefix());
+		Assert.assertSame(MrzFormat.PASSPORT, MrzFormatRegistry.find(rows(2, 44, "P<")));
+		Assert.assertSame(NationalId.INSTANCE, MrzFormatRegistry.get(CUSTOM_MRZ));
+	}
+
+	@Test
+	public void testFailingProviders() {
+		final TestLayout layout = new TestLayout(3, 20, "ZZ");
+		final Iterator<MrzLayout> providers = new Iterator<MrzLayout>() {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < 4;
+			}
+
+			@Override
+			public MrzLayout next() {
+				switch (index++) {
+					case 0:
+						throw new ServiceConfigurationError("Provider not found");
+					case 1:
+						return new TestLayout(2, 36, "IDFRA");
+					case 2:
+						return new TestLayout(2, 36, "id");
+					default:
+						return layout;
+				}
+			}
+
+		};
+		MrzFormatRegistry.registerAll(providers);
+		Assert.assertSame(layout, MrzFormatRegistry.find(rows(3, 20, "ZZ")));
+		Assert.assertSame(MrzFormat.FRENCH_ID, MrzFormatRegistry.find(rows(2, 36, "IDFRA")));
+	}
+
+	@Test
+	public void testUnregister() throws MrzParseException {
+		Assert.assertTrue(MrzFormatRegistry.unregister(NationalId.INSTANCE));
+		Assert.assertFalse(MrzFormatRegistry.unregister(NationalId.INSTANCE));
+		Assert.assertNull(MrzFormatRegistry.find(rows(2, 30, "IDXYZ")));
+		Assert.assertSame(MrzFormat.PASSPORT, MrzFormatRegistry.find(rows(2, 44, "P<")));
+		MrzFormatRegistry.register(NationalId.INSTANCE);
+		Assert.assertSame(NationalId.INSTANCE, MrzFormatRegistry.get(CUSTOM_MRZ));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnregisterBuiltIn() {
+		MrzFormatRegistry.unregister(MrzFormat.PASSPORT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicate() {
+		MrzFormatRegistry.register(new TestLayout(2, 36, "IDFRA"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPrefix() {
+		MrzFormatRegistry.register(new TestLayout(2, 36, "id"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrefixTooLong() {
+		MrzFormatRegistry.register(new TestLayout(2, 36, "ABCDEFGHI"));
+	}
+
+	private static String[] rows(final int rows, final int columns, final String prefix) {
+		final String[] result = new String[rows];
+		final StringBuilder row = new StringBuilder(prefix);
+		while (row.length() < columns) {
+			row.append('<');
+		}
+		for (int i = 0; i < rows; i++) {
+			result[i] = i == 0 ? row.toString() : row.toString().replace(prefix, "");
+		}
+		return result;
+	}
+
+	private static final class TestLayout implements MrzLayout {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int rows;
+		private final int columns;
+		private final String prefix;
+
+		private TestLayout(final int rows, final int columns, final String prefix) {
+			this.rows = rows;
+			this.columns = columns;
+			this.prefix = prefix;
+		}
+
+		@Override
+		public String name() {
+			return "TEST_" + prefix;
+		}
+
+		@Override
+		public int getRows() {
+			return rows;
+		}
+
+		@Override
+		public int getColumns() {
+			return columns;
+		}
+
+		@Override
+		public String getPrefix() {
+			return prefix;
+		}
+
+		@Override
+		public MrzRecord newRecord() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	/**
+	 * A national ID card of 2 rows of 30 characters.
+	 */
+	private enum NationalId implements MrzLayout {
+		INSTANCE;
+
+		@Override
+		public int getRows() {
+			return 2;
+		}
+
+		@Override
+		public int getColumns() {
+			return 30;
+		}
+
+		@Override
+		public String getPrefix() {
+			return "IDXYZ";
+		}
+
+		@Override
+		public MrzRecord newRecord() {
+			return new NationalIdRecord();
+		}
+
+	}
+
+	private static final class NationalIdRecord extends MrzRecord {
+
+		private static final long serialVersionUID = 1L;
+
+		private String mrz;
+		private String prefix;
+
+		private NationalIdRecord() {
+			super(NationalId.INSTANCE, "NationalId");
+		}
+
+		@Override
+		public void fromMrz(final String mrz) throws MrzParseException {
+			super.fromMrz(mrz);
+			prefix = mrz.substring(0, 5);
+		}
+
+		@Override
+		protected void fromMrz(final MrzParser parser) throws MrzParseException {
+			super.fromMrz(parser);
+			this.mrz = parser.getMrz();
+			setName(parser.parseName(new MrzRange(5, 30, 0)));
+			setDocumentNumber(parser.parseString(new MrzRange(0, 9, 1)));
+			setValidDocumentNumber(parser.checkDigit(9, 1, new MrzRange(0, 9, 1), "document number"));
+			setDateOfBirth(parser.parseDate(new MrzRange(10, 16, 1)));
+			setSex(parser.parseSex(16, 1));
+			setExpirationDate(parser.parseDate(new MrzRange(17, 23, 1)));
+		}
+
+		@Override
+		public String toMrz() {
+			return mrz;
+		}
+
+	}
+
+}